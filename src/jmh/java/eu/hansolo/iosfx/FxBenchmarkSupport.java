@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx;
+
+import com.sun.javafx.application.PlatformImpl;
+import javafx.application.Platform;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Starts the FX toolkit once per benchmark jvm and runs the measured code
+ * on the FX application thread.
+ */
+public final class FxBenchmarkSupport {
+    private static boolean started;
+
+
+    // ******************** Constructors **************************************
+    private FxBenchmarkSupport() {}
+
+
+    // ******************** Methods *******************************************
+    public static synchronized void startToolkit() throws InterruptedException {
+        if (started) { return; }
+        final CountDownLatch LATCH = new CountDownLatch(1);
+        PlatformImpl.startup(LATCH::countDown);
+        LATCH.await(10, TimeUnit.SECONDS);
+        Platform.setImplicitExit(false);
+        started = true;
+    }
+
+    public static <T> T call(final Callable<T> CALLABLE) throws Exception {
+        final CompletableFuture<T> FUTURE = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                FUTURE.complete(CALLABLE.call());
+            } catch (Throwable t) {
+                FUTURE.completeExceptionally(t);
+            }
+        });
+        return FUTURE.get(60, TimeUnit.SECONDS);
+    }
+
+    public static void run(final Runnable RUNNABLE) throws Exception {
+        call(() -> {
+            RUNNABLE.run();
+            return null;
+        });
+    }
+}
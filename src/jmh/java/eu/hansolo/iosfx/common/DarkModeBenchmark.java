@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.common;
+
+import eu.hansolo.iosfx.FxBenchmarkSupport;
+import eu.hansolo.iosfx.iosmultibutton.IosMultiButton;
+import eu.hansolo.iosfx.iosplusminusbutton.IosPlusMinusButton;
+import eu.hansolo.iosfx.iosswitch.IosSwitch;
+import javafx.scene.Scene;
+import javafx.scene.layout.FlowPane;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Time of flipping the dark mode of a scene full of controls. pass only
+ * measures the registry pass that sets the pseudo classes, frame adds the
+ * css pass and the layout it causes. At 60 fps a frame has a budget of
+ * 16.7 ms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class DarkModeBenchmark {
+    @Param({ "5000" })
+    private int      noOfControls;
+    private FlowPane pane;
+    private Scene    scene;
+    private boolean  dark;
+
+
+    @Setup public void setup() throws Exception {
+        FxBenchmarkSupport.startToolkit();
+        FxBenchmarkSupport.run(() -> {
+            pane = new FlowPane();
+            for (int i = 0 ; i < noOfControls ; i++) {
+                switch(i % 3) {
+                    case 0 : pane.getChildren().add(new IosSwitch()); break;
+                    case 1 : pane.getChildren().add(new IosMultiButton()); break;
+                    default: pane.getChildren().add(new IosPlusMinusButton()); break;
+                }
+            }
+            scene = new Scene(pane, 1200, 800);
+            pane.applyCss();
+            pane.layout();
+        });
+    }
+
+    @Benchmark public void pass() throws Exception {
+        FxBenchmarkSupport.run(() -> {
+            dark = !dark;
+            IosDarkMode.setDarkNow(scene, dark);
+        });
+    }
+
+    @Benchmark public void frame() throws Exception {
+        FxBenchmarkSupport.run(() -> {
+            dark = !dark;
+            IosDarkMode.setDarkNow(scene, dark);
+            pane.applyCss();
+            pane.layout();
+        });
+    }
+}
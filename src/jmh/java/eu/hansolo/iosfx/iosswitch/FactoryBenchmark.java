@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.iosswitch;
+
+import eu.hansolo.iosfx.FxBenchmarkSupport;
+import javafx.scene.paint.Color;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Time of creating a batch of switches with the same settings, once by
+ * calling build() for every switch, once with a factory and once with the
+ * constructor alone as the lower bound.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class FactoryBenchmark {
+    @Param({ "5000" })
+    private int              noOfSwitches;
+    private IosSwitchFactory factory;
+
+
+    @Setup public void setup() throws Exception {
+        FxBenchmarkSupport.startToolkit();
+        factory = builder().factory();
+    }
+
+    @Benchmark public List<IosSwitch> build() throws Exception {
+        return FxBenchmarkSupport.call(() -> {
+            final List<IosSwitch> SWITCHES = new ArrayList<>(noOfSwitches);
+            for (int i = 0 ; i < noOfSwitches ; i++) { SWITCHES.add(builder().build()); }
+            return SWITCHES;
+        });
+    }
+
+    @Benchmark public List<IosSwitch> factory() throws Exception {
+        return FxBenchmarkSupport.call(() -> factory.create(noOfSwitches));
+    }
+
+    @Benchmark public List<IosSwitch> constructor() throws Exception {
+        return FxBenchmarkSupport.call(() -> {
+            final List<IosSwitch> SWITCHES = new ArrayList<>(noOfSwitches);
+            for (int i = 0 ; i < noOfSwitches ; i++) { SWITCHES.add(new IosSwitch()); }
+            return SWITCHES;
+        });
+    }
+
+    private static IosSwitchBuilder<?> builder() {
+        return IosSwitchBuilder.create()
+                               .selected(true)
+                               .selectedColor(Color.web("#007aff"))
+                               .prefSize(51, 31);
+    }
+}
@@ -18,22 +18,18 @@ package eu.hansolo.iosfx;
 
 import eu.hansolo.iosfx.common.IosColor;
 import eu.hansolo.iosfx.events.IosEventType;
-import eu.hansolo.iosfx.iosentry.IosEntry;
-import eu.hansolo.iosfx.iosentry.IosEntryCell;
+import eu.hansolo.iosfx.events.IosStepEvent;
+import eu.hansolo.iosfx.iosentry.IosAccessory;
+import eu.hansolo.iosfx.iosentry.IosEntryModel;
 import eu.hansolo.iosfx.ioslistview.IosListView;
-import eu.hansolo.iosfx.iosmultibutton.IosMultiButton;
 import eu.hansolo.iosfx.iosmultibutton.IosMultiButton.Type;
-import eu.hansolo.iosfx.iosmultibutton.IosMultiButtonBuilder;
 import eu.hansolo.iosfx.iosplusminusbutton.IosPlusMinusButton;
 import eu.hansolo.iosfx.iossegmentedbuttonbar.IosSegmentedButtonBar;
 import eu.hansolo.iosfx.iosslider.IosSlider;
-import eu.hansolo.iosfx.iosswitch.IosSwitch;
-import eu.hansolo.iosfx.iosswitch.IosSwitchBuilder;
 import javafx.application.Application;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
-import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -41,49 +37,38 @@ import javafx.scene.control.ToggleButton;
 import javafx.scene.control.ToggleGroup;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.Rectangle;
-import javafx.scene.shape.Shape;
-import javafx.scene.text.Font;
 import javafx.stage.Stage;
 
 
 public class Demo extends Application {
-    private ObservableList<IosEntry> entries;
-    private IosListView              listView;
-    private IosEntry                 entry1;
-    private IosEntry                 entry2;
-    private IosEntry                 entry3;
-    private IosEntry                 entry4;
-    private IosEntry                 entry5;
-    private IosEntry                 entry6;
-    private IosEntry                 entry7;
-    private IosEntry                 entry8;
-    private IosEntry                 entry9;
-    private IosSlider                slider;
-    private IosSlider                balanceSlider;
-    private IosSegmentedButtonBar    buttonBar1;
-    private IosSegmentedButtonBar    buttonBar2;
-    private IosPlusMinusButton       plusMinusButton;
+    private ObservableList<IosEntryModel> entries;
+    private IosListView                   listView;
+    private IosEntryModel                 entry1;
+    private IosEntryModel                 entry2;
+    private IosEntryModel                 entry3;
+    private IosEntryModel                 entry4;
+    private IosEntryModel                 entry5;
+    private IosEntryModel                 entry6;
+    private IosEntryModel                 entry7;
+    private IosEntryModel                 entry8;
+    private IosEntryModel                 entry9;
+    private IosSlider                     slider;
+    private IosSlider                     balanceSlider;
+    private IosSegmentedButtonBar         buttonBar1;
+    private IosSegmentedButtonBar         buttonBar2;
+    private IosPlusMinusButton            plusMinusButton;
 
 
     @Override public void init() {
-        entry1 = createIosEntry("Title 1", "Subtitle 1", createMultiButton(Type.SMALL_DOT, IosColor.PURPLE.color(), false), createSwitch(IosColor.PURPLE.color(), false), true, true);
-        entry2 = createIosEntry("Title 2", "Subtitle 2", createMultiButton(Type.ADD, IosColor.GREEN.color(), false), createSwitch(IosColor.PINK.color(), true), true, false);
-        entry3 = createIosEntry("Title 3", "Subtitle 3", createMultiButton(Type.DELETE, IosColor.RED.color(), false), createSwitch(IosColor.GREEN.color(), false), false, false);
-        entry4 = createIosEntry("Title 4", "Subtitle 4", createMultiButton(Type.DOT, IosColor.ORANGE.color(), false), createMultiButton(Type.CHECKBOX, IosColor.GREEN.color(), true), false, true);
-        entry5 = createIosEntry("Title 5", "Subtitle 5", createMultiButton(Type.INFO, IosColor.BLUE.color(), false), createMultiButton(Type.CHECKBOX, IosColor.GREEN.color(), false), false, false);
-        entry6 = createIosEntry("Title 6", "Subtitle 6", createMultiButton(Type.PLUS, IosColor.ORANGE.color(), false), createMultiButton(Type.ADD, IosColor.GREEN.color(), false), false, false);
-        entry7 = createIosEntry("Title 7", "Subtitle 7", null, createMultiButton(Type.DELETE, IosColor.GREEN.color(), false), false, false);
-        entry8 = createIosEntry("Title 8", "Subtitle 8", createMultiButton(Type.DOT, IosColor.GREEN.color(), false), createMultiButton(Type.CHECK_MARK, IosColor.BLUE.color(), true), false, false);
-        entry9 = createIosEntry("Title 9", "Subtitle 9", null, createMultiButton(Type.FORWARD, Color.rgb(0, 0, 0, 0.2), true), false, false);
-
-        entry1.setActionLabel("Press");
-
-        entry9.addOnIosEvent(e -> {
-            if (IosEventType.PRESSED == e.getType()) {
-                System.out.println("Move to next screen");
-            }
-        });
+        entry1 = new IosEntryModel(createMultiButton(Type.SMALL_DOT, IosColor.PURPLE.color(), false), "Title 1", "Subtitle 1", createSwitch(IosColor.PURPLE.color(), false), true, true, "Press");
+        entry2 = new IosEntryModel(createMultiButton(Type.ADD, IosColor.GREEN.color(), false), "Title 2", "Subtitle 2", createSwitch(IosColor.PINK.color(), true), true, false);
+        entry3 = new IosEntryModel(createMultiButton(Type.DELETE, IosColor.RED.color(), false), "Title 3", "Subtitle 3", createSwitch(IosColor.GREEN.color(), false), false, false);
+        entry4 = new IosEntryModel(createMultiButton(Type.DOT, IosColor.ORANGE.color(), false), "Title 4", "Subtitle 4", createMultiButton(Type.CHECKBOX, IosColor.GREEN.color(), true), false, true);
+        entry5 = new IosEntryModel(createMultiButton(Type.INFO, IosColor.BLUE.color(), false), "Title 5", "Subtitle 5", createMultiButton(Type.CHECKBOX, IosColor.GREEN.color(), false), false, false);
+        entry6 = new IosEntryModel(createMultiButton(Type.PLUS, IosColor.ORANGE.color(), false), "Title 6", "Subtitle 6", createMultiButton(Type.ADD, IosColor.GREEN.color(), false), false, false);
+        entry7 = new IosEntryModel(null, "Title 7", "Subtitle 7", createMultiButton(Type.DELETE, IosColor.GREEN.color(), false), false, false);
+        entry8 = new IosEntryModel(createMultiButton(Type.DOT, IosColor.GREEN.color(), false), "Title 8", "Subtitle 8", createMultiButton(Type.CHECK_MARK, IosColor.BLUE.color(), true), false, false);
+        entry9 = new IosEntryModel(null, "Title 9", "Subtitle 9", createMultiButton(Type.FORWARD, Color.rgb(0, 0, 0, 0.2), true), false, false);
 
         entries = FXCollections.observableArrayList();
         entries.addAll(entry1, entry2, entry3, entry4, entry5, entry6, entry7, entry8, entry9);
@@ -91,7 +76,6 @@ public class Demo extends Application {
         listView = new IosListView(entries);
         listView.setPrefSize(375, 600);
         listView.setPlaceholder(new Label("No entries loaded"));
-        listView.setCellFactory(p -> new IosEntryCell());
 
         slider = new IosSlider();
 
@@ -131,12 +115,18 @@ public class Demo extends Application {
     }
 
     private void registerListeners() {
-        entry1.addOnActionPressed(e -> System.out.println("entry1 pressed"));
+        listView.addOnIosEvent(e -> {
+            if (IosEventType.ACTION == e.getType() && entry1 == e.getSource()) {
+                System.out.println("entry1 pressed");
+            } else if (IosEventType.PRESSED == e.getType() && entry9 == e.getSource()) {
+                System.out.println("Move to next screen");
+            }
+        });
         balanceSlider.valueProperty().addListener(o -> System.out.println(balanceSlider.getBalanceValue()));
         plusMinusButton.addOnIosEvent(e -> {
             switch(e.getType()) {
-                case INCREASE: System.out.println("Increase"); break;
-                case DECREASE: System.out.println("Decrease"); break;
+                case INCREASE: System.out.println("Increase by " + ((IosStepEvent) e).getSteps() + " to " + plusMinusButton.getValue()); break;
+                case DECREASE: System.out.println("Decrease by " + -((IosStepEvent) e).getSteps() + " to " + plusMinusButton.getValue()); break;
             }
         });
     }
@@ -158,31 +148,12 @@ public class Demo extends Application {
         System.exit(0);
     }
 
-    private IosEntry createIosEntry(final String TITLE, final String SUB_TITLE, final Node LEFT_NODE, final Node RIGHT_NODE, final boolean HAS_ACTION, final boolean HAS_DELETE) {
-        IosEntry entry = new IosEntry(LEFT_NODE, TITLE, SUB_TITLE, RIGHT_NODE);
-        entry.setHasAction(HAS_ACTION);
-        entry.setHasDelete(HAS_DELETE);
-        return entry;
-    }
-
-    private IosSwitch createSwitch(final Color SELECTED_COLOR, final boolean SHOW_ON_OFF_TEXT) {
-        IosSwitch iosSwitch = IosSwitchBuilder.create()
-                                              .minSize(51, 31)
-                                              .maxSize(51, 31)
-                                              .prefSize(51, 31)
-                                              .showOnOffText(SHOW_ON_OFF_TEXT)
-                                              .selectedColor(null == SELECTED_COLOR ? IosSwitch.DEFAULT_SELECTED_COLOR : SELECTED_COLOR)
-                                              .build();
-        return  iosSwitch;
+    private IosAccessory createSwitch(final Color SELECTED_COLOR, final boolean SHOW_ON_OFF_TEXT) {
+        return IosAccessory.iosSwitch(SELECTED_COLOR, SHOW_ON_OFF_TEXT, false);
     }
 
-    private IosMultiButton createMultiButton(final Type MULTI_BUTTON_TYPE, final Color SELECTED_COLOR, final boolean SELECTED) {
-        IosMultiButton iosMultiButton = IosMultiButtonBuilder.create()
-                                                             .type(MULTI_BUTTON_TYPE)
-                                                             .selectedColor(SELECTED_COLOR)
-                                                             .selected(SELECTED)
-                                                             .build();
-        return iosMultiButton;
+    private IosAccessory createMultiButton(final Type MULTI_BUTTON_TYPE, final Color SELECTED_COLOR, final boolean SELECTED) {
+        return IosAccessory.multiButton(MULTI_BUTTON_TYPE, SELECTED_COLOR, SELECTED);
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.common;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+
+/**
+ * Weakly held controls together with the update that has to run on them,
+ * controls that were collected are dropped during the next update. Without
+ * updates register() drops them as soon as at least half of the list was
+ * collected, so the list stays in proportion to the living controls.
+ * Only to be used on the FX application thread.
+ */
+final class IosControlRegistry {
+    private final List<Registration<?>>  registrations = new ArrayList<>();
+    private final ReferenceQueue<Object> collected     = new ReferenceQueue<>();
+    private       int                    noOfCollected;
+
+
+    // ******************** Methods *******************************************
+    <T> void register(final T CONTROL, final Consumer<? super T> UPDATE) {
+        purge();
+        registrations.add(new Registration<>(CONTROL, UPDATE, collected));
+    }
+
+    int size() { return registrations.size(); }
+
+    /**
+     * Runs the update of every living control once.
+     */
+    void update() {
+        final int SIZE = registrations.size();
+        int       next = 0;
+        for (int i = 0 ; i < SIZE ; i++) {
+            final Registration<?> REGISTRATION = registrations.get(i);
+            if (!REGISTRATION.update()) { continue; }
+            registrations.set(next++, REGISTRATION);
+        }
+        // Keeps controls that registered during the pass, drops collected ones
+        for (int i = SIZE ; i < registrations.size() ; i++) { registrations.set(next++, registrations.get(i)); }
+        registrations.subList(next, registrations.size()).clear();
+        forgetCollected();
+    }
+
+
+    /**
+     * Runs the update of every living control once and forgets all of them.
+     */
+    void drain() {
+        final int SIZE = registrations.size();
+        for (int i = 0 ; i < SIZE ; i++) { registrations.get(i).update(); }
+        // Controls that registered during the pass stay
+        registrations.subList(0, SIZE).clear();
+        forgetCollected();
+    }
+
+    /**
+     * Counts the controls the garbage collector enqueued and compacts the
+     * list once they make up half of it, O(1) amortized per registration.
+     */
+    private void purge() {
+        while (null != collected.poll()) { noOfCollected++; }
+        if (noOfCollected == 0 || noOfCollected * 2 < registrations.size()) { return; }
+        int next = 0;
+        for (int i = 0 ; i < registrations.size() ; i++) {
+            final Registration<?> REGISTRATION = registrations.get(i);
+            if (null == REGISTRATION.get()) { continue; }
+            registrations.set(next++, REGISTRATION);
+        }
+        registrations.subList(next, registrations.size()).clear();
+        noOfCollected = 0;
+    }
+
+    /**
+     * The list was just compacted, the enqueued controls are gone already.
+     */
+    private void forgetCollected() {
+        while (null != collected.poll()) {}
+        noOfCollected = 0;
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static final class Registration<T> extends WeakReference<T> {
+        private final Consumer<? super T> UPDATE;
+
+        Registration(final T CONTROL, final Consumer<? super T> UPDATE, final ReferenceQueue<Object> QUEUE) {
+            super(CONTROL, QUEUE);
+            this.UPDATE = UPDATE;
+        }
+
+        boolean update() {
+            final T CONTROL = get();
+            if (null == CONTROL) { return false; }
+            UPDATE.accept(CONTROL);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.common;
+
+import eu.hansolo.iosfx.tools.IosAnimator;
+import javafx.css.PseudoClass;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+
+import java.util.function.Consumer;
+
+
+/**
+ * Dark mode of a whole scene. All iosfx controls register here once and
+ * get the :dark pseudo class of their scene, flipping a scene updates all
+ * controls in one pass on the next pulse instead of one property change per
+ * control. Controls that are added to a dark scene pick it up themselves.
+ * All methods have to be called on the FX application thread.
+ */
+public final class IosDarkMode {
+    public  static final PseudoClass        DARK_PSEUDO_CLASS = PseudoClass.getPseudoClass("dark");
+    private static final String             PROPERTY_KEY      = "iosfx.dark";
+    private static final IosControlRegistry CONTROLS          = new IosControlRegistry();
+    private static       boolean            passScheduled;
+
+
+    // ******************** Constructors **************************************
+    private IosDarkMode() {}
+
+
+    // ******************** Methods *******************************************
+    public static boolean isDark(final Scene SCENE) {
+        return null != SCENE && SCENE.hasProperties() && Boolean.TRUE.equals(SCENE.getProperties().get(PROPERTY_KEY));
+    }
+    public static void setDark(final Scene SCENE, final boolean DARK) {
+        if (DARK == isDark(SCENE)) { return; }
+        SCENE.getProperties().put(PROPERTY_KEY, DARK);
+        if (passScheduled) { return; }
+        passScheduled = true;
+        IosAnimator.runOnNextPulse(IosDarkMode::pass);
+    }
+
+    /**
+     * Calls UPDATE with the control whenever the dark mode of a scene
+     * changed as long as the control is alive. UPDATE must not capture the
+     * control and should return quickly if the scene of the control did not
+     * change.
+     */
+    public static <T extends Node> void register(final T CONTROL, final Consumer<? super T> UPDATE) {
+        CONTROLS.register(CONTROL, UPDATE);
+    }
+
+    public static int getNoOfRegistered() { return CONTROLS.size(); }
+
+    /**
+     * Flips the scene and updates the controls right away instead of on
+     * the next pulse, lets the benchmarks measure one pass.
+     */
+    static void setDarkNow(final Scene SCENE, final boolean DARK) {
+        SCENE.getProperties().put(PROPERTY_KEY, DARK);
+        CONTROLS.update();
+    }
+
+    private static void pass() {
+        passScheduled = false;
+        CONTROLS.update();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.common;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.value.ChangeListener;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.stage.Window;
+
+import java.util.function.Consumer;
+
+
+/**
+ * Runs an action once the window of a control is showing. There is one hub
+ * per scene and with it one listener on the showing property of its
+ * window, no matter how many controls wait. Controls are held weakly and
+ * forgotten once their action ran. The hub only listens while controls
+ * are waiting.
+ * All methods have to be called on the FX application thread.
+ */
+public final class IosShowingHub {
+    private static final String                   PROPERTY_KEY = "iosfx.showingHub";
+    private        final Scene                    SCENE;
+    private        final IosControlRegistry       CONTROLS;
+    private        final InvalidationListener     SHOWING_LISTENER;
+    private        final ChangeListener<Window>   WINDOW_LISTENER;
+    private              boolean                  listening;
+
+
+    // ******************** Constructors **************************************
+    private IosShowingHub(final Scene SCENE) {
+        this.SCENE       = SCENE;
+        CONTROLS         = new IosControlRegistry();
+        SHOWING_LISTENER = o -> showingChanged();
+        WINDOW_LISTENER  = (o, ov, nv) -> {
+            if (null != ov) { ov.showingProperty().removeListener(SHOWING_LISTENER); }
+            if (null != nv) { nv.showingProperty().addListener(SHOWING_LISTENER); }
+            showingChanged();
+        };
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Runs ACTION with the given node as soon as the window of its scene is
+     * showing, right away if it already is. Nodes without a scene are
+     * ignored. ACTION must not capture the node.
+     */
+    public static <T extends Node> void whenShown(final T NODE, final Consumer<? super T> ACTION) {
+        final Scene SCENE = NODE.getScene();
+        if (null == SCENE) { return; }
+        if (isShowing(SCENE)) {
+            ACTION.accept(NODE);
+            return;
+        }
+        IosShowingHub hub = (IosShowingHub) SCENE.getProperties().get(PROPERTY_KEY);
+        if (null == hub) {
+            hub = new IosShowingHub(SCENE);
+            SCENE.getProperties().put(PROPERTY_KEY, hub);
+        }
+        hub.CONTROLS.register(NODE, ACTION);
+        hub.listen(true);
+    }
+
+    private static boolean isShowing(final Scene SCENE) {
+        final Window WINDOW = SCENE.getWindow();
+        return null != WINDOW && WINDOW.isShowing();
+    }
+
+    private void showingChanged() {
+        if (!isShowing(SCENE)) { return; }
+        CONTROLS.drain();
+        if (0 == CONTROLS.size()) { listen(false); }
+    }
+
+    private void listen(final boolean LISTEN) {
+        if (LISTEN == listening) { return; }
+        listening = LISTEN;
+        final Window WINDOW = SCENE.getWindow();
+        if (LISTEN) {
+            SCENE.windowProperty().addListener(WINDOW_LISTENER);
+            if (null != WINDOW) { WINDOW.showingProperty().addListener(SHOWING_LISTENER); }
+        } else {
+            SCENE.windowProperty().removeListener(WINDOW_LISTENER);
+            if (null != WINDOW) { WINDOW.showingProperty().removeListener(SHOWING_LISTENER); }
+        }
+    }
+}
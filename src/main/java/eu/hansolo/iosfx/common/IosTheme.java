@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.common;
+
+import eu.hansolo.iosfx.tools.IosAnimator;
+import javafx.scene.paint.Color;
+
+import java.util.EnumMap;
+import java.util.function.Consumer;
+
+
+/**
+ * A palette of IosColors that the controls read directly instead of looking
+ * up css variables. Roles the current theme does not define fall back to
+ * the stylesheets. Setting another theme bumps the version and repaints all
+ * registered controls once on the next pulse, no css pass is involved.
+ * Controls are registered weakly and are dropped once they are collected.
+ * All static methods have to be called on the FX application thread.
+ */
+public final class IosTheme {
+    public enum Role {
+        ACCENT,     // -selected-color
+        TRACK,      // -background-color of the IosSwitch
+        KNOB        // -knob-color of the IosSwitch
+    }
+
+    public  static final IosTheme             DEFAULT  = new IosTheme("Default", new EnumMap<>(Role.class));
+    private static final IosControlRegistry   CONTROLS = new IosControlRegistry();
+    private static       IosTheme             current  = DEFAULT;
+    private static       long                 version;
+    private static       boolean              repaintScheduled;
+    private        final String               NAME;
+    private        final EnumMap<Role, Color> COLORS;
+
+
+    // ******************** Constructors **************************************
+    private IosTheme(final String NAME, final EnumMap<Role, Color> COLORS) {
+        this.NAME   = NAME;
+        this.COLORS = COLORS;
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Returns an empty theme, all roles fall back to css.
+     */
+    public static IosTheme create(final String NAME) { return new IosTheme(NAME, new EnumMap<>(Role.class)); }
+
+    /**
+     * Returns a copy of this theme with the given color for the given role.
+     */
+    public IosTheme with(final Role ROLE, final IosColor COLOR) { return with(ROLE, COLOR.color()); }
+    public IosTheme with(final Role ROLE, final Color COLOR) {
+        final EnumMap<Role, Color> COPY = new EnumMap<>(COLORS);
+        if (null == COLOR) {
+            COPY.remove(ROLE);
+        } else {
+            COPY.put(ROLE, COLOR);
+        }
+        return new IosTheme(NAME, COPY);
+    }
+
+    public String getName() { return NAME; }
+
+    /**
+     * Returns the color of the given role or the fallback if this theme
+     * does not define it.
+     */
+    public Color getColor(final Role ROLE, final Color FALLBACK) {
+        final Color COLOR = COLORS.get(ROLE);
+        return null == COLOR ? FALLBACK : COLOR;
+    }
+
+    public boolean defines(final Role ROLE) { return COLORS.containsKey(ROLE); }
+
+    public static IosTheme getCurrent() { return current; }
+    public static void setCurrent(final IosTheme THEME) {
+        final IosTheme THEME_TO_SET = null == THEME ? DEFAULT : THEME;
+        if (THEME_TO_SET == current) { return; }
+        current = THEME_TO_SET;
+        version++;
+        if (repaintScheduled) { return; }
+        repaintScheduled = true;
+        IosAnimator.runOnNextPulse(IosTheme::repaint);
+    }
+
+    /**
+     * Returns the version of the current palette, it changes with every
+     * theme switch.
+     */
+    public static long getVersion() { return version; }
+
+    /**
+     * Calls UPDATE with the control after every theme switch as long as
+     * the control is alive. UPDATE must not capture the control.
+     */
+    public static <T> void register(final T CONTROL, final Consumer<? super T> UPDATE) {
+        CONTROLS.register(CONTROL, UPDATE);
+    }
+
+    public static int getNoOfRegistered() { return CONTROLS.size(); }
+
+    private static void repaint() {
+        repaintScheduled = false;
+        CONTROLS.update();
+    }
+}
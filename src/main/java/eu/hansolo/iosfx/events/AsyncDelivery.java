@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.events;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+
+/**
+ * Lets a listener receive IosEvents on an executor instead of the FX
+ * application thread, so that slow listeners do not stall the controls.
+ * Every listener gets its own bounded queue per control, the events of one
+ * control reach the listener one after the other in the order they were
+ * fired, even on an executor with many threads. Results for the UI can be
+ * handed back with IosPulseQueue.post().
+ * Instances are immutable, with...() returns a copy.
+ */
+public final class AsyncDelivery {
+    public  static final int            DEFAULT_CAPACITY = 64;
+    private        final Executor       EXECUTOR;
+    private        final int            CAPACITY;
+    private        final OverflowPolicy OVERFLOW_POLICY;
+
+
+    // ******************** Constructors **************************************
+    private AsyncDelivery(final Executor EXECUTOR, final int CAPACITY, final OverflowPolicy OVERFLOW_POLICY) {
+        this.EXECUTOR        = EXECUTOR;
+        this.CAPACITY        = CAPACITY;
+        this.OVERFLOW_POLICY = OVERFLOW_POLICY;
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Returns a delivery on the given executor with a queue of
+     * DEFAULT_CAPACITY events that drops the oldest event when it is full.
+     */
+    public static AsyncDelivery on(final Executor EXECUTOR) {
+        return new AsyncDelivery(Objects.requireNonNull(EXECUTOR), DEFAULT_CAPACITY, OverflowPolicy.DROP_OLDEST);
+    }
+
+    public AsyncDelivery withCapacity(final int CAPACITY) {
+        if (CAPACITY < 1) { throw new IllegalArgumentException("Capacity must be at least 1"); }
+        return new AsyncDelivery(EXECUTOR, CAPACITY, OVERFLOW_POLICY);
+    }
+
+    public AsyncDelivery withOverflowPolicy(final OverflowPolicy OVERFLOW_POLICY) {
+        return new AsyncDelivery(EXECUTOR, CAPACITY, Objects.requireNonNull(OVERFLOW_POLICY));
+    }
+
+    public Executor getExecutor() { return EXECUTOR; }
+
+    public int getCapacity() { return CAPACITY; }
+
+    public OverflowPolicy getOverflowPolicy() { return OVERFLOW_POLICY; }
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.events;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+
+
+/**
+ * Listener bookkeeping of a control. Listeners are told apart by identity,
+ * two listeners that are equals() are still two listeners, and can listen
+ * to all or only to some event types. Adding and removing is O(1), the per
+ * type arrays that fire() walks are only rebuilt on the first event after
+ * a change. Weakly held listeners are dropped as soon as they were
+ * collected. Listeners that were added with an AsyncDelivery get their
+ * events queued on its executor, all others are called directly.
+ * Listeners can be added and removed from any thread, a listener that is
+ * removed while an event is fired might still get that event.
+ */
+public class IosEventDispatcher {
+    private static final Registration[]                      NONE = new Registration[0];
+    private        final Map<IosEventListener, Registration> strong;
+    private        final Map<WeakKey, Registration>          weak;
+    private        final ReferenceQueue<IosEventListener>    collected;
+    private        final Map<IosEventType, Registration[]>   snapshots;
+    private              long                                order;
+    private volatile     boolean                             dirty;
+
+
+    // ******************** Constructors **************************************
+    public IosEventDispatcher() {
+        strong    = new IdentityHashMap<>();
+        weak      = new HashMap<>();
+        collected = new ReferenceQueue<>();
+        snapshots = new EnumMap<>(IosEventType.class);
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Adds a listener for all event types, a listener that was already
+     * added listens to all types from now on.
+     */
+    public void add(final IosEventListener LISTENER, final ReferenceType REFERENCE_TYPE) {
+        add(LISTENER, EnumSet.allOf(IosEventType.class), REFERENCE_TYPE, null);
+    }
+    public void add(final IosEventListener LISTENER, final ReferenceType REFERENCE_TYPE, final AsyncDelivery DELIVERY) {
+        add(LISTENER, EnumSet.allOf(IosEventType.class), REFERENCE_TYPE, DELIVERY);
+    }
+    /**
+     * Adds a listener for the given event type, a listener that was already
+     * added also listens to this type from now on.
+     */
+    public void add(final IosEventType TYPE, final IosEventListener LISTENER, final ReferenceType REFERENCE_TYPE) {
+        add(LISTENER, EnumSet.of(TYPE), REFERENCE_TYPE, null);
+    }
+    /**
+     * Adds a listener that gets its events on the executor of the given
+     * delivery, null delivers synchronously. Adding a listener again
+     * replaces its delivery.
+     */
+    public void add(final IosEventType TYPE, final IosEventListener LISTENER, final ReferenceType REFERENCE_TYPE, final AsyncDelivery DELIVERY) {
+        add(LISTENER, EnumSet.of(TYPE), REFERENCE_TYPE, DELIVERY);
+    }
+    private synchronized void add(final IosEventListener LISTENER, final Set<IosEventType> TYPES, final ReferenceType REFERENCE_TYPE, final AsyncDelivery DELIVERY) {
+        if (null == LISTENER) { return; }
+        purge();
+        Registration registration = find(LISTENER);
+        if (null == registration) {
+            if (ReferenceType.WEAK == REFERENCE_TYPE) {
+                final WeakKey KEY = new WeakKey(LISTENER, collected);
+                registration = new Registration(null, KEY, order++);
+                weak.put(KEY, registration);
+            } else {
+                registration = new Registration(LISTENER, null, order++);
+                strong.put(LISTENER, registration);
+            }
+        }
+        registration.TYPES.addAll(TYPES);
+        registration.setDelivery(DELIVERY);
+        dirty = true;
+    }
+
+    public synchronized void remove(final IosEventListener LISTENER) {
+        purge();
+        Registration registration = strong.remove(LISTENER);
+        if (null == registration) { registration = weak.remove(new WeakKey(LISTENER, null)); }
+        if (null == registration) { return; }
+        registration.setDelivery(null);
+        dirty = true;
+    }
+
+    public synchronized void clear() {
+        for (Registration registration : strong.values()) { registration.setDelivery(null); }
+        for (Registration registration : weak.values()) { registration.setDelivery(null); }
+        strong.clear();
+        weak.clear();
+        dirty = true;
+    }
+
+    /**
+     * Returns true if a listener is interested in the given type, lets
+     * controls skip creating events nobody gets.
+     */
+    public boolean hasListeners(final IosEventType TYPE) { return getSnapshot(TYPE).length > 0; }
+
+    public synchronized int size() {
+        purge();
+        return strong.size() + weak.size();
+    }
+
+    /**
+     * Calls the listeners of the type of the given event in the order they
+     * were added, asynchronous listeners only get the event queued.
+     */
+    public void fire(final IosEvent EVENT) {
+        final Registration[] REGISTRATIONS = getSnapshot(EVENT.getType());
+        for (int i = 0 ; i < REGISTRATIONS.length ; i++) {
+            final Registration     REGISTRATION = REGISTRATIONS[i];
+            final IosEventListener LISTENER     = REGISTRATION.get();
+            if (null == LISTENER) {
+                dirty = true;
+                continue;
+            }
+            final Mailbox MAILBOX = REGISTRATION.mailbox;
+            if (null == MAILBOX) {
+                LISTENER.onIosEvent(EVENT);
+            } else {
+                MAILBOX.offer(EVENT);
+            }
+        }
+    }
+
+    private Registration find(final IosEventListener LISTENER) {
+        final Registration REGISTRATION = strong.get(LISTENER);
+        return null == REGISTRATION ? weak.get(new WeakKey(LISTENER, null)) : REGISTRATION;
+    }
+
+    /**
+     * Removes the registrations of collected listeners, only touches the
+     * ones the garbage collector enqueued.
+     */
+    private void purge() {
+        for (Reference<? extends IosEventListener> key = collected.poll() ; null != key ; key = collected.poll()) {
+            final Registration REGISTRATION = weak.remove(key);
+            if (null == REGISTRATION) { continue; }
+            REGISTRATION.setDelivery(null);
+            dirty = true;
+        }
+    }
+
+    private Registration[] getSnapshot(final IosEventType TYPE) {
+        if (dirty) { rebuild(); }
+        synchronized (this) {
+            final Registration[] SNAPSHOT = snapshots.get(TYPE);
+            return null == SNAPSHOT ? NONE : SNAPSHOT;
+        }
+    }
+
+    private synchronized void rebuild() {
+        if (!dirty) { return; }
+        purge();
+        dirty = false;
+        final List<Registration> LIVING = new ArrayList<>(strong.size() + weak.size());
+        LIVING.addAll(strong.values());
+        for (Registration registration : weak.values()) { if (null != registration.get()) { LIVING.add(registration); } }
+        final Registration[] ALL = LIVING.toArray(NONE);
+        Arrays.sort(ALL, (r1, r2) -> Long.compare(r1.ORDER, r2.ORDER));
+
+        snapshots.clear();
+        final List<Registration> OF_TYPE = new ArrayList<>(ALL.length);
+        for (IosEventType type : IosEventType.values()) {
+            OF_TYPE.clear();
+            for (Registration registration : ALL) { if (registration.TYPES.contains(type)) { OF_TYPE.add(registration); } }
+            if (!OF_TYPE.isEmpty()) { snapshots.put(type, OF_TYPE.toArray(NONE)); }
+        }
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Weak map key that compares the listeners by identity and keeps its
+     * hash after the listener was collected.
+     */
+    private static final class WeakKey extends WeakReference<IosEventListener> {
+        private final int HASH;
+
+        WeakKey(final IosEventListener LISTENER, final ReferenceQueue<IosEventListener> QUEUE) {
+            super(LISTENER, QUEUE);
+            HASH = System.identityHashCode(LISTENER);
+        }
+
+        @Override public int hashCode() { return HASH; }
+
+        @Override public boolean equals(final Object OBJECT) {
+            if (this == OBJECT) { return true; }
+            if (!(OBJECT instanceof WeakKey)) { return false; }
+            final IosEventListener LISTENER = get();
+            return null != LISTENER && LISTENER == ((WeakKey) OBJECT).get();
+        }
+    }
+
+    private static final class Registration {
+        private final    IosEventListener  LISTENER;
+        private final    WeakKey           KEY;
+        private final    long              ORDER;
+        private final    Set<IosEventType> TYPES;
+        private volatile Mailbox           mailbox;
+
+        Registration(final IosEventListener LISTENER, final WeakKey KEY, final long ORDER) {
+            this.LISTENER = LISTENER;
+            this.KEY      = KEY;
+            this.ORDER    = ORDER;
+            this.TYPES    = EnumSet.noneOf(IosEventType.class);
+        }
+
+        IosEventListener get() { return null == KEY ? LISTENER : KEY.get(); }
+
+        void setDelivery(final AsyncDelivery DELIVERY) {
+            if (null != mailbox) {
+                if (mailbox.DELIVERY == DELIVERY) { return; }
+                mailbox.close();
+            }
+            mailbox = null == DELIVERY ? null : new Mailbox(this, DELIVERY);
+        }
+    }
+
+    /**
+     * The bounded queue of one asynchronous listener. At most one task per
+     * mailbox is on the executor at any time, which keeps the events in
+     * order. The task delivers until the queue is empty.
+     */
+    private static final class Mailbox implements Runnable {
+        private final Registration         REGISTRATION;
+        private final AsyncDelivery        DELIVERY;
+        private final ArrayDeque<IosEvent> QUEUE;
+        private       boolean              scheduled;
+        private       boolean              closed;
+
+        Mailbox(final Registration REGISTRATION, final AsyncDelivery DELIVERY) {
+            this.REGISTRATION = REGISTRATION;
+            this.DELIVERY     = DELIVERY;
+            this.QUEUE        = new ArrayDeque<>(Math.min(DELIVERY.getCapacity(), 16));
+        }
+
+        void offer(final IosEvent EVENT) {
+            synchronized (this) {
+                if (closed) { return; }
+                if (QUEUE.size() >= DELIVERY.getCapacity()) {
+                    switch(DELIVERY.getOverflowPolicy()) {
+                        case DROP_NEWEST: return;
+                        case DROP_OLDEST: QUEUE.pollFirst(); break;
+                        case KEEP_LATEST: QUEUE.clear(); break;
+                    }
+                }
+                QUEUE.addLast(EVENT);
+                if (scheduled) { return; }
+                scheduled = true;
+            }
+            try {
+                DELIVERY.getExecutor().execute(this);
+            } catch (RejectedExecutionException e) {
+                // The executor was shut down, nothing will ever be delivered
+                close();
+            }
+        }
+
+        synchronized void close() {
+            closed    = true;
+            scheduled = false;
+            QUEUE.clear();
+        }
+
+        @Override public void run() {
+            while (true) {
+                final IosEvent EVENT;
+                synchronized (this) {
+                    EVENT = QUEUE.pollFirst();
+                    if (null == EVENT) {
+                        scheduled = false;
+                        return;
+                    }
+                }
+                final IosEventListener LISTENER = REGISTRATION.get();
+                if (null == LISTENER) {
+                    close();
+                    return;
+                }
+                try {
+                    LISTENER.onIosEvent(EVENT);
+                } catch (RuntimeException e) {
+                    // Keep delivering, one failing event must not stall the mailbox
+                    final Thread THREAD = Thread.currentThread();
+                    THREAD.getUncaughtExceptionHandler().uncaughtException(THREAD, e);
+                }
+            }
+        }
+    }
+}
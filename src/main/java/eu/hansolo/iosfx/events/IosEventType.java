@@ -17,5 +17,5 @@
 package eu.hansolo.iosfx.events;
 
 public enum IosEventType {
-    SELECTED, DESELECTED, DELETE_ENTRY, ADD_ENTRY, PRESSED, RELEASED, INCREASE, DECREASE
+    SELECTED, DESELECTED, DELETE_ENTRY, ADD_ENTRY, PRESSED, RELEASED, INCREASE, DECREASE, ACTION, LONG_PRESSED
 }
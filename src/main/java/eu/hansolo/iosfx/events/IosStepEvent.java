@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.events;
+
+
+/**
+ * INCREASE or DECREASE event that carries all steps taken since the last
+ * event, e.g. +37 after holding the plus button for a while.
+ */
+public class IosStepEvent extends IosEvent {
+    public final int    STEPS;
+    public final double VALUE;
+
+
+    // ******************** Constructors **************************************
+    public IosStepEvent(final Object SRC, final int STEPS, final double VALUE) {
+        super(SRC, STEPS < 0 ? IosEventType.DECREASE : IosEventType.INCREASE);
+        this.STEPS = STEPS;
+        this.VALUE = VALUE;
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Returns the number of steps, negative for decreases.
+     */
+    public int getSteps() { return STEPS; }
+
+    /**
+     * Returns the value after the steps.
+     */
+    public double getValue() { return VALUE; }
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.events;
+
+/**
+ * What an AsyncDelivery does with a new event when its queue is full.
+ * DROP_OLDEST and DROP_NEWEST drop one event, KEEP_LATEST drops all queued
+ * events and only keeps the new one, which suits listeners that only care
+ * about the current state.
+ */
+public enum OverflowPolicy { DROP_OLDEST, DROP_NEWEST, KEEP_LATEST }
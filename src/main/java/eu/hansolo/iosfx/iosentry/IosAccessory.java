@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.iosentry;
+
+import eu.hansolo.iosfx.iosmultibutton.IosMultiButton;
+import eu.hansolo.iosfx.iosmultibutton.IosMultiButton.Type;
+import eu.hansolo.iosfx.iosmultibutton.IosMultiButtonBuilder;
+import eu.hansolo.iosfx.iosswitch.IosSwitch;
+import eu.hansolo.iosfx.iosswitch.IosSwitchBuilder;
+import javafx.scene.Node;
+import javafx.scene.paint.Color;
+
+import java.util.Objects;
+
+
+/**
+ * Immutable description of the node that is shown left or right of the
+ * text in an IosEntry. The node itself is only created by the cell that
+ * currently displays the entry.
+ */
+public class IosAccessory {
+    public enum Kind { NONE, MULTI_BUTTON, SWITCH }
+
+    public  static final IosAccessory NONE          = new IosAccessory(Kind.NONE, null, null, false, false);
+    private static final double       SWITCH_WIDTH  = 51;
+    private static final double       SWITCH_HEIGHT = 31;
+    private        final Kind         KIND;
+    private        final Type         TYPE;
+    private        final Color        COLOR;
+    private        final boolean      SELECTED;
+    private        final boolean      SHOW_ON_OFF_TEXT;
+
+
+    // ******************** Constructors **************************************
+    private IosAccessory(final Kind KIND, final Type TYPE, final Color COLOR, final boolean SELECTED, final boolean SHOW_ON_OFF_TEXT) {
+        this.KIND             = KIND;
+        this.TYPE             = TYPE;
+        this.COLOR            = COLOR;
+        this.SELECTED         = SELECTED;
+        this.SHOW_ON_OFF_TEXT = SHOW_ON_OFF_TEXT;
+    }
+
+
+    // ******************** Methods *******************************************
+    public static IosAccessory multiButton(final Type TYPE, final Color SELECTED_COLOR, final boolean SELECTED) {
+        return new IosAccessory(Kind.MULTI_BUTTON, TYPE, null == SELECTED_COLOR ? IosMultiButton.DEFAULT_SELECTED_COLOR : SELECTED_COLOR, SELECTED, false);
+    }
+
+    public static IosAccessory iosSwitch(final Color SELECTED_COLOR, final boolean SHOW_ON_OFF_TEXT, final boolean SELECTED) {
+        return new IosAccessory(Kind.SWITCH, null, null == SELECTED_COLOR ? IosSwitch.DEFAULT_SELECTED_COLOR : SELECTED_COLOR, SELECTED, SHOW_ON_OFF_TEXT);
+    }
+
+    public Kind getKind() { return KIND; }
+
+    public Type getType() { return TYPE; }
+
+    public Color getColor() { return COLOR; }
+
+    public boolean isSelected() { return SELECTED; }
+
+    public boolean getShowOnOffText() { return SHOW_ON_OFF_TEXT; }
+
+    public Node createNode() {
+        switch(KIND) {
+            case MULTI_BUTTON:
+                return IosMultiButtonBuilder.create()
+                                            .type(TYPE)
+                                            .selectedColor(COLOR)
+                                            .selected(SELECTED)
+                                            .build();
+            case SWITCH:
+                return IosSwitchBuilder.create()
+                                       .minSize(SWITCH_WIDTH, SWITCH_HEIGHT)
+                                       .maxSize(SWITCH_WIDTH, SWITCH_HEIGHT)
+                                       .prefSize(SWITCH_WIDTH, SWITCH_HEIGHT)
+                                       .showOnOffText(SHOW_ON_OFF_TEXT)
+                                       .selectedColor(COLOR)
+                                       .selected(SELECTED)
+                                       .build();
+            case NONE:
+            default  : return null;
+        }
+    }
+
+    /**
+     * Returns the given node adjusted to this description if it can be reused,
+     * otherwise a newly created node. The selected state is always reset, a
+     * recycled node might have been toggled by the user.
+     */
+    public Node updateNode(final Node NODE) {
+        switch(KIND) {
+            case MULTI_BUTTON:
+                if (NODE instanceof IosMultiButton && TYPE == ((IosMultiButton) NODE).getType()) {
+                    IosMultiButton button = (IosMultiButton) NODE;
+                    if (!COLOR.equals(button.getSelectedColor())) { button.setSelectedColor(COLOR); }
+                    if (SELECTED != button.isSelected()) { button.setSelected(SELECTED); }
+                    return button;
+                }
+                return createNode();
+            case SWITCH:
+                if (NODE instanceof IosSwitch) {
+                    IosSwitch iosSwitch = (IosSwitch) NODE;
+                    if (!COLOR.equals(iosSwitch.getSelectedColor())) { iosSwitch.setSelectedColor(COLOR); }
+                    if (SHOW_ON_OFF_TEXT != iosSwitch.getShowOnOffText()) { iosSwitch.setShowOnOffText(SHOW_ON_OFF_TEXT); }
+                    if (SELECTED != iosSwitch.isSelected()) { iosSwitch.setSelected(SELECTED, false); }
+                    return iosSwitch;
+                }
+                return createNode();
+            case NONE:
+            default  : return null;
+        }
+    }
+
+    @Override public boolean equals(final Object OBJ) {
+        if (this == OBJ) { return true; }
+        if (!(OBJ instanceof IosAccessory)) { return false; }
+        IosAccessory other = (IosAccessory) OBJ;
+        return KIND == other.KIND && TYPE == other.TYPE && SELECTED == other.SELECTED && SHOW_ON_OFF_TEXT == other.SHOW_ON_OFF_TEXT && Objects.equals(COLOR, other.COLOR);
+    }
+
+    @Override public int hashCode() { return Objects.hash(KIND, TYPE, COLOR, SELECTED, SHOW_ON_OFF_TEXT); }
+}
@@ -16,17 +16,17 @@
 
 package eu.hansolo.iosfx.iosentry;
 
+import eu.hansolo.iosfx.common.IosDarkMode;
+import eu.hansolo.iosfx.events.AsyncDelivery;
 import eu.hansolo.iosfx.events.IosEvent;
+import eu.hansolo.iosfx.events.IosEventDispatcher;
 import eu.hansolo.iosfx.events.IosEventListener;
 import eu.hansolo.iosfx.events.IosEventType;
+import eu.hansolo.iosfx.events.ReferenceType;
 import eu.hansolo.iosfx.fonts.Fonts;
 import eu.hansolo.iosfx.iosmultibutton.IosMultiButton;
 import eu.hansolo.iosfx.iosmultibutton.IosMultiButton.Type;
 import eu.hansolo.iosfx.tools.Helper;
-import javafx.animation.Interpolator;
-import javafx.animation.KeyFrame;
-import javafx.animation.KeyValue;
-import javafx.animation.Timeline;
 import javafx.beans.DefaultProperty;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.BooleanPropertyBase;
@@ -34,7 +34,6 @@ import javafx.beans.property.StringProperty;
 import javafx.beans.property.StringPropertyBase;
 import javafx.collections.ObservableList;
 import javafx.event.EventHandler;
-import javafx.event.EventType;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
@@ -44,10 +43,6 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
-import javafx.util.Duration;
-
-import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 
 /**
@@ -57,19 +52,24 @@ import java.util.concurrent.CopyOnWriteArrayList;
  */
 @DefaultProperty("children")
 public class IosEntry extends Region {
+    public enum SwipeState { CLOSED, DRAGGING, OPEN, DELETING }
+
     private static final double                   PREFERRED_WIDTH  = 375;
     private static final double                   PREFERRED_HEIGHT = 44;
     private static final double                   MINIMUM_WIDTH    = 100;
     private static final double                   MINIMUM_HEIGHT   = 10;
     private static final double                   MAXIMUM_WIDTH    = 2048;
     private static final double                   MAXIMUM_HEIGHT   = 1024;
-    private static final double                   BUTTON_WIDTH     = 82;
+    static         final double                   BUTTON_WIDTH     = 82;
+    private static final double                   TEXT_INSET       = 4;
     private        final IosEvent                 DELETE_ENTRY_EVT = new IosEvent(IosEntry.this, IosEventType.DELETE_ENTRY);
     private        final IosEvent                 PRESSED_EVT      = new IosEvent(IosEntry.this, IosEventType.PRESSED);
     private        final IosEvent                 RELEASED_EVT     = new IosEvent(IosEntry.this, IosEventType.RELEASED);
+    private        final IosEvent                 ACTION_EVT       = new IosEvent(IosEntry.this, IosEventType.ACTION);
     private              double                   size;
     private              double                   width;
     private              double                   height;
+    private              double                   rowHeight;
     private              Label                    titleLabel;
     private              Label                    subtitleLabel;
 
@@ -84,6 +84,7 @@ public class IosEntry extends Region {
     private              Node                     rightNode;
     private              Label                    action;
     private              Label                    delete;
+    private              String                   actionText;
 
     private              boolean                  _hasDelete;
     private              BooleanProperty          hasDelete;
@@ -91,21 +92,24 @@ public class IosEntry extends Region {
     private              boolean                  _hasAction;
     private              BooleanProperty          hasAction;
 
-    private              boolean                  preDelete;
-
     private              boolean                  hasForward;
 
-    private              Timeline                 timeline;
-    private              EventHandler<MouseEvent> mouseHandler;
-    private              double                   draggedStartX;
+    private              IosEntryModel            model;
 
-    private              List<IosEventListener> listeners;
+    private              SwipeState               swipeState;
+    private              IosSwipeGesture          swipeGesture;
+
+    private              IosEventDispatcher     dispatcher;
 
 
     // ******************** Constructors **************************************
     public IosEntry() {
         this(null, "", "", null);
     }
+    public IosEntry(final IosEntryModel MODEL) {
+        this();
+        setModel(MODEL);
+    }
     public IosEntry(final Node LEFT_NODE, final String TITLE, final String SUB_TITLE, final Node RIGHT_NODE) {
         getStylesheets().add(IosEntry.class.getResource("ios-entry.css").toExternalForm());
 
@@ -115,74 +119,13 @@ public class IosEntry extends Region {
         rightNode      = RIGHT_NODE;
         _hasDelete     = true;
         _hasAction     = true;
-        preDelete      = false;
         hasForward     = false;
-        timeline       = new Timeline();
+        swipeState     = SwipeState.CLOSED;
+        actionText     = "Action";
 
-        if (null != rightNode) {
-            if (rightNode instanceof IosMultiButton) {
-                IosMultiButton mb = (IosMultiButton) rightNode;
-                hasForward = Type.FORWARD == mb.getType();
-                mb = null;
-            }
-        }
-
-        mouseHandler = e -> {
-            final EventType<? extends MouseEvent> TYPE = e.getEventType();
-            double  translateX = getTranslateX();
-            boolean hasAction  = getHasAction();
-            boolean hasDelete  = getHasDelete();
-            double  x          = e.getSceneX();
-
-            if (TYPE.equals(MouseEvent.MOUSE_PRESSED)) {
-                if (hasForward) { fireIosEvent(PRESSED_EVT); }
-                draggedStartX = x;
-            } else if (TYPE.equals(MouseEvent.MOUSE_DRAGGED)) {
-                double delta = (draggedStartX - x) * -1;
-
-                if (hasDelete && !preDelete && delta < -pane.getPrefWidth() * 0.5) {
-                    preDelete = true;
-                    animateToDirectDelete();
-                    return;
-                } else if (Double.compare(translateX, 0) == 0 && delta > 0 ||
-                    Double.compare(x, draggedStartX) == 0 ||
-                    (hasAction && hasDelete && Double.compare(translateX, -2 * BUTTON_WIDTH) == 0 && delta < 0) ||
-                    ((hasAction && !hasDelete) && Double.compare(translateX, -BUTTON_WIDTH) == 0 && delta < 0) ||
-                    ((!hasAction && hasDelete) && Double.compare(translateX, -BUTTON_WIDTH) == 0 && delta < 0)) {
-                    return;
-                }
+        updateHasForward();
 
-                if (hasAction && hasDelete) {
-                    if (delta > 0) {
-                        setTranslateX(-2 * BUTTON_WIDTH + Helper.clamp(0, 2 * BUTTON_WIDTH, delta));
-                        action.setTranslateX(Helper.clamp(0, BUTTON_WIDTH, delta * 0.75));
-                    } else {
-                        setTranslateX(Helper.clamp(-2 * BUTTON_WIDTH, 0, delta));
-                        action.setTranslateX(Helper.clamp(0, BUTTON_WIDTH, BUTTON_WIDTH + delta * 0.75));
-                    }
-                } else if (hasAction || hasDelete) {
-                    if (preDelete) { return; }
-                    if (delta > 0) {
-                        setTranslateX(-BUTTON_WIDTH + Helper.clamp(0, BUTTON_WIDTH, delta));
-                    } else {
-                        setTranslateX(Helper.clamp(-BUTTON_WIDTH, 0, delta));
-                    }
-                }
-            } else if (TYPE.equals(MouseEvent.MOUSE_RELEASED)) {
-                if (preDelete) {
-                    fireIosEvent(DELETE_ENTRY_EVT);
-                    return;
-                } else if (hasForward) {
-                    fireIosEvent(RELEASED_EVT);
-                } else if (Double.compare(x, draggedStartX) == 0 ||
-                    hasAction && hasDelete && Double.compare(translateX, -2 * BUTTON_WIDTH) == 0 ||
-                    (hasAction || hasDelete) && Double.compare(translateX, -BUTTON_WIDTH) == 0) {
-                    return;
-                }
-                animate();
-            }
-        };
-        listeners      = new CopyOnWriteArrayList<>();
+        dispatcher     = new IosEventDispatcher();
 
         initGraphics();
         registerListeners();
@@ -212,55 +155,67 @@ public class IosEntry extends Region {
         subtitleLabel.getStyleClass().add("subtitle");
         subtitleLabel.setAlignment(Pos.CENTER_LEFT);
         subtitleLabel.setMaxWidth(Double.MAX_VALUE);
+        subtitleLabel.setWrapText(true);
 
         if (null == getSubtitle() || getSubtitle().isEmpty()) { Helper.enableNode(subtitleLabel, false); }
 
         textBox = new VBox(2, titleLabel, subtitleLabel);
         textBox.setAlignment(Pos.CENTER_LEFT);
 
-        action = new Label("Action");
+        pane = new HBox(15);
+
+        HBox.setHgrow(titleLabel, Priority.ALWAYS);
+        HBox.setHgrow(subtitleLabel, Priority.ALWAYS);
+        HBox.setHgrow(textBox, Priority.ALWAYS);
+
+        updatePaneChildren();
+        pane.setAlignment(Pos.CENTER);
+
+        getChildren().setAll(pane);
+    }
+
+    /**
+     * Most rows are never swiped, so the action and delete buttons are only
+     * created when they are needed for the first time.
+     */
+    void initSwipeButtons() {
+        if (null != action) { return; }
+        action = new Label(actionText);
         action.getStyleClass().add("action");
         action.setFont(Fonts.robotoRegular(18));
-        action.setManaged(false);
-        action.setVisible(false);
+        action.setManaged(getHasAction());
+        action.setVisible(getHasAction());
         action.setPrefSize(BUTTON_WIDTH, PREFERRED_HEIGHT);
+        action.setOnMousePressed(e -> fireIosEvent(ACTION_EVT));
 
         delete = new Label("Delete");
         delete.getStyleClass().add("delete");
         delete.setFont(Fonts.robotoRegular(18));
-        delete.setManaged(false);
-        delete.setVisible(false);
+        delete.setManaged(getHasDelete());
+        delete.setVisible(getHasDelete());
         delete.setPrefSize(BUTTON_WIDTH, PREFERRED_HEIGHT);
+        delete.setOnMousePressed(e -> fireIosEvent(DELETE_ENTRY_EVT));
 
-        pane = new HBox(15);
-
-        HBox.setHgrow(titleLabel, Priority.ALWAYS);
-        HBox.setHgrow(subtitleLabel, Priority.ALWAYS);
-        HBox.setHgrow(textBox, Priority.ALWAYS);
         HBox.setHgrow(action, Priority.NEVER);
         HBox.setHgrow(delete, Priority.NEVER);
         HBox.setMargin(action, Insets.EMPTY);
         HBox.setMargin(delete, Insets.EMPTY);
 
-        if (null != getLeftNode())  {
-            pane.getChildren().add(getLeftNode());
-            HBox.setMargin(getLeftNode(), new Insets(0, 0, 0, 15));
-        }
-        if (null != textBox)   { pane.getChildren().add(textBox); }
-        if (null != getRightNode()) { pane.getChildren().add(getRightNode()); }
         pane.getChildren().addAll(action, delete);
-        pane.setAlignment(Pos.CENTER);
-
-        getChildren().setAll(pane);
+        adjustMargins();
+        resize();
+        // The row is swiped right now, the buttons have to be in place for the next frame
+        layout();
     }
 
     private void registerListeners() {
         widthProperty().addListener(o -> resize());
         heightProperty().addListener(o -> resize());
-        addEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
-        addEventHandler(MouseEvent.MOUSE_DRAGGED, mouseHandler);
-        addEventHandler(MouseEvent.MOUSE_RELEASED, mouseHandler);
-        delete.setOnMousePressed(e -> fireIosEvent(DELETE_ENTRY_EVT));
+        addEventHandler(MouseEvent.MOUSE_PRESSED, IosSwipeGesture.DISPATCHER);
+        addEventHandler(MouseEvent.MOUSE_DRAGGED, IosSwipeGesture.DISPATCHER);
+        addEventHandler(MouseEvent.MOUSE_RELEASED, IosSwipeGesture.DISPATCHER);
+        IosDarkMode.register(IosEntry.this, IosEntry::applySceneDark);
+        sceneProperty().addListener(o -> applySceneDark());
     }
 
 
@@ -272,7 +227,10 @@ public class IosEntry extends Region {
     @Override protected double computeMinWidth(final double HEIGHT) { return MINIMUM_WIDTH; }
     @Override protected double computeMinHeight(final double WIDTH) { return MINIMUM_HEIGHT; }
     @Override protected double computePrefWidth(final double HEIGHT) { return super.computePrefWidth(HEIGHT); }
-    @Override protected double computePrefHeight(final double WIDTH) { return super.computePrefHeight(WIDTH); }
+    /**
+     * Rows are PREFERRED_HEIGHT high unless the subtitle wraps into more lines.
+     */
+    @Override protected double computePrefHeight(final double WIDTH) { return computeRowHeight(WIDTH > 0 ? WIDTH : getWidth()); }
     @Override protected double computeMaxWidth(final double HEIGHT) { return MAXIMUM_WIDTH; }
     @Override protected double computeMaxHeight(final double WIDTH) { return MAXIMUM_HEIGHT; }
 
@@ -285,13 +243,19 @@ public class IosEntry extends Region {
     @Override public ObservableList<Node> getChildren() { return super.getChildren(); }
 
     public Node getLeftNode() { return leftNode; }
-    public void setLeftNode(final Node NODE) { leftNode = NODE; }
+    public void setLeftNode(final Node NODE) {
+        if (NODE == leftNode) { return; }
+        leftNode = NODE;
+        updatePaneChildren();
+        adjustMargins();
+    }
 
     public String getTitle() { return null == title ? _title : title.get(); }
     public void setTitle(final String TITLE) {
         if (null == title) {
             _title = TITLE;
             titleLabel.setText(_title);
+            Helper.enableNode(titleLabel, null != _title && !_title.isEmpty());
         } else {
             title.set(TITLE);
         }
@@ -299,7 +263,10 @@ public class IosEntry extends Region {
     public StringProperty titleProperty() {
         if (null == title) {
             title = new StringPropertyBase(_title) {
-                @Override protected void invalidated() { titleLabel.setText(get());}
+                @Override protected void invalidated() {
+                    titleLabel.setText(get());
+                    Helper.enableNode(titleLabel, null != get() && !get().isEmpty());
+                }
                 @Override public Object getBean() { return IosEntry.this; }
                 @Override public String getName() { return "title"; }
             };
@@ -313,6 +280,7 @@ public class IosEntry extends Region {
         if (null == subtitle) {
             _subtitle = SUB_TITLE;
             subtitleLabel.setText(_subtitle);
+            Helper.enableNode(subtitleLabel, null != _subtitle && !_subtitle.isEmpty());
         } else {
             subtitle.set(SUB_TITLE);
         }
@@ -320,7 +288,10 @@ public class IosEntry extends Region {
     public StringProperty subtitleProperty() {
         if (null == subtitle) {
             subtitle = new StringPropertyBase(_subtitle) {
-                @Override protected void invalidated() { subtitleLabel.setText(get()); }
+                @Override protected void invalidated() {
+                    subtitleLabel.setText(get());
+                    Helper.enableNode(subtitleLabel, null != get() && !get().isEmpty());
+                }
                 @Override public Object getBean() { return IosEntry.this; }
                 @Override public String getName() { return "subtitle"; }
             };
@@ -330,15 +301,19 @@ public class IosEntry extends Region {
     }
 
     public Node getRightNode() { return rightNode; }
-    public void setRightNode(final Node NODE) { rightNode = NODE; }
+    public void setRightNode(final Node NODE) {
+        if (NODE == rightNode) { return; }
+        rightNode = NODE;
+        updateHasForward();
+        updatePaneChildren();
+        adjustMargins();
+    }
 
     public boolean getHasDelete() { return null == hasDelete ? _hasDelete : hasDelete.get(); }
     public void setHasDelete(final boolean HAS_DELETE) {
         if (null == hasDelete) {
             _hasDelete = HAS_DELETE;
-            delete.setManaged(HAS_DELETE);
-            delete.setVisible(HAS_DELETE);
-            adjustMargins();
+            updateSwipeButton(delete, HAS_DELETE);
         } else {
             hasDelete.set(HAS_DELETE);
         }
@@ -347,9 +322,7 @@ public class IosEntry extends Region {
         if (null == hasDelete) {
             hasDelete = new BooleanPropertyBase(_hasDelete) {
                 @Override protected void invalidated() {
-                    delete.setManaged(get());
-                    delete.setVisible(get());
-                    adjustMargins();
+                    updateSwipeButton(delete, get());
                 }
                 @Override public Object getBean() { return IosEntry.this; }
                 @Override public String getName() { return "hasDelete"; }
@@ -362,9 +335,7 @@ public class IosEntry extends Region {
     public void setHasAction(final boolean HAS_ACTION) {
         if (null == hasAction) {
             _hasAction = HAS_ACTION;
-            action.setManaged(HAS_ACTION);
-            action.setVisible(HAS_ACTION);
-            adjustMargins();
+            updateSwipeButton(action, HAS_ACTION);
         } else {
             hasAction.set(HAS_ACTION);
         }
@@ -373,9 +344,7 @@ public class IosEntry extends Region {
         if (null == hasAction) {
             hasAction = new BooleanPropertyBase(_hasAction) {
                 @Override protected void invalidated() {
-                    action.setManaged(get());
-                    action.setVisible(get());
-                    adjustMargins();
+                    updateSwipeButton(action, get());
                 }
                 @Override public Object getBean() { return IosEntry.this; }
                 @Override public String getName() { return "hasAction"; }
@@ -384,94 +353,165 @@ public class IosEntry extends Region {
         return hasAction;
     }
 
-    public void setActionLabel(final String TEXT) { action.setText(TEXT); }
+    public String getActionLabel() { return null == action ? actionText : action.getText(); }
+    public void setActionLabel(final String TEXT) {
+        actionText = TEXT;
+        if (null != action) { action.setText(TEXT); }
+    }
 
-    public void addOnActionPressed(final EventHandler<MouseEvent> HANDLER) { action.addEventHandler(MouseEvent.MOUSE_PRESSED, HANDLER); }
-    public void removeOnActionPressed(final EventHandler<MouseEvent> HANDLER) { action.removeEventHandler(MouseEvent.MOUSE_PRESSED, HANDLER);}
+    public IosEntryModel getModel() { return model; }
+    /**
+     * Binds this entry to the given model. Only the parts that differ from the
+     * currently shown model are touched, which makes it cheap to recycle an
+     * entry for another row. Accessories are always synced with their node,
+     * the user might have toggled them since the last bind.
+     */
+    public void setModel(final IosEntryModel MODEL) {
+        if (MODEL == model) { return; }
+        model = MODEL;
+        resetSwipeState();
+        if (null == MODEL) { return; }
+        if (!MODEL.getTitle().equals(getTitle())) { setTitle(MODEL.getTitle()); }
+        if (!MODEL.getSubtitle().equals(getSubtitle())) { setSubtitle(MODEL.getSubtitle()); }
+        setLeftNode(MODEL.getLeftAccessory().updateNode(getLeftNode()));
+        setRightNode(MODEL.getRightAccessory().updateNode(getRightNode()));
+        if (MODEL.getHasAction() != getHasAction()) { setHasAction(MODEL.getHasAction()); }
+        if (MODEL.getHasDelete() != getHasDelete()) { setHasDelete(MODEL.getHasDelete()); }
+        if (!MODEL.getActionLabel().equals(getActionLabel())) { setActionLabel(MODEL.getActionLabel()); }
+        resize();
+    }
 
-    private void adjustMargins() {
-        action.setTranslateX(0);
-        if (getHasAction() && getHasDelete()) {
-            HBox.setMargin(action, new Insets(0, -15, 0, 0));
-            action.setTranslateX(BUTTON_WIDTH);
-        } else if (getHasAction() && !getHasDelete()) {
-            HBox.setMargin(action, new Insets(0, 0, 0, 0));
-        } else if (!getHasAction() && !getHasDelete() && getRightNode() != null) {
-            HBox.setMargin(getRightNode(), new Insets(0, 15, 0, 0));
-        } else if (null == getLeftNode()) {
-            HBox.setMargin(textBox, new Insets(0, 0, 0, 15));
+    /**
+     * Removes everything a swipe or a direct delete left behind so that a
+     * recycled entry never shows half open buttons.
+     */
+    public void resetSwipeState() {
+        if (null != swipeGesture) { swipeGesture.cancel(this); }
+        swipeState = SwipeState.CLOSED;
+        setTranslateX(0);
+        setPrefHeight(Region.USE_COMPUTED_SIZE);
+        if (null != action) {
+            delete.setPrefWidth(BUTTON_WIDTH);
+            action.setTranslateX(getHasAction() && getHasDelete() ? BUTTON_WIDTH : 0);
         }
+        resize();
     }
 
-    private void animate() {
-        double translateX = getTranslateX();
-        if (Double.compare(translateX, 0) == 0) { return; }
-        if (getHasAction() && getHasDelete()) {
-            if (Double.compare(translateX, -2 * BUTTON_WIDTH) == 0) { return; }
-            if (translateX < -BUTTON_WIDTH) {
-                animateToShowButtons(true);
-            } else {
-                animateToHideButtons();
-            }
-        } else if (getHasAction() || getHasDelete()) {
-            if (Double.compare(translateX, -BUTTON_WIDTH) == 0) { return; }
-            if (translateX < -BUTTON_WIDTH * 0.5) {
-                animateToShowButtons(false);
-            } else {
-                animateToHideButtons();
-            }
-        }
+    public void addOnActionPressed(final EventHandler<MouseEvent> HANDLER) { getActionButton().addEventHandler(MouseEvent.MOUSE_PRESSED, HANDLER); }
+    public void removeOnActionPressed(final EventHandler<MouseEvent> HANDLER) { if (null != action) { action.removeEventHandler(MouseEvent.MOUSE_PRESSED, HANDLER); } }
+
+    /**
+     * Returns the height the row needs at the given width.
+     */
+    public double computeRowHeight(final double WIDTH) {
+        double textWidth = (WIDTH > 0 ? WIDTH : PREFERRED_WIDTH) - 30;
+        if (null != leftNode)  { textWidth -= leftNode.prefWidth(-1) + 15; }
+        if (null != rightNode) { textWidth -= rightNode.prefWidth(-1) + 15; }
+        return Math.max(PREFERRED_HEIGHT, textBox.prefHeight(Math.max(0, textWidth)) + 2 * TEXT_INSET);
     }
 
-    private void animateToShowButtons(final boolean TWO_BUTTONS) {
-        KeyValue kvTranslateXStart       = new KeyValue(translateXProperty(), getTranslateX(), Interpolator.EASE_BOTH);
-        KeyValue kvTranslateXEnd         = new KeyValue(translateXProperty(), TWO_BUTTONS ? (-2 * BUTTON_WIDTH) : -BUTTON_WIDTH, Interpolator.EASE_BOTH);
-        KeyValue kvActionTranslateXStart = new KeyValue(action.translateXProperty(), action.getTranslateX(), Interpolator.EASE_BOTH);
-        KeyValue kvActionTranslateXEnd   = new KeyValue(action.translateXProperty(), 0, Interpolator.EASE_BOTH);
+    public SwipeState getSwipeState() { return swipeState; }
+    void setSwipeState(final SwipeState STATE) { swipeState = STATE; }
 
-        KeyFrame kf0 = TWO_BUTTONS ? new KeyFrame(Duration.ZERO, kvTranslateXStart, kvActionTranslateXStart) : new KeyFrame(Duration.ZERO, kvTranslateXStart);
-        KeyFrame kf1 = TWO_BUTTONS ? new KeyFrame(Duration.millis(Helper.ANIMATION_DURATION), kvTranslateXEnd, kvActionTranslateXEnd) : new KeyFrame(Duration.millis(Helper.ANIMATION_DURATION), kvTranslateXEnd);
+    IosSwipeGesture getSwipeGesture() { return swipeGesture; }
+    void setSwipeGesture(final IosSwipeGesture GESTURE) { swipeGesture = GESTURE; }
 
-        timeline.getKeyFrames().setAll(kf0, kf1);
-        timeline.play();
-    }
-    private void animateToHideButtons() {
-        KeyValue kvTranslateXStart       = new KeyValue(translateXProperty(), getTranslateX(), Interpolator.EASE_BOTH);
-        KeyValue kvTranslateXEnd         = new KeyValue(translateXProperty(), 0, Interpolator.EASE_BOTH);
-        KeyValue kvActionTranslateXStart = new KeyValue(action.translateXProperty(), action.getTranslateX(), Interpolator.EASE_BOTH);
-        KeyValue kvActionTranslateXEnd   = new KeyValue(action.translateXProperty(), BUTTON_WIDTH, Interpolator.EASE_BOTH);
+    boolean isForward() { return hasForward; }
 
-        KeyFrame kf0 = new KeyFrame(Duration.ZERO, kvTranslateXStart, kvActionTranslateXStart);
-        KeyFrame kf1 = new KeyFrame(Duration.millis(Helper.ANIMATION_DURATION), kvTranslateXEnd, kvActionTranslateXEnd);
+    Label getActionButton() {
+        initSwipeButtons();
+        return action;
+    }
 
-        timeline.getKeyFrames().setAll(kf0, kf1);
-        timeline.play();
+    Label getDeleteButton() {
+        initSwipeButtons();
+        return delete;
     }
 
-    private void animateToDirectDelete() {
-        pane.setMaxWidth(PREFERRED_WIDTH + BUTTON_WIDTH + BUTTON_WIDTH);
-        pane.setPrefWidth(PREFERRED_WIDTH + BUTTON_WIDTH + BUTTON_WIDTH);
+    /**
+     * Returns the width of the visible swipe buttons.
+     */
+    double getButtonsWidth() { return ((getHasAction() ? 1 : 0) + (getHasDelete() ? 1 : 0)) * BUTTON_WIDTH; }
+
+    /**
+     * Moves the row so that the delete button can grow over the whole row
+     * and returns the width the delete button grows to.
+     */
+    double prepareDirectDelete() {
+        initSwipeButtons();
+        final double PANE_WIDTH = width + BUTTON_WIDTH + BUTTON_WIDTH;
+        pane.setMaxWidth(PANE_WIDTH);
+        pane.setPrefWidth(PANE_WIDTH);
         setTranslateX(-BUTTON_WIDTH - BUTTON_WIDTH);
+        return PANE_WIDTH;
+    }
 
-        double targetWidth = pane.getPrefWidth();
+    private void updateHasForward() {
+        hasForward = rightNode instanceof IosMultiButton && Type.FORWARD == ((IosMultiButton) rightNode).getType();
+    }
 
-        KeyValue kvDeleteWidthStart = new KeyValue(delete.prefWidthProperty(), delete.getPrefWidth(), Interpolator.EASE_BOTH);
-        KeyValue kvDeleteWidthEnd   = new KeyValue(delete.prefWidthProperty(), targetWidth, Interpolator.EASE_BOTH);
+    private void updatePaneChildren() {
+        pane.getChildren().clear();
+        if (null != getLeftNode())  {
+            pane.getChildren().add(getLeftNode());
+            HBox.setMargin(getLeftNode(), new Insets(0, 0, 0, 15));
+        }
+        if (null != textBox)   { pane.getChildren().add(textBox); }
+        if (null != getRightNode()) { pane.getChildren().add(getRightNode()); }
+        if (null != action) { pane.getChildren().addAll(action, delete); }
+    }
 
-        KeyFrame kf0 = new KeyFrame(Duration.ZERO, kvDeleteWidthStart);
-        KeyFrame kf1 = new KeyFrame(Duration.millis(Helper.ANIMATION_DURATION), kvDeleteWidthEnd);
-        timeline.getKeyFrames().setAll(kf0, kf1);
+    private void updateSwipeButton(final Label BUTTON, final boolean VISIBLE) {
+        if (null != BUTTON) {
+            BUTTON.setManaged(VISIBLE);
+            BUTTON.setVisible(VISIBLE);
+        }
+        adjustMargins();
+    }
 
-        timeline.play();
+    private void adjustMargins() {
+        if (null != action) { action.setTranslateX(0); }
+        HBox.setMargin(textBox, Insets.EMPTY);
+        if (null != getRightNode()) { HBox.setMargin(getRightNode(), Insets.EMPTY); }
+        if (getHasAction() && getHasDelete()) {
+            if (null != action) {
+                HBox.setMargin(action, new Insets(0, -15, 0, 0));
+                action.setTranslateX(BUTTON_WIDTH);
+            }
+        } else if (getHasAction() && !getHasDelete()) {
+            if (null != action) { HBox.setMargin(action, new Insets(0, 0, 0, 0)); }
+        } else if (!getHasAction() && !getHasDelete() && getRightNode() != null) {
+            HBox.setMargin(getRightNode(), new Insets(0, 15, 0, 0));
+        } else if (null == getLeftNode()) {
+            HBox.setMargin(textBox, new Insets(0, 0, 0, 15));
+        }
+        // Without the buttons the right node keeps the gap the button spacing would give it
+        if (null == action && null != getRightNode()) { HBox.setMargin(getRightNode(), new Insets(0, 15, 0, 0)); }
     }
+    private void applySceneDark() { pseudoClassStateChanged(IosDarkMode.DARK_PSEUDO_CLASS, IosDarkMode.isDark(getScene())); }
 
 
     // ******************** Event Handling ************************************
-    public void addOnIosEvent(final IosEventListener LISTENER) { if (!listeners.contains(LISTENER)) { listeners.add(LISTENER); } }
-    public void removeOnIosEvent(final IosEventListener LISTENER) { if (listeners.contains(LISTENER)) { listeners.remove(LISTENER); } }
+    public void addOnIosEvent(final IosEventListener LISTENER) { addOnIosEvent(LISTENER, ReferenceType.STRONG); }
+    public void addOnIosEvent(final IosEventListener LISTENER, final ReferenceType TYPE) { dispatcher.add(LISTENER, TYPE); }
+    public void addOnIosEvent(final IosEventType EVENT_TYPE, final IosEventListener LISTENER) { addOnIosEvent(EVENT_TYPE, LISTENER, ReferenceType.STRONG); }
+    public void addOnIosEvent(final IosEventType EVENT_TYPE, final IosEventListener LISTENER, final ReferenceType TYPE) { dispatcher.add(EVENT_TYPE, LISTENER, TYPE); }
+    /**
+     * The listener gets its events on the executor of the given delivery
+     * instead of the FX application thread.
+     */
+    public void addOnIosEvent(final IosEventListener LISTENER, final AsyncDelivery DELIVERY) { dispatcher.add(LISTENER, ReferenceType.STRONG, DELIVERY); }
+    public void addOnIosEvent(final IosEventType EVENT_TYPE, final IosEventListener LISTENER, final AsyncDelivery DELIVERY) { dispatcher.add(EVENT_TYPE, LISTENER, ReferenceType.STRONG, DELIVERY); }
+    public void removeOnIosEvent(final IosEventListener LISTENER) { dispatcher.remove(LISTENER); }
+
+    void firePressed() { fireIosEvent(PRESSED_EVT); }
+
+    void fireReleased() { fireIosEvent(RELEASED_EVT); }
+
+    void fireDelete() { fireIosEvent(DELETE_ENTRY_EVT); }
 
     private void fireIosEvent(final IosEvent EVENT) {
-        listeners.forEach(listener -> listener.onIosEvent(EVENT));
+        dispatcher.fire(EVENT);
     }
 
 
@@ -482,15 +522,19 @@ public class IosEntry extends Region {
         size   = width < height ? width : height;
 
         if (width > 0 && height > 0) {
-            if (getHasAction() && getHasDelete()) {
-                pane.setPrefSize(width + BUTTON_WIDTH + BUTTON_WIDTH, PREFERRED_HEIGHT);
-                pane.setMaxSize(width + BUTTON_WIDTH + BUTTON_WIDTH, PREFERRED_HEIGHT);
-            } else if (getHasAction() || getHasDelete()) {
-                pane.setPrefSize(width + BUTTON_WIDTH, PREFERRED_HEIGHT);
-                pane.setMaxSize(width + BUTTON_WIDTH, PREFERRED_HEIGHT);
-            } else {
-                pane.setPrefSize(width, PREFERRED_HEIGHT);
-                pane.setMaxSize(width, PREFERRED_HEIGHT);
+            // A different wrapping of the subtitle changes the height of the row
+            final double ROW_HEIGHT = computeRowHeight(getWidth());
+            if (Double.compare(ROW_HEIGHT, rowHeight) != 0) {
+                rowHeight = ROW_HEIGHT;
+                requestLayout();
+            }
+            final double PANE_HEIGHT = Math.max(height, PREFERRED_HEIGHT);
+            final double PANE_WIDTH  = null == action ? width : width + getButtonsWidth();
+            pane.setPrefSize(PANE_WIDTH, PANE_HEIGHT);
+            pane.setMaxSize(PANE_WIDTH, PANE_HEIGHT);
+            if (null != action) {
+                action.setPrefHeight(PANE_HEIGHT);
+                delete.setPrefHeight(PANE_HEIGHT);
             }
 
             pane.relocate((getWidth() - width) * 0.5, (getHeight() - height) * 0.5);
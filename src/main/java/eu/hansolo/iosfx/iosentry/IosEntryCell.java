@@ -16,23 +16,91 @@
 
 package eu.hansolo.iosfx.iosentry;
 
+import eu.hansolo.iosfx.events.IosEventListener;
+import eu.hansolo.iosfx.events.ReferenceType;
 import javafx.geometry.Insets;
 import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.Label;
 import javafx.scene.control.ListCell;
+import javafx.scene.layout.VBox;
 
+import java.util.function.IntFunction;
 
-public class IosEntryCell extends ListCell<IosEntry> {
 
-    @Override protected void updateItem(final IosEntry ENTRY, final boolean IS_EMPTY) {
-        super.updateItem(ENTRY, IS_EMPTY);
+public class IosEntryCell extends ListCell<IosEntryModel> {
+    private final IosEntryPool        pool;
+    private       IosEntry            entry;
+    private       IntFunction<String> sectionHeaderProvider;
+    private       Label               sectionHeader;
+    private       VBox                sectionBox;
+
+
+    // ******************** Constructors **************************************
+    public IosEntryCell() {
+        this(new IosEntryPool(1));
+    }
+    public IosEntryCell(final IosEntryPool POOL) {
+        pool = POOL;
         setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
         setPadding(Insets.EMPTY);
-        if (IS_EMPTY) {
-            setText(null);
+
+        listViewProperty().addListener((o, ov, nv) -> {
+            if (null == entry) { return; }
+            if (ov instanceof IosEventListener) { entry.removeOnIosEvent((IosEventListener) ov); }
+            if (nv instanceof IosEventListener) { entry.addOnIosEvent((IosEventListener) nv, ReferenceType.WEAK); }
+        });
+    }
+
+
+    // ******************** Methods *******************************************
+    public IosEntry getEntry() { return entry; }
+
+    /**
+     * The provider returns the header text for rows that start a section
+     * and null for all other rows.
+     */
+    public IntFunction<String> getSectionHeaderProvider() { return sectionHeaderProvider; }
+    public void setSectionHeaderProvider(final IntFunction<String> PROVIDER) { sectionHeaderProvider = PROVIDER; }
+
+    @Override protected void updateItem(final IosEntryModel MODEL, final boolean IS_EMPTY) {
+        super.updateItem(MODEL, IS_EMPTY);
+        setText(null);
+        if (IS_EMPTY || null == MODEL) {
             setGraphic(null);
+            if (null != sectionBox) { sectionBox.getChildren().clear(); }
+            releaseEntry();
         } else {
-            setText(null);
-            setGraphic(ENTRY);
+            acquireEntry();
+            entry.setModel(MODEL);
+            final String HEADER = null == sectionHeaderProvider ? null : sectionHeaderProvider.apply(getIndex());
+            if (null == HEADER) {
+                if (null != sectionBox) { sectionBox.getChildren().clear(); }
+                if (getGraphic() != entry) { setGraphic(entry); }
+            } else {
+                if (null == sectionBox) {
+                    sectionHeader = new Label();
+                    sectionHeader.getStyleClass().add("section-header");
+                    sectionHeader.setMaxWidth(Double.MAX_VALUE);
+                    sectionBox    = new VBox();
+                }
+                sectionHeader.setText(HEADER);
+                if (sectionBox.getChildren().size() != 2 || sectionBox.getChildren().get(1) != entry) { sectionBox.getChildren().setAll(sectionHeader, entry); }
+                if (getGraphic() != sectionBox) { setGraphic(sectionBox); }
+            }
         }
     }
+
+    private void acquireEntry() {
+        if (null != entry) { return; }
+        entry = pool.acquire();
+        // Weak, so that pooled entries never keep a replaced list alive
+        if (getListView() instanceof IosEventListener) { entry.addOnIosEvent((IosEventListener) getListView(), ReferenceType.WEAK); }
+    }
+
+    private void releaseEntry() {
+        if (null == entry) { return; }
+        if (getListView() instanceof IosEventListener) { entry.removeOnIosEvent((IosEventListener) getListView()); }
+        pool.release(entry);
+        entry = null;
+    }
 }
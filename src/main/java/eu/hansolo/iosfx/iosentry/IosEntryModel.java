@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.iosentry;
+
+
+/**
+ * Immutable data of one row in an IosListView. Only the cells that are
+ * visible own an IosEntry node which is bound to one of these models.
+ */
+public class IosEntryModel {
+    public  static final String       DEFAULT_ACTION_LABEL = "Action";
+    private        final Object       ID;
+    private        final long         VERSION;
+    private        final IosAccessory LEFT_ACCESSORY;
+    private        final String       TITLE;
+    private        final String       SUB_TITLE;
+    private        final IosAccessory RIGHT_ACCESSORY;
+    private        final boolean      HAS_ACTION;
+    private        final boolean      HAS_DELETE;
+    private        final String       ACTION_LABEL;
+
+
+    // ******************** Constructors **************************************
+    public IosEntryModel(final String TITLE, final String SUB_TITLE) {
+        this(IosAccessory.NONE, TITLE, SUB_TITLE, IosAccessory.NONE);
+    }
+    public IosEntryModel(final IosAccessory LEFT_ACCESSORY, final String TITLE, final String SUB_TITLE, final IosAccessory RIGHT_ACCESSORY) {
+        this(LEFT_ACCESSORY, TITLE, SUB_TITLE, RIGHT_ACCESSORY, true, true);
+    }
+    public IosEntryModel(final IosAccessory LEFT_ACCESSORY, final String TITLE, final String SUB_TITLE, final IosAccessory RIGHT_ACCESSORY, final boolean HAS_ACTION, final boolean HAS_DELETE) {
+        this(LEFT_ACCESSORY, TITLE, SUB_TITLE, RIGHT_ACCESSORY, HAS_ACTION, HAS_DELETE, DEFAULT_ACTION_LABEL);
+    }
+    public IosEntryModel(final IosAccessory LEFT_ACCESSORY, final String TITLE, final String SUB_TITLE, final IosAccessory RIGHT_ACCESSORY, final boolean HAS_ACTION, final boolean HAS_DELETE, final String ACTION_LABEL) {
+        this(null, 0, LEFT_ACCESSORY, TITLE, SUB_TITLE, RIGHT_ACCESSORY, HAS_ACTION, HAS_DELETE, ACTION_LABEL);
+    }
+    /**
+     * ID identifies the row across snapshots, VERSION changes whenever the
+     * content of the row changes (see IosListView.applySnapshot()).
+     */
+    public IosEntryModel(final Object ID, final long VERSION, final IosAccessory LEFT_ACCESSORY, final String TITLE, final String SUB_TITLE, final IosAccessory RIGHT_ACCESSORY, final boolean HAS_ACTION, final boolean HAS_DELETE, final String ACTION_LABEL) {
+        this.ID              = ID;
+        this.VERSION         = VERSION;
+        this.LEFT_ACCESSORY  = null == LEFT_ACCESSORY ? IosAccessory.NONE : LEFT_ACCESSORY;
+        this.TITLE           = null == TITLE ? "" : TITLE;
+        this.SUB_TITLE       = null == SUB_TITLE ? "" : SUB_TITLE;
+        this.RIGHT_ACCESSORY = null == RIGHT_ACCESSORY ? IosAccessory.NONE : RIGHT_ACCESSORY;
+        this.HAS_ACTION      = HAS_ACTION;
+        this.HAS_DELETE      = HAS_DELETE;
+        this.ACTION_LABEL    = null == ACTION_LABEL ? DEFAULT_ACTION_LABEL : ACTION_LABEL;
+    }
+
+
+    // ******************** Methods *******************************************
+    public Object getId() { return ID; }
+
+    public long getVersion() { return VERSION; }
+
+    /**
+     * Returns the id or the model itself if no id was given.
+     */
+    public Object getKey() { return null == ID ? this : ID; }
+
+    public IosAccessory getLeftAccessory() { return LEFT_ACCESSORY; }
+
+    public String getTitle() { return TITLE; }
+
+    public String getSubtitle() { return SUB_TITLE; }
+
+    public IosAccessory getRightAccessory() { return RIGHT_ACCESSORY; }
+
+    public boolean getHasAction() { return HAS_ACTION; }
+
+    public boolean getHasDelete() { return HAS_DELETE; }
+
+    public String getActionLabel() { return ACTION_LABEL; }
+
+    @Override public String toString() { return TITLE; }
+}
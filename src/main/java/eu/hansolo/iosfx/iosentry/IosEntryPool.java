@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.iosentry;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+
+/**
+ * Small pool of IosEntry nodes shared by the cells of one list. Cells take
+ * an entry when they start showing a row and hand it back when they become
+ * empty, so entries are rebound instead of being created per row.
+ */
+public class IosEntryPool {
+    public  static final int             DEFAULT_MAX_SIZE = 32;
+    private        final int             MAX_SIZE;
+    private        final Deque<IosEntry> entries;
+
+
+    // ******************** Constructors **************************************
+    public IosEntryPool() {
+        this(DEFAULT_MAX_SIZE);
+    }
+    public IosEntryPool(final int MAX_SIZE) {
+        this.MAX_SIZE = MAX_SIZE < 0 ? 0 : MAX_SIZE;
+        this.entries  = new ArrayDeque<>(this.MAX_SIZE);
+    }
+
+
+    // ******************** Methods *******************************************
+    public IosEntry acquire() {
+        IosEntry entry = entries.pollFirst();
+        return null == entry ? new IosEntry() : entry;
+    }
+
+    public void release(final IosEntry ENTRY) {
+        if (null == ENTRY) { return; }
+        ENTRY.setModel(null);
+        if (entries.size() < MAX_SIZE) { entries.offerFirst(ENTRY); }
+    }
+
+    public void prefill(final int COUNT) {
+        while (entries.size() < Math.min(COUNT, MAX_SIZE)) { entries.offerFirst(new IosEntry()); }
+    }
+
+    public int size() { return entries.size(); }
+}
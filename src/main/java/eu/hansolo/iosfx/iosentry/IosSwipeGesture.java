@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.iosentry;
+
+import eu.hansolo.iosfx.iosentry.IosEntry.SwipeState;
+import eu.hansolo.iosfx.tools.Helper;
+import eu.hansolo.iosfx.tools.IosAnimator;
+import javafx.event.EventHandler;
+import javafx.event.EventType;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.input.MouseEvent;
+
+
+/**
+ * Swipe handling for all IosEntry nodes below the node it is installed on,
+ * e.g. an IosListView. Only one row is dragged and only one row is open at
+ * a time, pressing another row closes the open one.
+ * On release the row opens or closes depending on the drag velocity, slow
+ * drags snap to the nearer position. Dragging a row far to the left or
+ * flinging an open row deletes it directly.
+ * Entries that are not below an installed gesture share DEFAULT.
+ */
+public class IosSwipeGesture {
+    public  static final double                   FLING_VELOCITY         = 400;
+    public  static final double                   DELETE_VELOCITY        = 2500;
+    public  static final double                   DIRECT_DELETE_FRACTION = 0.5;
+    static         final IosSwipeGesture          DEFAULT                = new IosSwipeGesture();
+    static         final EventHandler<MouseEvent> DISPATCHER             = IosSwipeGesture::dispatch;
+    private static final String                   PROPERTY_KEY           = "iosfx.swipeGesture";
+    private static final double                   VELOCITY_SMOOTHING     = 0.8;
+    private        final SwipeAnimation           animation;
+    private        final SwipeAnimation           closeAnimation;
+    private              IosEntry                 active;
+    private              IosEntry                 open;
+    private              double                   startX;
+    private              double                   startTranslateX;
+    private              double                   lastX;
+    private              long                     lastTime;
+    private              double                   velocity;
+    private              boolean                  moved;
+
+
+    // ******************** Constructors **************************************
+    public IosSwipeGesture() {
+        animation      = new SwipeAnimation();
+        closeAnimation = new SwipeAnimation();
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Handles the swipes of all entries below the given node.
+     */
+    public void install(final Node NODE) { NODE.getProperties().put(PROPERTY_KEY, this); }
+
+    public void uninstall(final Node NODE) { NODE.getProperties().remove(PROPERTY_KEY, this); }
+
+    /**
+     * Returns the row that is currently open or null.
+     */
+    public IosEntry getOpenEntry() { return open; }
+
+    public void close() { if (null != open) { close(open); } }
+
+    /**
+     * Stops everything that is going on for the given entry without animation.
+     */
+    void cancel(final IosEntry ENTRY) {
+        animation.stop(ENTRY);
+        closeAnimation.stop(ENTRY);
+        if (active == ENTRY) { active = null; }
+        if (open == ENTRY) { open = null; }
+    }
+
+    private static void dispatch(final MouseEvent EVT) {
+        final IosEntry ENTRY = (IosEntry) EVT.getSource();
+        IosSwipeGesture gesture = ENTRY.getSwipeGesture();
+        if (null == gesture || MouseEvent.MOUSE_PRESSED == EVT.getEventType()) {
+            gesture = lookup(ENTRY);
+            ENTRY.setSwipeGesture(gesture);
+        }
+        final EventType<? extends MouseEvent> TYPE = EVT.getEventType();
+        if (MouseEvent.MOUSE_PRESSED == TYPE) {
+            gesture.pressed(ENTRY, EVT);
+        } else if (MouseEvent.MOUSE_DRAGGED == TYPE) {
+            gesture.dragged(ENTRY, EVT);
+        } else if (MouseEvent.MOUSE_RELEASED == TYPE) {
+            gesture.released(ENTRY);
+        }
+    }
+
+    private static IosSwipeGesture lookup(final IosEntry ENTRY) {
+        for (Parent parent = ENTRY.getParent() ; null != parent ; parent = parent.getParent()) {
+            if (!parent.hasProperties()) { continue; }
+            Object gesture = parent.getProperties().get(PROPERTY_KEY);
+            if (gesture instanceof IosSwipeGesture) { return (IosSwipeGesture) gesture; }
+        }
+        return DEFAULT;
+    }
+
+    private void pressed(final IosEntry ENTRY, final MouseEvent EVT) {
+        if (null != open && open != ENTRY) { close(open); }
+        if (SwipeState.DELETING == ENTRY.getSwipeState()) { return; }
+        animation.stop(ENTRY);
+        active          = ENTRY;
+        startX          = EVT.getSceneX();
+        lastX           = startX;
+        startTranslateX = ENTRY.getTranslateX();
+        lastTime        = System.nanoTime();
+        velocity        = 0;
+        moved           = false;
+        if (ENTRY.isForward()) { ENTRY.firePressed(); }
+    }
+
+    private void dragged(final IosEntry ENTRY, final MouseEvent EVT) {
+        if (active != ENTRY || SwipeState.DELETING == ENTRY.getSwipeState()) { return; }
+        // MouseEvents carry no timestamp, the time of handling is close enough
+        final double X   = EVT.getSceneX();
+        final long   NOW = System.nanoTime();
+        if (NOW > lastTime) { velocity = VELOCITY_SMOOTHING * (X - lastX) / ((NOW - lastTime) / 1_000_000_000.0) + (1 - VELOCITY_SMOOTHING) * velocity; }
+        lastX    = X;
+        lastTime = NOW;
+        moved   |= Double.compare(X, startX) != 0;
+
+        final double BUTTONS_WIDTH = ENTRY.getButtonsWidth();
+        if (BUTTONS_WIDTH <= 0) { return; }
+        ENTRY.initSwipeButtons();
+        final double TRANSLATE_X = startTranslateX + X - startX;
+        if (ENTRY.getHasDelete() && TRANSLATE_X < -(ENTRY.getWidth() + BUTTONS_WIDTH) * DIRECT_DELETE_FRACTION) {
+            directDelete(ENTRY);
+            return;
+        }
+        ENTRY.setSwipeState(SwipeState.DRAGGING);
+        translate(ENTRY, Helper.clamp(-BUTTONS_WIDTH, 0, TRANSLATE_X));
+    }
+
+    private void released(final IosEntry ENTRY) {
+        if (active != ENTRY) { return; }
+        active = null;
+        if (SwipeState.DELETING == ENTRY.getSwipeState()) {
+            ENTRY.fireDelete();
+            return;
+        }
+        if (ENTRY.isForward()) { ENTRY.fireReleased(); }
+        final double BUTTONS_WIDTH = ENTRY.getButtonsWidth();
+        if (!moved || BUTTONS_WIDTH <= 0) { return; }
+
+        final double TRANSLATE_X = ENTRY.getTranslateX();
+        if (ENTRY.getHasDelete() && velocity < -DELETE_VELOCITY && TRANSLATE_X <= -BUTTONS_WIDTH + 1) {
+            directDelete(ENTRY);
+            ENTRY.fireDelete();
+            return;
+        }
+        final boolean OPEN = Math.abs(velocity) > FLING_VELOCITY ? velocity < 0 : TRANSLATE_X < -BUTTONS_WIDTH * 0.5;
+        if (OPEN) {
+            animation.play(ENTRY, -BUTTONS_WIDTH, SwipeState.OPEN);
+            open = ENTRY;
+        } else {
+            animation.play(ENTRY, 0, SwipeState.CLOSED);
+            if (open == ENTRY) { open = null; }
+        }
+    }
+
+    private void close(final IosEntry ENTRY) {
+        if (open == ENTRY) { open = null; }
+        if (SwipeState.DELETING == ENTRY.getSwipeState()) { return; }
+        closeAnimation.play(ENTRY, 0, SwipeState.CLOSED);
+    }
+
+    private void directDelete(final IosEntry ENTRY) {
+        if (open == ENTRY) { open = null; }
+        ENTRY.setSwipeState(SwipeState.DELETING);
+        animation.playDelete(ENTRY, ENTRY.prepareDirectDelete());
+    }
+
+    private static void translate(final IosEntry ENTRY, final double TRANSLATE_X) {
+        ENTRY.setTranslateX(TRANSLATE_X);
+        if (ENTRY.getHasAction() && ENTRY.getHasDelete()) {
+            ENTRY.getActionButton().setTranslateX(Helper.clamp(0, IosEntry.BUTTON_WIDTH, IosEntry.BUTTON_WIDTH + TRANSLATE_X * 0.5));
+        }
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Reusable animation of one row, only the row and the start and end
+     * values change between runs.
+     */
+    private static class SwipeAnimation extends IosAnimator.Tween {
+        private IosEntry   entry;
+        private SwipeState targetState;
+        private boolean    delete;
+
+        void play(final IosEntry ENTRY, final double TRANSLATE_X, final SwipeState STATE) {
+            start(ENTRY, false, ENTRY.getTranslateX(), TRANSLATE_X, STATE);
+        }
+
+        void playDelete(final IosEntry ENTRY, final double DELETE_WIDTH) {
+            start(ENTRY, true, ENTRY.getDeleteButton().getPrefWidth(), DELETE_WIDTH, SwipeState.DELETING);
+        }
+
+        void stop(final IosEntry ENTRY) {
+            if (entry != ENTRY) { return; }
+            IosAnimator.stop(this);
+            entry = null;
+        }
+
+        private void start(final IosEntry ENTRY, final boolean DELETE, final double FROM, final double TO, final SwipeState STATE) {
+            // A row that is still animating jumps to its end
+            if (null != entry && entry != ENTRY) { IosAnimator.finish(this); }
+            entry       = ENTRY;
+            delete      = DELETE;
+            targetState = STATE;
+            IosAnimator.play(this, FROM, TO, Helper.ANIMATION_DURATION);
+        }
+
+        @Override protected void apply(final double VALUE) {
+            if (null == entry) { return; }
+            if (delete) {
+                entry.getDeleteButton().setPrefWidth(VALUE);
+            } else {
+                translate(entry, VALUE);
+            }
+        }
+
+        @Override protected void finished() {
+            if (null == entry) { return; }
+            entry.setSwipeState(targetState);
+            entry = null;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.ioslistview;
+
+import eu.hansolo.iosfx.iosentry.IosEntry;
+import eu.hansolo.iosfx.iosentry.IosEntryModel;
+import eu.hansolo.iosfx.tools.Helper;
+import eu.hansolo.iosfx.tools.IosAnimator;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+
+/**
+ * Collects all deletes that are requested within the same pulse or while a
+ * collapse animation is running and removes them with one collapse
+ * animation and one list modification.
+ */
+class IosDeleteCoordinator {
+    private final IosListView                   LIST_VIEW;
+    private final Consumer<List<IosEntryModel>> ON_DELETED;
+    private final Map<IosEntryModel, IosEntry>  pending;
+    private final Map<IosEntryModel, Double>    heights;
+    private final IosAnimator.Tween             animation;
+    private       IosEntryIndex<IosEntryModel>  index;
+    private       boolean                       scheduled;
+
+
+    // ******************** Constructors **************************************
+    IosDeleteCoordinator(final IosListView LIST_VIEW, final Consumer<List<IosEntryModel>> ON_DELETED) {
+        this.LIST_VIEW  = LIST_VIEW;
+        this.ON_DELETED = ON_DELETED;
+        this.pending    = new IdentityHashMap<>();
+        this.heights    = new IdentityHashMap<>();
+        this.animation  = new IosAnimator.Tween() {
+            @Override protected void apply(final double FRACTION) { collapse(FRACTION); }
+            @Override protected void finished() { removePending(); }
+        };
+        this.index      = new IosEntryIndex<>(LIST_VIEW.getItems());
+        this.scheduled  = false;
+
+        LIST_VIEW.itemsProperty().addListener((o, ov, nv) -> {
+            index.dispose();
+            index = new IosEntryIndex<>(nv);
+        });
+    }
+
+
+    // ******************** Methods *******************************************
+    IosEntryIndex<IosEntryModel> getIndex() { return index; }
+
+    void requestDelete(final IosEntryModel MODEL, final IosEntry ENTRY) {
+        if (null == MODEL || pending.containsKey(MODEL) || indexOf(MODEL) < 0) { return; }
+        pending.put(MODEL, ENTRY);
+        if (null != ENTRY) { heights.put(MODEL, ENTRY.getHeight()); }
+        if (scheduled) { return; }
+        scheduled = true;
+        IosAnimator.runOnNextPulse(this::play);
+    }
+
+    boolean isPending(final IosEntryModel MODEL) { return pending.containsKey(MODEL); }
+
+    int indexOf(final IosEntryModel MODEL) {
+        final ObservableList<IosEntryModel> ITEMS = LIST_VIEW.getItems();
+        return ITEMS instanceof IosPagedEntryList ? ((IosPagedEntryList) ITEMS).indexOfLoaded(MODEL) : index.indexOf(MODEL);
+    }
+
+    private void play() {
+        scheduled = false;
+        if (pending.isEmpty()) { return; }
+        // Rows that join a running animation restart it from their current height
+        for (Map.Entry<IosEntryModel, IosEntry> entry : pending.entrySet()) {
+            IosEntry node = entry.getValue();
+            if (null != node && node.getModel() == entry.getKey()) { heights.put(entry.getKey(), node.getHeight()); }
+        }
+        IosAnimator.play(animation, 1, 0, 2 * Helper.ANIMATION_DURATION);
+    }
+
+    private void collapse(final double FRACTION) {
+        for (Map.Entry<IosEntryModel, IosEntry> entry : pending.entrySet()) {
+            IosEntry node = entry.getValue();
+            // Cells might have been recycled for other rows while collapsing
+            if (null == node || node.getModel() != entry.getKey()) { continue; }
+            node.setPrefHeight(heights.get(entry.getKey()) * FRACTION);
+        }
+    }
+
+    private void removePending() {
+        if (pending.isEmpty()) { return; }
+        final List<IosEntryModel>           DELETED = new ArrayList<>(pending.keySet());
+        final ObservableList<IosEntryModel> ITEMS   = LIST_VIEW.getItems();
+        final int[]                         INDICES = new int[DELETED.size()];
+        int noOfIndices = 0;
+        for (IosEntryModel model : DELETED) {
+            int i = indexOf(model);
+            if (i > -1) { INDICES[noOfIndices++] = i; }
+        }
+        Arrays.sort(INDICES, 0, noOfIndices);
+
+        // Paged lists are read only, the data source removes the rows from its store
+        if (ITEMS instanceof IosPagedEntryList) { noOfIndices = 0; }
+
+        if (noOfIndices > 0 && INDICES[noOfIndices - 1] - INDICES[0] == noOfIndices - 1) {
+            ITEMS.remove(INDICES[0], INDICES[noOfIndices - 1] + 1);
+        } else if (noOfIndices > 0) {
+            Set<IosEntryModel> toRemove = Collections.newSetFromMap(new IdentityHashMap<>());
+            toRemove.addAll(DELETED);
+            ITEMS.removeAll(toRemove);
+        }
+
+        for (Map.Entry<IosEntryModel, IosEntry> entry : pending.entrySet()) {
+            IosEntry node = entry.getValue();
+            if (null != node && node.getModel() == entry.getKey()) { node.resetSwipeState(); }
+        }
+        pending.clear();
+        heights.clear();
+        ON_DELETED.accept(DELETED);
+    }
+}
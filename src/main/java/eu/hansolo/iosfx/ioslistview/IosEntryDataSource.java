@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.ioslistview;
+
+import eu.hansolo.iosfx.iosentry.IosEntryModel;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+
+/**
+ * Supplies the entries of an IosListView page by page. Implementations may
+ * complete the returned futures on any thread.
+ * Deleted rows are only reported by DELETE_ENTRY events, the source is
+ * expected to remove them from its store and call IosPagedEntryList.refresh().
+ */
+public interface IosEntryDataSource {
+
+    int getCount();
+
+    /**
+     * Loads the entries in the range [FROM, TO).
+     */
+    CompletableFuture<List<IosEntryModel>> load(final int FROM, final int TO);
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.ioslistview;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+
+/**
+ * Maps the items of an observable list to their position by identity. The
+ * items are mirrored in an implicit treap, a randomized balanced tree that
+ * knows the size of each subtree, and every item maps to its tree node.
+ * The position of an item is the number of nodes in front of its node,
+ * counted on the way up to the root. Lookups, inserts and removes are
+ * O(log n), so deleting rows at the front of a long list does not shift
+ * all following positions. Permutations re-index lazily on the next lookup.
+ * Items are expected to be in the list only once.
+ */
+public class IosEntryIndex<T> {
+    private final ObservableList<T>     ITEMS;
+    private final Map<T, Node<T>>       nodes;
+    private final ListChangeListener<T> listener;
+    private       Node<T>               root;
+    private       boolean               valid;
+    private       Node<T>               splitLeft;
+    private       Node<T>               splitRight;
+
+
+    // ******************** Constructors **************************************
+    public IosEntryIndex(final ObservableList<T> ITEMS) {
+        this.ITEMS    = ITEMS;
+        this.nodes    = new IdentityHashMap<>();
+        this.valid    = false;
+        this.listener = change -> {
+            while (change.next()) {
+                if (!valid) { continue; }
+                if (change.wasPermutated()) {
+                    valid = false;
+                    continue;
+                }
+                if (change.wasRemoved()) { remove(change.getFrom(), change.getRemoved()); }
+                if (change.wasAdded()) { insert(change.getFrom(), change.getAddedSubList()); }
+            }
+        };
+        ITEMS.addListener(listener);
+    }
+
+
+    // ******************** Methods *******************************************
+    public int indexOf(final T ITEM) {
+        if (!valid) { rebuild(); }
+        final Node<T> NODE = nodes.get(ITEM);
+        return null == NODE ? -1 : rank(NODE);
+    }
+
+    public boolean contains(final T ITEM) { return indexOf(ITEM) > -1; }
+
+    public void dispose() {
+        ITEMS.removeListener(listener);
+        nodes.clear();
+        root  = null;
+        valid = false;
+    }
+
+    private void rebuild() {
+        nodes.clear();
+        root  = null;
+        root  = append(null, ITEMS);
+        valid = true;
+    }
+
+    private void insert(final int FROM, final List<? extends T> ADDED) {
+        split(root, FROM);
+        final Node<T> LEFT  = splitLeft;
+        final Node<T> RIGHT = splitRight;
+        root = merge(append(LEFT, ADDED), RIGHT);
+        root.parent = null;
+    }
+
+    private void remove(final int FROM, final List<? extends T> REMOVED) {
+        split(root, FROM);
+        final Node<T> LEFT = splitLeft;
+        split(splitRight, REMOVED.size());
+        final Node<T> GONE  = splitLeft;
+        final Node<T> RIGHT = splitRight;
+        for (T item : REMOVED) {
+            final Node<T> NODE = nodes.get(item);
+            if (null != NODE && rootOf(NODE) == GONE) { nodes.remove(item); }
+        }
+        root = merge(LEFT, RIGHT);
+        if (null != root) { root.parent = null; }
+    }
+
+    private Node<T> append(Node<T> tree, final List<? extends T> ITEMS_TO_ADD) {
+        for (T item : ITEMS_TO_ADD) {
+            final Node<T> NODE = new Node<>(ThreadLocalRandom.current().nextInt());
+            nodes.put(item, NODE);
+            tree = merge(tree, NODE);
+            tree.parent = null;
+        }
+        return tree;
+    }
+
+    private static <T> int rank(Node<T> node) {
+        int rank = size(node.left);
+        while (null != node.parent) {
+            if (node == node.parent.right) { rank += size(node.parent.left) + 1; }
+            node = node.parent;
+        }
+        return rank;
+    }
+
+    private static <T> Node<T> rootOf(Node<T> node) {
+        while (null != node.parent) { node = node.parent; }
+        return node;
+    }
+
+    private static <T> int size(final Node<T> NODE) { return null == NODE ? 0 : NODE.size; }
+
+    private static <T> Node<T> merge(final Node<T> LEFT, final Node<T> RIGHT) {
+        if (null == LEFT)  { return RIGHT; }
+        if (null == RIGHT) { return LEFT; }
+        if (LEFT.PRIORITY > RIGHT.PRIORITY) {
+            LEFT.right        = merge(LEFT.right, RIGHT);
+            LEFT.right.parent = LEFT;
+            LEFT.update();
+            return LEFT;
+        }
+        RIGHT.left        = merge(LEFT, RIGHT.left);
+        RIGHT.left.parent = RIGHT;
+        RIGHT.update();
+        return RIGHT;
+    }
+
+    /**
+     * Splits the given tree into its first COUNT nodes (splitLeft) and the
+     * rest (splitRight), both without parent.
+     */
+    private void split(final Node<T> TREE, final int COUNT) {
+        splitTree(TREE, COUNT);
+        if (null != splitLeft)  { splitLeft.parent  = null; }
+        if (null != splitRight) { splitRight.parent = null; }
+    }
+    private void splitTree(final Node<T> TREE, final int COUNT) {
+        if (null == TREE) {
+            splitLeft  = null;
+            splitRight = null;
+            return;
+        }
+        if (size(TREE.left) < COUNT) {
+            splitTree(TREE.right, COUNT - size(TREE.left) - 1);
+            TREE.right = splitLeft;
+            if (null != TREE.right) { TREE.right.parent = TREE; }
+            TREE.update();
+            splitLeft = TREE;
+        } else {
+            splitTree(TREE.left, COUNT);
+            TREE.left = splitRight;
+            if (null != TREE.left) { TREE.left.parent = TREE; }
+            TREE.update();
+            splitRight = TREE;
+        }
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static final class Node<T> {
+        private final int     PRIORITY;
+        private       int     size;
+        private       Node<T> left;
+        private       Node<T> right;
+        private       Node<T> parent;
+
+        Node(final int PRIORITY) {
+            this.PRIORITY = PRIORITY;
+            this.size     = 1;
+        }
+
+        void update() { size = 1 + IosEntryIndex.size(left) + IosEntryIndex.size(right); }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.ioslistview;
+
+import eu.hansolo.iosfx.iosentry.IosEntryModel;
+import javafx.collections.ModifiableObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+
+/**
+ * Observable list of IosEntryModels that can apply an IosSnapshotDiff as
+ * one single list change, so the ListView only touches the affected rows.
+ */
+public class IosEntryList extends ModifiableObservableListBase<IosEntryModel> {
+    private final List<IosEntryModel> items;
+
+
+    // ******************** Constructors **************************************
+    public IosEntryList() {
+        this.items = new ArrayList<>();
+    }
+    public IosEntryList(final Collection<IosEntryModel> ITEMS) {
+        this.items = new ArrayList<>(ITEMS);
+    }
+
+
+    // ******************** Methods *******************************************
+    @Override public IosEntryModel get(final int INDEX) { return items.get(INDEX); }
+
+    @Override public int size() { return items.size(); }
+
+    @Override protected void doAdd(final int INDEX, final IosEntryModel ELEMENT) {
+        items.add(INDEX, ELEMENT);
+    }
+
+    @Override protected IosEntryModel doSet(final int INDEX, final IosEntryModel ELEMENT) {
+        return items.set(INDEX, ELEMENT);
+    }
+
+    @Override protected IosEntryModel doRemove(final int INDEX) {
+        return items.remove(INDEX);
+    }
+
+    /**
+     * Applies the ops of the given diff in order and fires one change.
+     * The diff has to be computed against the current content of this list.
+     */
+    public void apply(final IosSnapshotDiff DIFF) {
+        if (DIFF.getOldSize() != items.size()) { throw new IllegalStateException("Diff does not match the list, size " + items.size() + " != " + DIFF.getOldSize()); }
+        if (DIFF.isEmpty()) { return; }
+        beginChange();
+        for (IosSnapshotDiff.Op op : DIFF.getOps()) {
+            switch(op.TYPE) {
+                case REMOVE:
+                    List<IosEntryModel> range   = items.subList(op.INDEX, op.INDEX + op.COUNT);
+                    List<IosEntryModel> removed = new ArrayList<>(range);
+                    range.clear();
+                    nextRemove(op.INDEX, removed);
+                    break;
+                case INSERT:
+                    items.addAll(op.INDEX, op.ITEMS);
+                    nextAdd(op.INDEX, op.INDEX + op.COUNT);
+                    break;
+                case UPDATE:
+                    for (int i = 0 ; i < op.COUNT ; i++) { nextSet(op.INDEX + i, items.set(op.INDEX + i, op.ITEMS.get(i))); }
+                    break;
+            }
+        }
+        endChange();
+    }
+}
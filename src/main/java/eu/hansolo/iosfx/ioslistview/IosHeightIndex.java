@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.ioslistview;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.Arrays;
+
+
+/**
+ * Binary indexed tree over the heights of the rows of a list. Rows that
+ * were not measured yet count with the estimated height. Offset of a row,
+ * row at an offset and updating a measured height are O(log n). Adds and
+ * removes shift the known heights and rebuild the tree in O(n). Replacing
+ * rows with the same number of rows, e.g. a loaded page of a paged list,
+ * keeps the heights, the new rows update them when they are measured.
+ */
+public class IosHeightIndex<T> {
+    private final ObservableList<T>     ITEMS;
+    private final ListChangeListener<T> listener;
+    private       double                estimatedHeight;
+    private       double[]              heights;
+    private       double[]              tree;
+    private       int                   size;
+
+
+    // ******************** Constructors **************************************
+    public IosHeightIndex(final ObservableList<T> ITEMS, final double ESTIMATED_HEIGHT) {
+        this.ITEMS           = ITEMS;
+        this.estimatedHeight = ESTIMATED_HEIGHT;
+        this.size            = ITEMS.size();
+        this.heights         = new double[Math.max(16, size)];
+        this.tree            = new double[heights.length + 1];
+        this.listener        = change -> {
+            boolean structural = false;
+            while (change.next()) {
+                if (change.wasPermutated()) {
+                    final double[] PERMUTATED = Arrays.copyOf(heights, heights.length);
+                    for (int i = change.getFrom() ; i < change.getTo() ; i++) { PERMUTATED[change.getPermutation(i)] = heights[i]; }
+                    heights    = PERMUTATED;
+                    structural = true;
+                    continue;
+                }
+                if (change.wasReplaced() && change.getAddedSize() == change.getRemovedSize()) { continue; }
+                if (change.wasRemoved()) { removeRows(change.getFrom(), change.getRemovedSize()); }
+                if (change.wasAdded()) { insertRows(change.getFrom(), change.getAddedSize()); }
+                structural = true;
+            }
+            if (structural) { rebuild(); }
+        };
+        Arrays.fill(heights, 0, size, ESTIMATED_HEIGHT);
+        rebuild();
+        ITEMS.addListener(listener);
+    }
+
+
+    // ******************** Methods *******************************************
+    public int size() { return size; }
+
+    public double getEstimatedHeight() { return estimatedHeight; }
+
+    public double getHeight(final int INDEX) { return heights[INDEX]; }
+
+    /**
+     * Stores the measured height of the given row.
+     */
+    public void setHeight(final int INDEX, final double HEIGHT) {
+        if (INDEX < 0 || INDEX >= size || HEIGHT < 0) { return; }
+        final double DELTA = HEIGHT - heights[INDEX];
+        if (Double.compare(DELTA, 0) == 0) { return; }
+        heights[INDEX] = HEIGHT;
+        for (int i = INDEX + 1 ; i <= size ; i += i & -i) { tree[i] += DELTA; }
+    }
+
+    /**
+     * Returns the distance of the top of the given row to the top of the list.
+     */
+    public double getOffset(final int INDEX) {
+        double offset = 0;
+        for (int i = Math.min(INDEX, size) ; i > 0 ; i -= i & -i) { offset += tree[i]; }
+        return offset;
+    }
+
+    public double getTotalHeight() { return getOffset(size); }
+
+    /**
+     * Returns the row that covers the given offset, offsets behind the last
+     * row return the last row, an empty list returns -1.
+     */
+    public int getIndexAt(final double OFFSET) {
+        if (0 == size) { return -1; }
+        int    index     = 0;
+        double remaining = OFFSET;
+        for (int step = Integer.highestOneBit(size) ; step > 0 ; step >>= 1) {
+            final int NEXT = index + step;
+            if (NEXT <= size && tree[NEXT] <= remaining) {
+                index      = NEXT;
+                remaining -= tree[NEXT];
+            }
+        }
+        return Math.min(index, size - 1);
+    }
+
+    public void dispose() { ITEMS.removeListener(listener); }
+
+    private void insertRows(final int FROM, final int COUNT) {
+        if (size + COUNT > heights.length) { heights = Arrays.copyOf(heights, Math.max(heights.length * 2, size + COUNT)); }
+        System.arraycopy(heights, FROM, heights, FROM + COUNT, size - FROM);
+        Arrays.fill(heights, FROM, FROM + COUNT, estimatedHeight);
+        size += COUNT;
+    }
+
+    private void removeRows(final int FROM, final int COUNT) {
+        System.arraycopy(heights, FROM + COUNT, heights, FROM, size - FROM - COUNT);
+        size -= COUNT;
+    }
+
+    /**
+     * Builds the tree bottom up in O(n).
+     */
+    private void rebuild() {
+        if (tree.length < heights.length + 1) { tree = new double[heights.length + 1]; }
+        Arrays.fill(tree, 0);
+        for (int i = 1 ; i <= size ; i++) {
+            tree[i] += heights[i - 1];
+            final int PARENT = i + (i & -i);
+            if (PARENT <= size) { tree[PARENT] += tree[i]; }
+        }
+    }
+}
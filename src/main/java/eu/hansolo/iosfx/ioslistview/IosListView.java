@@ -16,64 +16,528 @@
 
 package eu.hansolo.iosfx.ioslistview;
 
+import eu.hansolo.iosfx.common.IosDarkMode;
+import eu.hansolo.iosfx.events.AsyncDelivery;
 import eu.hansolo.iosfx.events.IosEvent;
+import eu.hansolo.iosfx.events.IosEventDispatcher;
 import eu.hansolo.iosfx.events.IosEventListener;
+import eu.hansolo.iosfx.events.IosEventType;
+import eu.hansolo.iosfx.events.ReferenceType;
 import eu.hansolo.iosfx.iosentry.IosEntry;
+import eu.hansolo.iosfx.iosentry.IosEntryCell;
+import eu.hansolo.iosfx.iosentry.IosEntryModel;
+import eu.hansolo.iosfx.iosentry.IosEntryPool;
+import eu.hansolo.iosfx.iosentry.IosSwipeGesture;
 import eu.hansolo.iosfx.tools.Helper;
-import javafx.animation.Interpolator;
-import javafx.animation.KeyFrame;
-import javafx.animation.KeyValue;
-import javafx.animation.Timeline;
-import javafx.collections.FXCollections;
-import javafx.collections.ListChangeListener;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
 import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.VBox;
 import javafx.util.Duration;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
 
-public class IosListView extends ListView<IosEntry> implements IosEventListener {
-    private Timeline timeline;
 
+public class IosListView extends ListView<IosEntryModel> implements IosEventListener {
+    public  static final Duration                        DEFAULT_FILTER_DELAY         = Duration.millis(150);
+    public  static final double                          DEFAULT_ESTIMATED_ROW_HEIGHT = 44;
+    private static       ExecutorService                 defaultSnapshotExecutor;
+    private              IosEntryPool                    entryPool;
+    private              Set<IosEntryCell>               cells;
+    private              Set<IosEntryCell>               unmeasuredCells;
+    private              IosDeleteCoordinator            deleteCoordinator;
+    private              IosEventDispatcher              dispatcher;
+    private              Executor                        snapshotExecutor;
+    private              InvalidationListener            itemsObserver;
+    private              long                            itemsVersion;
+    private              long                            snapshotGeneration;
+    private              String                          filterText;
+    private              PauseTransition                 filterDelay;
+    private              ObservableList<IosEntryModel>   filterSource;
+    private              IosEntryList                    filterView;
+    private              IosSearchIndex                  searchIndex;
+    private              InvalidationListener            sourceObserver;
+    private              IosSectionIndex                 sectionIndex;
+    private              Function<IosEntryModel, String> sectionKeyExtractor;
+    private              Label                           stickyHeader;
+    private              VBox                            indexBar;
+    private              IosSectionIndex                 indexBarSections;
+    private              long                            indexBarVersion;
+    private              boolean                         stickyHeaderDirty;
+    private              IosHeightIndex<IosEntryModel>   heightIndex;
+    private              IosSwipeGesture                 swipeGesture;
+
+
+    // ******************** Constructors **************************************
     public IosListView() {
-        this(FXCollections.observableArrayList());
+        this(new IosEntryList());
     }
-    public IosListView(final ObservableList<IosEntry> ENTRIES) {
+    public IosListView(final ObservableList<IosEntryModel> ENTRIES) {
         super(ENTRIES);
-        timeline = new Timeline();
+        entryPool         = new IosEntryPool();
+        cells             = Collections.newSetFromMap(new WeakHashMap<>());
+        unmeasuredCells   = Collections.newSetFromMap(new IdentityHashMap<>());
+        deleteCoordinator = new IosDeleteCoordinator(IosListView.this, this::entriesDeleted);
+        dispatcher        = new IosEventDispatcher();
+        itemsObserver     = o -> itemsVersion++;
+        itemsVersion      = 0;
+        filterText        = "";
+        filterDelay       = new PauseTransition(DEFAULT_FILTER_DELAY);
+        sourceObserver    = o -> filterDelay.playFromStart();
+        heightIndex       = new IosHeightIndex<>(getItems(), DEFAULT_ESTIMATED_ROW_HEIGHT);
+        swipeGesture      = new IosSwipeGesture();
+        swipeGesture.install(IosListView.this);
+        filterDelay.setOnFinished(e -> applyFilter());
+        getItems().addListener(itemsObserver);
+        itemsProperty().addListener((o, ov, nv) -> {
+            if (null != ov) { ov.removeListener(itemsObserver); }
+            if (null != nv) { nv.addListener(itemsObserver); }
+            itemsVersion++;
+            // Items that are set from outside while filtering replace the filtered list
+            if (null != filterSource && nv != filterView && nv != filterSource) {
+                filterText = "";
+                stopFiltering();
+            }
+            if (null != sectionIndex) {
+                sectionIndex.dispose();
+                sectionIndex = new IosSectionIndex(nv, sectionKeyExtractor);
+            }
+            heightIndex.dispose();
+            heightIndex = new IosHeightIndex<>(nv, heightIndex.getEstimatedHeight());
+        });
+        IosDarkMode.register(IosListView.this, IosListView::applySceneDark);
+        sceneProperty().addListener(o -> applySceneDark());
         getStylesheets().add(IosListView.class.getResource("ios-listview.css").toExternalForm());
         getStyleClass().add("ios-list-view");
-
-        registerListeners();
+        setCellFactory(p -> {
+            IosEntryCell cell = new IosEntryCell(entryPool);
+            cell.setSectionHeaderProvider(index -> null == sectionIndex ? null : sectionIndex.headerAt(index));
+            cell.layoutYProperty().addListener(o -> requestStickyHeaderUpdate());
+            cell.indexProperty().addListener(o -> {
+                requestStickyHeaderUpdate();
+                requestMeasure(cell);
+            });
+            cell.itemProperty().addListener(o -> requestMeasure(cell));
+            cell.heightProperty().addListener(o -> measured(cell));
+            cells.add(cell);
+            return cell;
+        });
     }
 
 
-    private void registerListeners() {
-        getItems().forEach(entry -> entry.addOnIosEvent(IosListView.this));
+    // ******************** Methods *******************************************
+    /**
+     * Returns the position of the given model in O(log n) or -1.
+     */
+    public int indexOfEntry(final IosEntryModel MODEL) { return deleteCoordinator.indexOf(MODEL); }
+
+    /**
+     * Shows the entries of the given data source. Only the pages around the
+     * visible rows are loaded, unloaded rows show a placeholder.
+     */
+    public void setDataSource(final IosEntryDataSource DATA_SOURCE) {
+        setItems(new IosPagedEntryList(DATA_SOURCE));
+    }
+    public void setDataSource(final IosEntryDataSource DATA_SOURCE, final int PAGE_SIZE, final int MAX_CACHED_PAGES, final int PREFETCH_PAGES) {
+        setItems(new IosPagedEntryList(DATA_SOURCE, PAGE_SIZE, MAX_CACHED_PAGES, PREFETCH_PAGES));
+    }
+
+    /**
+     * Replaces the content of the list with the given snapshot. The changes
+     * are computed by key and version on the snapshot executor and applied
+     * as one list change on the FX thread. On an IosEntryList rows that did
+     * not change keep their cells, other lists get the new rows with one
+     * setAll(). If the items are modified or another snapshot is applied
+     * in the meantime the diff is computed again or dropped.
+     * Must be called on the FX thread.
+     */
+    public void applySnapshot(final List<IosEntryModel> SNAPSHOT) {
+        final ObservableList<IosEntryModel> ITEMS = getSourceItems();
+        if (ITEMS instanceof IosPagedEntryList) { throw new UnsupportedOperationException("Snapshots are not supported for lists backed by an IosEntryDataSource"); }
+        final List<IosEntryModel> OLD_ITEMS     = new ArrayList<>(ITEMS);
+        final List<IosEntryModel> NEW_ITEMS     = new ArrayList<>(SNAPSHOT);
+        final long                GENERATION    = ++snapshotGeneration;
+        final long                ITEMS_VERSION = itemsVersion;
+        CompletableFuture.supplyAsync(() -> IosSnapshotDiff.compute(OLD_ITEMS, NEW_ITEMS), getSnapshotExecutor())
+                         .thenAccept(diff -> Platform.runLater(() -> {
+                             if (GENERATION != snapshotGeneration) { return; }
+                             if (ITEMS_VERSION != itemsVersion || ITEMS != getSourceItems()) {
+                                 applySnapshot(NEW_ITEMS);
+                                 return;
+                             }
+                             applyDiff(ITEMS, diff);
+                         }));
+    }
 
-        getItems().addListener((ListChangeListener<IosEntry>) change -> {
-            while (change.next()) {
-                if (change.wasAdded()) {
-                    change.getAddedSubList().forEach(addedItem -> addedItem.addOnIosEvent(IosListView.this));
-                } else if (change.wasRemoved()) {
-                    change.getRemoved().forEach(removedItem -> removedItem.removeOnIosEvent(IosListView.this));
+    public Executor getSnapshotExecutor() {
+        if (null == snapshotExecutor) {
+            synchronized (IosListView.class) {
+                if (null == defaultSnapshotExecutor) {
+                    defaultSnapshotExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "IosListView-Snapshot");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
                 }
+                snapshotExecutor = defaultSnapshotExecutor;
             }
-        });
+        }
+        return snapshotExecutor;
+    }
+    public void setSnapshotExecutor(final Executor EXECUTOR) { snapshotExecutor = EXECUTOR; }
+
+    /**
+     * Shows only the entries whose title or subtitle contains the given text.
+     * The filter is applied DEFAULT_FILTER_DELAY after the last call and
+     * uses an IosSearchIndex that follows the changes of the unfiltered
+     * items. An empty text shows the unfiltered items again. Lists backed
+     * by an IosEntryDataSource can not be filtered.
+     */
+    public void setFilterText(final String TEXT) {
+        final String FILTER_TEXT = null == TEXT ? "" : TEXT;
+        if (!FILTER_TEXT.trim().isEmpty() && getSourceItems() instanceof IosPagedEntryList) { throw new UnsupportedOperationException("Filtering is not supported for lists backed by an IosEntryDataSource"); }
+        filterText = FILTER_TEXT;
+        filterDelay.playFromStart();
+    }
+    public String getFilterText() { return filterText; }
+
+    public Duration getFilterDelay() { return filterDelay.getDuration(); }
+    public void setFilterDelay(final Duration DELAY) { filterDelay.setDuration(DELAY); }
+
+    public boolean isFiltering() { return null != filterSource; }
+
+    /**
+     * Returns the unfiltered items, which are the items if no filter is set.
+     */
+    public ObservableList<IosEntryModel> getSourceItems() { return null == filterSource ? getItems() : filterSource; }
+
+    /**
+     * Groups the rows into sections by the key the given function returns,
+     * rows with the same key have to follow each other. Every section starts
+     * with a header, the header of the topmost section sticks to the top and
+     * an index bar on the right side jumps to a section.
+     * IosSectionIndex.FIRST_LETTER groups contacts like lists, null removes
+     * the sections.
+     */
+    public void setSectionKeyExtractor(final Function<IosEntryModel, String> KEY_EXTRACTOR) {
+        if (null != sectionIndex) { sectionIndex.dispose(); }
+        sectionKeyExtractor = KEY_EXTRACTOR;
+        if (null == KEY_EXTRACTOR) {
+            sectionIndex = null;
+            if (null != stickyHeader) { getChildren().removeAll(stickyHeader, indexBar); }
+        } else {
+            if (getItems() instanceof IosPagedEntryList) { throw new UnsupportedOperationException("Sections are not supported for lists backed by an IosEntryDataSource"); }
+            sectionIndex = new IosSectionIndex(getItems(), KEY_EXTRACTOR);
+            if (null == stickyHeader) { initSectionNodes(); }
+        }
+        indexBarSections = null;
+        refresh();
+        requestLayout();
+    }
+    public Function<IosEntryModel, String> getSectionKeyExtractor() { return sectionKeyExtractor; }
+
+    public IosSectionIndex getSectionIndex() { return sectionIndex; }
+
+    /**
+     * Scrolls to the first row of the section with the given key or the
+     * next section after it.
+     */
+    public void scrollToSection(final String KEY) {
+        if (null == sectionIndex) { return; }
+        final int SECTION = sectionIndex.sectionOfKey(KEY);
+        if (SECTION > -1) { scrollTo(sectionIndex.getStart(SECTION)); }
+    }
+
+    /**
+     * Returns the distance of the given row to the top of the content in
+     * O(log n). Rows that were not shown yet count with the estimated height.
+     */
+    public double getRowOffset(final int INDEX) { return heightIndex.getOffset(INDEX); }
+
+    /**
+     * Returns the row at the given distance to the top of the content in O(log n).
+     */
+    public int getRowIndexAt(final double OFFSET) { return heightIndex.getIndexAt(OFFSET); }
+
+    public double getContentHeight() { return heightIndex.getTotalHeight(); }
+
+    public IosHeightIndex<IosEntryModel> getHeightIndex() { return heightIndex; }
+
+    /**
+     * Scrolls to the row at the given distance to the top of the content.
+     */
+    public void scrollToOffset(final double OFFSET) {
+        final int INDEX = heightIndex.getIndexAt(OFFSET);
+        if (INDEX > -1) { scrollTo(INDEX); }
+    }
+
+    /**
+     * Returns the gesture that handles the swipes of all rows of this list.
+     */
+    public IosSwipeGesture getSwipeGesture() { return swipeGesture; }
+
+    /**
+     * Deletes the given models with one collapse animation and one list change.
+     */
+    public void deleteEntries(final Collection<IosEntryModel> MODELS) {
+        for (IosEntryModel model : MODELS) { deleteCoordinator.requestDelete(model, getVisibleEntry(model)); }
+    }
+
+    @Override protected void layoutChildren() {
+        super.layoutChildren();
+        // Lay out the cells now, measuring and the sticky header depend on their final size and position
+        stickyHeaderDirty = true;
+        for (Node child : getChildren()) { if (child instanceof Parent && child != stickyHeader && child != indexBar) { ((Parent) child).layout(); } }
+        if (!unmeasuredCells.isEmpty()) {
+            unmeasuredCells.forEach(this::measured);
+            unmeasuredCells.clear();
+        }
+        if (null == sectionIndex) { return; }
+        if (!getChildren().contains(stickyHeader)) { getChildren().addAll(stickyHeader, indexBar); }
+        if (indexBarSections != sectionIndex || indexBarVersion != sectionIndex.getVersion()) { updateIndexBar(); }
+        final Insets INSETS       = getInsets();
+        final double WIDTH        = getWidth() - INSETS.getLeft() - INSETS.getRight();
+        final double HEIGHT       = getHeight() - INSETS.getTop() - INSETS.getBottom();
+        final double BAR_WIDTH    = indexBar.prefWidth(-1);
+        final double BAR_HEIGHT   = Math.min(HEIGHT, indexBar.prefHeight(BAR_WIDTH));
+        final double HEADER_WIDTH = WIDTH;
+        stickyHeader.resizeRelocate(INSETS.getLeft(), INSETS.getTop(), HEADER_WIDTH, stickyHeader.prefHeight(HEADER_WIDTH));
+        indexBar.resizeRelocate(INSETS.getLeft() + WIDTH - BAR_WIDTH, INSETS.getTop() + (HEIGHT - BAR_HEIGHT) * 0.5, BAR_WIDTH, BAR_HEIGHT);
+        stickyHeader.toFront();
+        indexBar.toFront();
+        updateStickyHeader();
+    }
+
+    /**
+     * Reuses the labels of the index bar, they only change when the keys of
+     * the sections change.
+     */
+    private void updateIndexBar() {
+        indexBarSections = sectionIndex;
+        indexBarVersion  = sectionIndex.getVersion();
+        final List<String>         KEYS   = sectionIndex.getKeys();
+        final ObservableList<Node> LABELS = indexBar.getChildren();
+        final int                  SIZE   = KEYS.size();
+        if (LABELS.size() > SIZE) { LABELS.remove(SIZE, LABELS.size()); }
+        for (int i = 0 ; i < SIZE ; i++) {
+            if (i < LABELS.size()) {
+                ((Label) LABELS.get(i)).setText(KEYS.get(i));
+            } else {
+                LABELS.add(new Label(KEYS.get(i)));
+            }
+        }
+    }
+
+    /**
+     * Cells report every move, the sticky header is updated once per layout
+     * pass instead of once per cell.
+     */
+    private void requestStickyHeaderUpdate() {
+        if (null == sectionIndex || stickyHeaderDirty) { return; }
+        stickyHeaderDirty = true;
+        requestLayout();
     }
 
+    private void initSectionNodes() {
+        stickyHeader = new Label();
+        stickyHeader.getStyleClass().addAll("section-header", "sticky-header");
+        stickyHeader.setManaged(false);
+        stickyHeader.setMouseTransparent(true);
+
+        indexBar = new VBox();
+        indexBar.getStyleClass().add("index-bar");
+        indexBar.setManaged(false);
+        indexBar.addEventHandler(MouseEvent.MOUSE_PRESSED, this::jumpToIndex);
+        indexBar.addEventHandler(MouseEvent.MOUSE_DRAGGED, this::jumpToIndex);
+    }
+
+    private void jumpToIndex(final MouseEvent EVT) {
+        final int NO_OF_KEYS = indexBar.getChildren().size();
+        if (0 == NO_OF_KEYS) { return; }
+        final Insets INSETS = indexBar.getInsets();
+        final double HEIGHT = indexBar.getHeight() - INSETS.getTop() - INSETS.getBottom();
+        final int    KEY    = (int) Helper.clamp(0, NO_OF_KEYS - 1, (EVT.getY() - INSETS.getTop()) / HEIGHT * NO_OF_KEYS);
+        scrollToSection(((Label) indexBar.getChildren().get(KEY)).getText());
+        EVT.consume();
+    }
+
+    /**
+     * Shows the section of the topmost visible row in the sticky header and
+     * pushes it up when the header of the next section reaches it.
+     */
+    private void updateStickyHeader() {
+        if (!stickyHeaderDirty) { return; }
+        stickyHeaderDirty = false;
+        if (null == sectionIndex || null == stickyHeader) { return; }
+        final int    SIZE  = getItems().size();
+        IosEntryCell first = null;
+        for (IosEntryCell cell : cells) {
+            final int INDEX = cell.getIndex();
+            if (!cell.isVisible() || cell.isEmpty() || INDEX < 0 || INDEX >= SIZE) { continue; }
+            final double Y = cell.getLayoutY();
+            if (Y <= 0 && Y + cell.getHeight() > 0) { first = cell; }
+        }
+        final int SECTION = null == first ? -1 : sectionIndex.sectionOf(first.getIndex());
+        if (SECTION < 0) {
+            stickyHeader.setVisible(false);
+            return;
+        }
+        stickyHeader.setText(sectionIndex.getKey(SECTION));
+        stickyHeader.setVisible(true);
+
+        double offset = 0;
+        if (SECTION + 1 < sectionIndex.getNoOfSections()) {
+            final int NEXT_START = sectionIndex.getStart(SECTION + 1);
+            for (IosEntryCell cell : cells) {
+                if (cell.getIndex() != NEXT_START || !cell.isVisible()) { continue; }
+                offset = Math.min(0, cell.getLayoutY() - stickyHeader.getHeight());
+                break;
+            }
+        }
+        stickyHeader.setTranslateY(offset);
+    }
+
+    /**
+     * A cell that shows another row keeps its height if the rows are equally
+     * high, so it is measured after the next layout instead of waiting for
+     * a height change.
+     */
+    private void requestMeasure(final IosEntryCell CELL) {
+        if (unmeasuredCells.add(CELL) && 1 == unmeasuredCells.size()) { requestLayout(); }
+    }
+
+    private void measured(final IosEntryCell CELL) {
+        final IosEntry ENTRY = CELL.getEntry();
+        // Collapsing rows do not report their real height
+        if (CELL.isEmpty() || !CELL.isVisible() || CELL.getHeight() <= 0 || null == ENTRY || null == ENTRY.getModel() || deleteCoordinator.isPending(ENTRY.getModel())) { return; }
+        heightIndex.setHeight(CELL.getIndex(), CELL.getHeight());
+    }
+
+    private void applyFilter() {
+        if (filterText.trim().isEmpty()) {
+            stopFiltering();
+            return;
+        }
+        if (null == filterSource) {
+            final ObservableList<IosEntryModel> ITEMS = getItems();
+            // A data source was set after setFilterText()
+            if (ITEMS instanceof IosPagedEntryList) {
+                filterText = "";
+                return;
+            }
+            searchIndex  = new IosSearchIndex(ITEMS);
+            filterView   = new IosEntryList();
+            filterSource = ITEMS;
+            filterSource.addListener(sourceObserver);
+            filterSource.addListener(itemsObserver);
+        }
+        filterView.setAll(searchIndex.search(filterText));
+        if (getItems() != filterView) { setItems(filterView); }
+    }
+
+    private void stopFiltering() {
+        if (null == filterSource) { return; }
+        final ObservableList<IosEntryModel> SOURCE = filterSource;
+        filterDelay.stop();
+        SOURCE.removeListener(sourceObserver);
+        SOURCE.removeListener(itemsObserver);
+        searchIndex.dispose();
+        searchIndex  = null;
+        filterSource = null;
+        if (getItems() == filterView) { setItems(SOURCE); }
+        filterView   = null;
+    }
+
+    private void entriesDeleted(final List<IosEntryModel> DELETED) {
+        // While filtering the rows were removed from the filtered list only
+        if (null != filterSource && !(filterSource instanceof IosPagedEntryList)) {
+            Set<IosEntryModel> toRemove = Collections.newSetFromMap(new IdentityHashMap<>());
+            toRemove.addAll(DELETED);
+            filterSource.removeAll(toRemove);
+        }
+        DELETED.forEach(model -> fireIosEvent(new IosEvent(model, IosEventType.DELETE_ENTRY)));
+    }
+
+    private void applyDiff(final ObservableList<IosEntryModel> ITEMS, final IosSnapshotDiff DIFF) {
+        if (ITEMS instanceof IosEntryList) {
+            ((IosEntryList) ITEMS).apply(DIFF);
+            return;
+        }
+        if (DIFF.isEmpty()) { return; }
+        // Other lists can not batch the ops, they get the result as one change
+        final List<IosEntryModel> RESULT = new ArrayList<>(ITEMS);
+        for (IosSnapshotDiff.Op op : DIFF.getOps()) {
+            switch(op.TYPE) {
+                case REMOVE: RESULT.subList(op.INDEX, op.INDEX + op.COUNT).clear(); break;
+                case INSERT: RESULT.addAll(op.INDEX, op.ITEMS); break;
+                case UPDATE: for (int i = 0 ; i < op.COUNT ; i++) { RESULT.set(op.INDEX + i, op.ITEMS.get(i)); } break;
+            }
+        }
+        ITEMS.setAll(RESULT);
+    }
+
+    private IosEntry getVisibleEntry(final IosEntryModel MODEL) {
+        for (IosEntryCell cell : cells) {
+            IosEntry entry = cell.getEntry();
+            if (null != entry && entry.getModel() == MODEL) { return entry; }
+        }
+        return null;
+    }
+
+    private void applySceneDark() { pseudoClassStateChanged(IosDarkMode.DARK_PSEUDO_CLASS, IosDarkMode.isDark(getScene())); }
+
+
+    // ******************** Event Handling ************************************
+    public void addOnIosEvent(final IosEventListener LISTENER) { addOnIosEvent(LISTENER, ReferenceType.STRONG); }
+    public void addOnIosEvent(final IosEventListener LISTENER, final ReferenceType TYPE) { dispatcher.add(LISTENER, TYPE); }
+    public void addOnIosEvent(final IosEventType EVENT_TYPE, final IosEventListener LISTENER) { addOnIosEvent(EVENT_TYPE, LISTENER, ReferenceType.STRONG); }
+    public void addOnIosEvent(final IosEventType EVENT_TYPE, final IosEventListener LISTENER, final ReferenceType TYPE) { dispatcher.add(EVENT_TYPE, LISTENER, TYPE); }
+    /**
+     * The listener gets its events on the executor of the given delivery
+     * instead of the FX application thread.
+     */
+    public void addOnIosEvent(final IosEventListener LISTENER, final AsyncDelivery DELIVERY) { dispatcher.add(LISTENER, ReferenceType.STRONG, DELIVERY); }
+    public void addOnIosEvent(final IosEventType EVENT_TYPE, final IosEventListener LISTENER, final AsyncDelivery DELIVERY) { dispatcher.add(EVENT_TYPE, LISTENER, ReferenceType.STRONG, DELIVERY); }
+    public void removeOnIosEvent(final IosEventListener LISTENER) { dispatcher.remove(LISTENER); }
+
+    private void fireIosEvent(final IosEvent EVENT) {
+        dispatcher.fire(EVENT);
+    }
+
+    /**
+     * Receives the events of the IosEntry nodes that are owned by the visible
+     * cells and forwards them to the listeners with the model as source.
+     * Events of other sources are ignored.
+     */
     @Override public void onIosEvent(final IosEvent EVT) {
+        if (!(EVT.SRC instanceof IosEntry)) { return; }
+        final IosEntry      ENTRY = (IosEntry) EVT.SRC;
+        final IosEntryModel MODEL = ENTRY.getModel();
+        if (null == MODEL) { return; }
         switch(EVT.TYPE) {
             case DELETE_ENTRY:
-                IosEntry entry = (IosEntry) EVT.SRC;
-                KeyValue kvEntryHeightStart = new KeyValue(entry.prefHeightProperty(), entry.getPrefHeight(), Interpolator.EASE_BOTH);
-                KeyValue kvEntryHeightEnd   = new KeyValue(entry.prefHeightProperty(), 0, Interpolator.EASE_BOTH);
-
-                KeyFrame kf0 = new KeyFrame(Duration.ZERO, kvEntryHeightStart);
-                KeyFrame kf1 = new KeyFrame(Duration.millis(2 * Helper.ANIMATION_DURATION), kvEntryHeightEnd);
-
-                timeline.getKeyFrames().setAll(kf0, kf1);
-                timeline.setOnFinished(e -> getItems().remove(entry));
-                timeline.play();
+                deleteCoordinator.requestDelete(MODEL, ENTRY);
+                break;
+            default:
+                fireIosEvent(new IosEvent(MODEL, EVT.TYPE));
                 break;
         }
     }
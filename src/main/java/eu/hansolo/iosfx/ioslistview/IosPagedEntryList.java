@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.ioslistview;
+
+import eu.hansolo.iosfx.iosentry.IosEntryModel;
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Read only list that loads its entries page wise from an IosEntryDataSource.
+ * Rows that are not loaded yet return PLACEHOLDER and are replaced as soon
+ * as their page arrives. Pages ahead of the scroll direction are prefetched
+ * and pages far away from the last accessed row are evicted once more than
+ * maxCachedPages are held.
+ */
+public class IosPagedEntryList extends ObservableListBase<IosEntryModel> {
+    public  static final IosEntryModel                 PLACEHOLDER              = new IosEntryModel(null, "", "", null, false, false);
+    public  static final int                           DEFAULT_PAGE_SIZE        = 100;
+    public  static final int                           DEFAULT_MAX_CACHED_PAGES = 20;
+    public  static final int                           DEFAULT_PREFETCH_PAGES   = 2;
+    private        final IosEntryDataSource            DATA_SOURCE;
+    private        final int                           PAGE_SIZE;
+    private        final int                           MAX_CACHED_PAGES;
+    private        final int                           PREFETCH_PAGES;
+    private        final Map<Integer, IosEntryModel[]> pages;
+    private        final Set<Integer>                  loading;
+    private              int                           size;
+    private              int                           lastIndex;
+    private              int                           direction;
+    private              int                           generation;
+
+
+    // ******************** Constructors **************************************
+    public IosPagedEntryList(final IosEntryDataSource DATA_SOURCE) {
+        this(DATA_SOURCE, DEFAULT_PAGE_SIZE, DEFAULT_MAX_CACHED_PAGES, DEFAULT_PREFETCH_PAGES);
+    }
+    public IosPagedEntryList(final IosEntryDataSource DATA_SOURCE, final int PAGE_SIZE, final int MAX_CACHED_PAGES, final int PREFETCH_PAGES) {
+        if (PAGE_SIZE < 1) { throw new IllegalArgumentException("PAGE_SIZE must be > 0"); }
+        this.DATA_SOURCE      = DATA_SOURCE;
+        this.PAGE_SIZE        = PAGE_SIZE;
+        this.PREFETCH_PAGES   = Math.max(0, PREFETCH_PAGES);
+        this.MAX_CACHED_PAGES = Math.max(this.PREFETCH_PAGES + 1, MAX_CACHED_PAGES);
+        this.pages            = new HashMap<>();
+        this.loading          = new HashSet<>();
+        this.size             = Math.max(0, DATA_SOURCE.getCount());
+        this.lastIndex        = 0;
+        this.direction        = 1;
+        this.generation       = 0;
+    }
+
+
+    // ******************** Methods *******************************************
+    @Override public IosEntryModel get(final int INDEX) {
+        if (INDEX < 0 || INDEX >= size) { throw new IndexOutOfBoundsException("Index: " + INDEX + ", Size: " + size); }
+        if (INDEX != lastIndex) { direction = INDEX > lastIndex ? 1 : -1; }
+        lastIndex = INDEX;
+
+        final int       PAGE   = INDEX / PAGE_SIZE;
+        IosEntryModel[] models = pages.get(PAGE);
+        if (null == models) { requestPage(PAGE); }
+        for (int i = 1 ; i <= PREFETCH_PAGES ; i++) { requestPage(PAGE + direction * i); }
+        return null == models || null == models[INDEX % PAGE_SIZE] ? PLACEHOLDER : models[INDEX % PAGE_SIZE];
+    }
+
+    @Override public int size() { return size; }
+
+    public boolean isLoaded(final int INDEX) { return pages.containsKey(INDEX / PAGE_SIZE); }
+
+    /**
+     * Returns the index of the given model if its page is loaded, otherwise -1.
+     * Only looks at the cached pages and never triggers loading.
+     */
+    public int indexOfLoaded(final IosEntryModel MODEL) {
+        if (PLACEHOLDER == MODEL) { return -1; }
+        for (Map.Entry<Integer, IosEntryModel[]> page : pages.entrySet()) {
+            IosEntryModel[] models = page.getValue();
+            for (int i = 0 ; i < models.length ; i++) {
+                if (models[i] == MODEL) { return page.getKey() * PAGE_SIZE + i; }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Drops all cached pages and re-reads the count from the data source.
+     */
+    public void refresh() {
+        final int OLD_SIZE = size;
+        generation++;
+        pages.clear();
+        loading.clear();
+        size = Math.max(0, DATA_SOURCE.getCount());
+        beginChange();
+        if (OLD_SIZE > 0) { nextRemove(0, Collections.nCopies(OLD_SIZE, PLACEHOLDER)); }
+        if (size > 0) { nextAdd(0, size); }
+        endChange();
+    }
+
+    private void requestPage(final int PAGE) {
+        if (PAGE < 0 || PAGE * PAGE_SIZE >= size || pages.containsKey(PAGE) || loading.contains(PAGE)) { return; }
+        final int FROM       = PAGE * PAGE_SIZE;
+        final int TO         = Math.min(size, FROM + PAGE_SIZE);
+        final int GENERATION = generation;
+        loading.add(PAGE);
+        DATA_SOURCE.load(FROM, TO).whenComplete((models, throwable) -> Platform.runLater(() -> {
+            if (GENERATION != generation) { return; }
+            loading.remove(PAGE);
+            if (null != throwable || null == models) { return; }
+            pageLoaded(PAGE, models);
+        }));
+    }
+
+    private void pageLoaded(final int PAGE, final List<IosEntryModel> MODELS) {
+        // Pages that arrive after the user scrolled far away are not kept
+        if (Math.abs(PAGE - lastIndex / PAGE_SIZE) >= MAX_CACHED_PAGES) { return; }
+        final int       FROM   = PAGE * PAGE_SIZE;
+        final int       TO     = Math.min(size, FROM + PAGE_SIZE);
+        IosEntryModel[] models = new IosEntryModel[TO - FROM];
+        for (int i = 0 ; i < models.length && i < MODELS.size() ; i++) { models[i] = MODELS.get(i); }
+        pages.put(PAGE, models);
+
+        beginChange();
+        nextReplace(FROM, TO, Collections.nCopies(TO - FROM, PLACEHOLDER));
+        evictPages(PAGE);
+        endChange();
+    }
+
+    private void evictPages(final int KEEP) {
+        final int CURRENT_PAGE = lastIndex / PAGE_SIZE;
+        while (pages.size() > MAX_CACHED_PAGES) {
+            int farthestPage     = -1;
+            int farthestDistance = -1;
+            for (int page : pages.keySet()) {
+                int distance = Math.abs(page - CURRENT_PAGE);
+                if (page != KEEP && distance > farthestDistance) {
+                    farthestDistance = distance;
+                    farthestPage     = page;
+                }
+            }
+            IosEntryModel[] evicted = pages.remove(farthestPage);
+            final int FROM = farthestPage * PAGE_SIZE;
+            nextReplace(FROM, FROM + evicted.length, Arrays.asList(evicted));
+        }
+    }
+}
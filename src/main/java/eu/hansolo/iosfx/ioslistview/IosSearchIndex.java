@@ -0,0 +1,317 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.ioslistview;
+
+import eu.hansolo.iosfx.iosentry.IosEntryModel;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+
+/**
+ * Substring index over the titles and subtitles of the models in a list.
+ * Every model gets a slot and every 1, 2 and 3 character gram of its text
+ * a sorted posting list of slots. Queries up to 3 characters are answered
+ * by one posting list, longer ones by intersecting the posting lists of
+ * their trigrams and verifying the remaining candidates.
+ * The index follows the adds and removes of the list, removed slots are
+ * skipped and purged once they make up half of all slots.
+ */
+public class IosSearchIndex {
+    private static final int                               MAX_GRAM_LENGTH = 3;
+    private        final ObservableList<IosEntryModel>     ITEMS;
+    private        final IosEntryIndex<IosEntryModel>      positions;
+    private        final Map<IosEntryModel, Integer>       slots;
+    private        final GramMap                           postings;
+    private        final ListChangeListener<IosEntryModel> listener;
+    private              IosEntryModel[]                   models;
+    private              String[]                          texts;
+    private              int[]                             counts;
+    private              int                               noOfSlots;
+    private              int                               noOfRemoved;
+
+
+    // ******************** Constructors **************************************
+    public IosSearchIndex(final ObservableList<IosEntryModel> ITEMS) {
+        this.ITEMS     = ITEMS;
+        this.positions = new IosEntryIndex<>(ITEMS);
+        this.slots     = new IdentityHashMap<>();
+        this.postings  = new GramMap();
+        this.models    = new IosEntryModel[Math.max(16, ITEMS.size())];
+        this.texts     = new String[models.length];
+        this.counts    = new int[models.length];
+        this.listener  = change -> {
+            while (change.next()) {
+                if (change.wasPermutated()) { continue; }
+                if (change.wasRemoved()) { change.getRemoved().forEach(this::remove); }
+                if (change.wasAdded()) { change.getAddedSubList().forEach(this::add); }
+            }
+            if (noOfRemoved > noOfSlots / 2) { compact(); }
+        };
+        ITEMS.forEach(this::add);
+        ITEMS.addListener(listener);
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Returns all models whose title or subtitle contains the given text
+     * (case insensitive) in the order of the list.
+     */
+    public List<IosEntryModel> search(final String TEXT) {
+        final String QUERY = normalize(TEXT);
+        if (QUERY.isEmpty()) { return new ArrayList<>(ITEMS); }
+
+        int[] hits;
+        int   noOfHits;
+        if (QUERY.length() <= MAX_GRAM_LENGTH) {
+            Postings list = postings.get(gram(QUERY, 0, QUERY.length()));
+            if (null == list) { return new ArrayList<>(); }
+            hits     = list.slots;
+            noOfHits = list.size;
+        } else {
+            List<Postings> lists = new ArrayList<>();
+            for (int i = 0 ; i <= QUERY.length() - MAX_GRAM_LENGTH ; i++) {
+                Postings list = postings.get(gram(QUERY, i, MAX_GRAM_LENGTH));
+                if (null == list) { return new ArrayList<>(); }
+                lists.add(list);
+            }
+            lists.sort((l1, l2) -> Integer.compare(l1.size, l2.size));
+            hits     = Arrays.copyOf(lists.get(0).slots, lists.get(0).size);
+            noOfHits = hits.length;
+            for (int i = 1 ; i < lists.size() && noOfHits > 0 ; i++) { noOfHits = intersect(hits, noOfHits, lists.get(i)); }
+        }
+
+        final List<IosEntryModel> RESULT = new ArrayList<>(noOfHits);
+        boolean duplicates = false;
+        for (int i = 0 ; i < noOfHits ; i++) {
+            final int SLOT = hits[i];
+            if (null == models[SLOT]) { continue; }
+            if (QUERY.length() > MAX_GRAM_LENGTH && !texts[SLOT].contains(QUERY)) { continue; }
+            RESULT.add(models[SLOT]);
+            duplicates |= counts[SLOT] > 1;
+        }
+        if (!duplicates && RESULT.size() == slots.size()) {
+            return new ArrayList<>(ITEMS);
+        } else if (duplicates || RESULT.size() > ITEMS.size() / 8) {
+            // Walking the list once is cheaper than sorting many hits and keeps duplicates
+            final BitSet MATCHES = new BitSet(noOfSlots);
+            for (IosEntryModel model : RESULT) { MATCHES.set(slots.get(model)); }
+            RESULT.clear();
+            for (IosEntryModel model : ITEMS) {
+                Integer slot = slots.get(model);
+                if (null != slot && MATCHES.get(slot)) { RESULT.add(model); }
+            }
+        } else {
+            RESULT.sort((m1, m2) -> Integer.compare(positions.indexOf(m1), positions.indexOf(m2)));
+        }
+        return RESULT;
+    }
+
+    public void dispose() {
+        ITEMS.removeListener(listener);
+        positions.dispose();
+        slots.clear();
+        postings.clear();
+    }
+
+    private void add(final IosEntryModel MODEL) {
+        // A model might be in the list more than once
+        Integer existing = slots.get(MODEL);
+        if (null != existing) {
+            counts[existing]++;
+            return;
+        }
+        if (noOfSlots == models.length) {
+            models = Arrays.copyOf(models, models.length * 2);
+            texts  = Arrays.copyOf(texts, texts.length * 2);
+            counts = Arrays.copyOf(counts, counts.length * 2);
+        }
+        final int    SLOT  = noOfSlots++;
+        final String TITLE = normalize(MODEL.getTitle());
+        final String SUB   = normalize(MODEL.getSubtitle());
+        slots.put(MODEL, SLOT);
+        models[SLOT] = MODEL;
+        texts[SLOT]  = TITLE + '\n' + SUB;
+        counts[SLOT] = 1;
+
+        final long[] GRAMS = new long[(TITLE.length() + SUB.length()) * MAX_GRAM_LENGTH];
+        int noOfGrams = addGrams(TITLE, GRAMS, 0);
+        noOfGrams = addGrams(SUB, GRAMS, noOfGrams);
+        Arrays.sort(GRAMS, 0, noOfGrams);
+        for (int i = 0 ; i < noOfGrams ; i++) {
+            if (i > 0 && GRAMS[i] == GRAMS[i - 1]) { continue; }
+            postings.getOrCreate(GRAMS[i]).add(SLOT);
+        }
+    }
+
+    private void remove(final IosEntryModel MODEL) {
+        Integer slot = slots.get(MODEL);
+        if (null == slot || --counts[slot] > 0) { return; }
+        slots.remove(MODEL);
+        models[slot] = null;
+        texts[slot]  = null;
+        noOfRemoved++;
+    }
+
+    private void compact() {
+        final int[] NEW_SLOTS = new int[noOfSlots];
+        int         next      = 0;
+        for (int slot = 0 ; slot < noOfSlots ; slot++) {
+            if (null == models[slot]) {
+                NEW_SLOTS[slot] = -1;
+                continue;
+            }
+            NEW_SLOTS[slot] = next;
+            models[next]    = models[slot];
+            texts[next]     = texts[slot];
+            counts[next]    = counts[slot];
+            slots.put(models[next], next);
+            next++;
+        }
+        Arrays.fill(models, next, noOfSlots, null);
+        Arrays.fill(texts, next, noOfSlots, null);
+        noOfSlots   = next;
+        noOfRemoved = 0;
+        postings.remap(NEW_SLOTS);
+    }
+
+    private static int addGrams(final String TEXT, final long[] GRAMS, final int OFFSET) {
+        final int LENGTH = TEXT.length();
+        int       size   = OFFSET;
+        for (int i = 0 ; i < LENGTH ; i++) {
+            for (int n = 1 ; n <= MAX_GRAM_LENGTH && i + n <= LENGTH ; n++) { GRAMS[size++] = gram(TEXT, i, n); }
+        }
+        return size;
+    }
+
+    /**
+     * Packs up to 3 chars and the length into one long.
+     */
+    private static long gram(final String TEXT, final int FROM, final int LENGTH) {
+        long gram = LENGTH;
+        for (int i = FROM ; i < FROM + LENGTH ; i++) { gram = (gram << 16) | TEXT.charAt(i); }
+        return gram;
+    }
+
+    private static int intersect(final int[] HITS, final int NO_OF_HITS, final Postings LIST) {
+        int size = 0;
+        int j    = 0;
+        for (int i = 0 ; i < NO_OF_HITS && j < LIST.size ; i++) {
+            while (j < LIST.size && LIST.slots[j] < HITS[i]) { j++; }
+            if (j < LIST.size && LIST.slots[j] == HITS[i]) { HITS[size++] = HITS[i]; }
+        }
+        return size;
+    }
+
+    private static String normalize(final String TEXT) { return null == TEXT ? "" : TEXT.trim().toLowerCase(Locale.ROOT); }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Slots are only appended in ascending order, so the list stays sorted.
+     */
+    private static class Postings {
+        private int[] slots = new int[4];
+        private int   size;
+
+        void add(final int SLOT) {
+            if (size == slots.length) { slots = Arrays.copyOf(slots, size * 2); }
+            slots[size++] = SLOT;
+        }
+
+        int remap(final int[] NEW_SLOTS) {
+            int newSize = 0;
+            for (int i = 0 ; i < size ; i++) {
+                int slot = NEW_SLOTS[slots[i]];
+                if (slot > -1) { slots[newSize++] = slot; }
+            }
+            size = newSize;
+            return size;
+        }
+    }
+
+    /**
+     * Open addressing map from packed grams to their postings that avoids
+     * boxing the keys.
+     */
+    private static class GramMap {
+        private long[]     keys   = new long[1024];
+        private Postings[] values = new Postings[1024];
+        private int        size;
+
+        Postings get(final long KEY) {
+            final int MASK = keys.length - 1;
+            for (int i = hash(KEY) & MASK ; null != values[i] ; i = (i + 1) & MASK) {
+                if (keys[i] == KEY) { return values[i]; }
+            }
+            return null;
+        }
+
+        Postings getOrCreate(final long KEY) {
+            final int MASK = keys.length - 1;
+            int i = hash(KEY) & MASK;
+            for ( ; null != values[i] ; i = (i + 1) & MASK) {
+                if (keys[i] == KEY) { return values[i]; }
+            }
+            Postings list = new Postings();
+            keys[i]   = KEY;
+            values[i] = list;
+            if (++size > keys.length / 2) { rehash(keys.length * 2); }
+            return list;
+        }
+
+        void remap(final int[] NEW_SLOTS) {
+            for (int i = 0 ; i < values.length ; i++) {
+                if (null != values[i] && values[i].remap(NEW_SLOTS) == 0) { values[i] = null; size--; }
+            }
+            rehash(keys.length);
+        }
+
+        void clear() {
+            Arrays.fill(values, null);
+            size = 0;
+        }
+
+        private void rehash(final int CAPACITY) {
+            final long[]     OLD_KEYS   = keys;
+            final Postings[] OLD_VALUES = values;
+            final int        MASK       = CAPACITY - 1;
+            keys   = new long[CAPACITY];
+            values = new Postings[CAPACITY];
+            for (int j = 0 ; j < OLD_KEYS.length ; j++) {
+                if (null == OLD_VALUES[j]) { continue; }
+                int i = hash(OLD_KEYS[j]) & MASK;
+                while (null != values[i]) { i = (i + 1) & MASK; }
+                keys[i]   = OLD_KEYS[j];
+                values[i] = OLD_VALUES[j];
+            }
+        }
+
+        private static int hash(final long KEY) {
+            long h = KEY * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.ioslistview;
+
+import eu.hansolo.iosfx.iosentry.IosEntryModel;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+
+/**
+ * Table of the sections of a list. A new section starts at every row whose
+ * key differs from the key of the row before. The start rows are kept in a
+ * sorted array, so the section of a row and the first row of a section are
+ * found by binary search. List changes are merged into the table, only
+ * the added rows are passed to the key extractor, the rows behind a change
+ * get their keys from the section they were in. Permutations rebuild the
+ * table lazily.
+ */
+public class IosSectionIndex {
+    public  static final Function<IosEntryModel, String>   FIRST_LETTER = model -> {
+        final String TITLE = model.getTitle().trim();
+        if (TITLE.isEmpty()) { return "#"; }
+        final char FIRST = Character.toUpperCase(TITLE.charAt(0));
+        return Character.isLetter(FIRST) ? String.valueOf(FIRST) : "#";
+    };
+    private        final ObservableList<IosEntryModel>     ITEMS;
+    private        final Function<IosEntryModel, String>   KEY_EXTRACTOR;
+    private        final ListChangeListener<IosEntryModel> listener;
+    private              int[]                             starts;
+    private              String[]                          keys;
+    private              Map<String, Integer>              sectionsByKey;
+    private              int                               noOfSections;
+    private              int                               noOfRows;
+    private              long                              version;
+    private              boolean                           dirty;
+    private              int[]                             nextStarts;
+    private              String[]                          nextKeys;
+    private              int                               nextNoOfSections;
+
+
+    // ******************** Constructors **************************************
+    public IosSectionIndex(final ObservableList<IosEntryModel> ITEMS, final Function<IosEntryModel, String> KEY_EXTRACTOR) {
+        this.ITEMS         = ITEMS;
+        this.KEY_EXTRACTOR = null == KEY_EXTRACTOR ? FIRST_LETTER : KEY_EXTRACTOR;
+        this.starts        = new int[0];
+        this.keys          = new String[0];
+        this.sectionsByKey = new HashMap<>();
+        this.dirty         = true;
+        this.nextStarts    = new int[16];
+        this.nextKeys      = new String[16];
+        this.listener      = change -> {
+            while (change.next()) {
+                if (dirty) { continue; }
+                if (change.wasPermutated()) {
+                    dirty = true;
+                } else if (change.wasUpdated()) {
+                    replaced(change.getFrom(), change.getTo() - change.getFrom(), change.getTo() - change.getFrom());
+                } else {
+                    replaced(change.getFrom(), change.getRemovedSize(), change.getAddedSize());
+                }
+            }
+        };
+        ITEMS.addListener(listener);
+    }
+
+
+    // ******************** Methods *******************************************
+    public int getNoOfSections() {
+        validate();
+        return noOfSections;
+    }
+
+    public List<String> getKeys() {
+        validate();
+        return Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(keys, noOfSections)));
+    }
+
+    public String getKey(final int SECTION) {
+        validate();
+        return keys[SECTION];
+    }
+
+    /**
+     * Returns the first row of the given section.
+     */
+    public int getStart(final int SECTION) {
+        validate();
+        return starts[SECTION];
+    }
+
+    /**
+     * Returns the section that contains the given row or -1.
+     */
+    public int sectionOf(final int INDEX) {
+        validate();
+        if (INDEX < 0 || INDEX >= ITEMS.size() || 0 == noOfSections) { return -1; }
+        int section = Arrays.binarySearch(starts, 0, noOfSections, INDEX);
+        return section < 0 ? -section - 2 : section;
+    }
+
+    /**
+     * Returns the key of the section if the given row starts a section,
+     * otherwise null.
+     */
+    public String headerAt(final int INDEX) {
+        validate();
+        if (INDEX < 0 || INDEX >= ITEMS.size()) { return null; }
+        int section = Arrays.binarySearch(starts, 0, noOfSections, INDEX);
+        return section < 0 ? null : keys[section];
+    }
+
+    /**
+     * Returns the section with the given key or, if there is none, the first
+     * section whose key is greater (assumes the keys are sorted) or -1.
+     */
+    public int sectionOfKey(final String KEY) {
+        validate();
+        Integer section = sectionsByKey.get(KEY);
+        if (null != section) { return section; }
+        int low  = 0;
+        int high = noOfSections - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(KEY) < 0) { low = mid + 1; } else { high = mid - 1; }
+        }
+        return low < noOfSections ? low : noOfSections - 1;
+    }
+
+    /**
+     * Returns a number that changes whenever the keys of the sections
+     * change, e.g. to only rebuild an index bar when needed.
+     */
+    public long getVersion() {
+        validate();
+        return version;
+    }
+
+    public void dispose() { ITEMS.removeListener(listener); }
+
+    private void validate() {
+        if (!dirty) { return; }
+        dirty            = false;
+        nextNoOfSections = 0;
+        final int SIZE = ITEMS.size();
+        for (int i = 0 ; i < SIZE ; i++) { append(i, keyOf(i)); }
+        noOfRows = SIZE;
+        swap();
+    }
+
+    /**
+     * Merges the change of REMOVED rows at FROM into ADDED new rows into the
+     * table in O(sections + added rows).
+     */
+    private void replaced(final int FROM, final int REMOVED, final int ADDED) {
+        nextNoOfSections = 0;
+        int section = 0;
+        for ( ; section < noOfSections && starts[section] < FROM ; section++) { append(starts[section], keys[section]); }
+        for (int i = FROM ; i < FROM + ADDED ; i++) { append(i, keyOf(i)); }
+        final int TAIL = FROM + REMOVED;
+        if (TAIL < noOfRows) {
+            final int SHIFT = ADDED - REMOVED;
+            // The first row behind the change keeps the key of its old section
+            int tailSection = Arrays.binarySearch(starts, 0, noOfSections, TAIL);
+            if (tailSection < 0) { tailSection = -tailSection - 2; }
+            append(TAIL + SHIFT, keys[tailSection]);
+            for (int i = tailSection + 1 ; i < noOfSections ; i++) { append(starts[i] + SHIFT, keys[i]); }
+        }
+        noOfRows += ADDED - REMOVED;
+        swap();
+    }
+
+    private boolean sameKeys() {
+        if (nextNoOfSections != noOfSections) { return false; }
+        for (int i = 0 ; i < noOfSections ; i++) { if (!nextKeys[i].equals(keys[i])) { return false; } }
+        return true;
+    }
+
+    private String keyOf(final int INDEX) {
+        final String KEY = KEY_EXTRACTOR.apply(ITEMS.get(INDEX));
+        return null == KEY ? "" : KEY;
+    }
+
+    private void append(final int START, final String KEY) {
+        if (nextNoOfSections > 0 && KEY.equals(nextKeys[nextNoOfSections - 1])) { return; }
+        if (nextNoOfSections == nextStarts.length) {
+            nextStarts = Arrays.copyOf(nextStarts, nextStarts.length * 2);
+            nextKeys   = Arrays.copyOf(nextKeys, nextKeys.length * 2);
+        }
+        nextStarts[nextNoOfSections] = START;
+        nextKeys[nextNoOfSections]   = KEY;
+        nextNoOfSections++;
+    }
+
+    /**
+     * Makes the table that append() built the current one, the old arrays
+     * are reused for the next change.
+     */
+    private void swap() {
+        final boolean  SAME_KEYS  = sameKeys();
+        final int[]    OLD_STARTS = starts;
+        final String[] OLD_KEYS   = keys;
+        starts       = nextStarts;
+        keys         = nextKeys;
+        noOfSections = nextNoOfSections;
+        nextStarts   = OLD_STARTS.length < 16 ? new int[16] : OLD_STARTS;
+        nextKeys     = OLD_KEYS.length < 16 ? new String[16] : OLD_KEYS;
+        if (SAME_KEYS) { return; }
+        version++;
+        sectionsByKey.clear();
+        for (int i = 0 ; i < noOfSections ; i++) {
+            sectionsByKey.putIfAbsent(keys[i], i);
+            sectionsByKey.putIfAbsent(keys[i].toUpperCase(Locale.ROOT), i);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.ioslistview;
+
+import eu.hansolo.iosfx.iosentry.IosEntryModel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Minimal change set between two snapshots of IosEntryModels computed with
+ * the O((N+M)D) algorithm of Myers on the keys of the models. Rows whose key
+ * is in both snapshots but whose version differs are reported as updates.
+ * A key that was removed at one position and inserted at another one is
+ * counted as a move, the ListView sees it as remove plus add.
+ * Does not touch any JavaFX state and can be computed on any thread.
+ */
+public class IosSnapshotDiff {
+    public  enum OpType { REMOVE, INSERT, UPDATE }
+
+    /**
+     * One contiguous range of changes. INDEX is the position in the list at
+     * the time the op is applied, ops have to be applied in order.
+     */
+    public static class Op {
+        public final OpType              TYPE;
+        public final int                 INDEX;
+        public final int                 COUNT;
+        public final List<IosEntryModel> ITEMS;
+
+        Op(final OpType TYPE, final int INDEX, final int COUNT, final List<IosEntryModel> ITEMS) {
+            this.TYPE  = TYPE;
+            this.INDEX = INDEX;
+            this.COUNT = COUNT;
+            this.ITEMS = ITEMS;
+        }
+
+        @Override public String toString() { return TYPE + " " + INDEX + " (" + COUNT + ")"; }
+    }
+
+    public  static final int                  MAX_EDIT_DISTANCE = 1024;
+    private static final byte                 MATCH             = 0;
+    private static final byte                 DELETE            = 1;
+    private static final byte                 INSERT            = 2;
+    private        final List<Op>             ops;
+    private        final int                  oldSize;
+    private        final int                  newSize;
+    private        final Map<Object, Integer> removedKeys;
+    private              int                  noOfRemoves;
+    private              int                  noOfInserts;
+    private              int                  noOfUpdates;
+    private              int                  noOfMoves;
+
+
+    // ******************** Constructors **************************************
+    private IosSnapshotDiff(final int OLD_SIZE, final int NEW_SIZE) {
+        this.ops         = new ArrayList<>();
+        this.oldSize     = OLD_SIZE;
+        this.newSize     = NEW_SIZE;
+        this.removedKeys = new HashMap<>();
+    }
+
+
+    // ******************** Methods *******************************************
+    public static IosSnapshotDiff compute(final List<IosEntryModel> OLD_ITEMS, final List<IosEntryModel> NEW_ITEMS) {
+        final IosEntryModel[] A    = OLD_ITEMS.toArray(new IosEntryModel[0]);
+        final IosEntryModel[] B    = NEW_ITEMS.toArray(new IosEntryModel[0]);
+        final Object[]        KA   = keys(A);
+        final Object[]        KB   = keys(B);
+        final IosSnapshotDiff DIFF = new IosSnapshotDiff(A.length, B.length);
+
+        // Refreshes usually touch a few rows only, strip the common head and tail first
+        int prefix = 0;
+        while (prefix < A.length && prefix < B.length && KA[prefix].equals(KB[prefix])) { prefix++; }
+        int suffix = 0;
+        while (suffix < A.length - prefix && suffix < B.length - prefix && KA[A.length - 1 - suffix].equals(KB[B.length - 1 - suffix])) { suffix++; }
+
+        for (int i = 0 ; i < prefix ; i++) { DIFF.match(A[i], B[i], i); }
+
+        final int N      = A.length - prefix - suffix;
+        final int M      = B.length - prefix - suffix;
+        byte[]    script = shortestEditScript(KA, prefix, N, KB, prefix, M);
+        if (null == script) {
+            // Too many differences, replacing the middle part is cheaper than searching further
+            script = new byte[N + M];
+            Arrays.fill(script, 0, N, DELETE);
+            Arrays.fill(script, N, N + M, INSERT);
+        }
+        int x = 0;
+        int y = 0;
+        for (byte step : script) {
+            switch(step) {
+                case MATCH : DIFF.match(A[prefix + x], B[prefix + y], prefix + y); x++; y++; break;
+                case DELETE: DIFF.remove(A[prefix + x], prefix + y); x++; break;
+                case INSERT: DIFF.insert(B[prefix + y], prefix + y); y++; break;
+            }
+        }
+
+        for (int i = 0 ; i < suffix ; i++) { DIFF.match(A[prefix + N + i], B[prefix + M + i], prefix + M + i); }
+
+        DIFF.countMoves();
+        return DIFF;
+    }
+
+    public List<Op> getOps() { return Collections.unmodifiableList(ops); }
+
+    public boolean isEmpty() { return ops.isEmpty(); }
+
+    public int getOldSize() { return oldSize; }
+
+    public int getNewSize() { return newSize; }
+
+    public int getNoOfRemoves() { return noOfRemoves; }
+
+    public int getNoOfInserts() { return noOfInserts; }
+
+    public int getNoOfUpdates() { return noOfUpdates; }
+
+    public int getNoOfMoves() { return noOfMoves; }
+
+    @Override public String toString() {
+        return "removes: " + noOfRemoves + ", inserts: " + noOfInserts + ", updates: " + noOfUpdates + ", moves: " + noOfMoves;
+    }
+
+    private void match(final IosEntryModel OLD_ITEM, final IosEntryModel NEW_ITEM, final int INDEX) {
+        if (OLD_ITEM == NEW_ITEM || OLD_ITEM.getVersion() == NEW_ITEM.getVersion()) { return; }
+        noOfUpdates++;
+        Op last = ops.isEmpty() ? null : ops.get(ops.size() - 1);
+        if (null != last && OpType.UPDATE == last.TYPE && last.INDEX + last.COUNT == INDEX) {
+            last.ITEMS.add(NEW_ITEM);
+            ops.set(ops.size() - 1, new Op(OpType.UPDATE, last.INDEX, last.COUNT + 1, last.ITEMS));
+        } else {
+            List<IosEntryModel> items = new ArrayList<>();
+            items.add(NEW_ITEM);
+            ops.add(new Op(OpType.UPDATE, INDEX, 1, items));
+        }
+    }
+
+    private void remove(final IosEntryModel OLD_ITEM, final int INDEX) {
+        noOfRemoves++;
+        removedKeys.merge(OLD_ITEM.getKey(), 1, Integer::sum);
+        Op last = ops.isEmpty() ? null : ops.get(ops.size() - 1);
+        if (null != last && OpType.REMOVE == last.TYPE && last.INDEX == INDEX) {
+            ops.set(ops.size() - 1, new Op(OpType.REMOVE, INDEX, last.COUNT + 1, null));
+        } else {
+            ops.add(new Op(OpType.REMOVE, INDEX, 1, null));
+        }
+    }
+
+    private void insert(final IosEntryModel NEW_ITEM, final int INDEX) {
+        noOfInserts++;
+        Op last = ops.isEmpty() ? null : ops.get(ops.size() - 1);
+        if (null != last && OpType.INSERT == last.TYPE && last.INDEX + last.COUNT == INDEX) {
+            last.ITEMS.add(NEW_ITEM);
+            ops.set(ops.size() - 1, new Op(OpType.INSERT, last.INDEX, last.COUNT + 1, last.ITEMS));
+        } else {
+            List<IosEntryModel> items = new ArrayList<>();
+            items.add(NEW_ITEM);
+            ops.add(new Op(OpType.INSERT, INDEX, 1, items));
+        }
+    }
+
+    private void countMoves() {
+        if (0 == noOfRemoves) { return; }
+        for (Op op : ops) {
+            if (OpType.INSERT != op.TYPE) { continue; }
+            for (IosEntryModel item : op.ITEMS) {
+                Integer count = removedKeys.get(item.getKey());
+                if (null == count) { continue; }
+                noOfMoves++;
+                if (count > 1) { removedKeys.put(item.getKey(), count - 1); } else { removedKeys.remove(item.getKey()); }
+            }
+        }
+        removedKeys.clear();
+    }
+
+    private static Object[] keys(final IosEntryModel[] MODELS) {
+        Object[] keys = new Object[MODELS.length];
+        for (int i = 0 ; i < MODELS.length ; i++) { keys[i] = MODELS[i].getKey(); }
+        return keys;
+    }
+
+    /**
+     * Returns the steps from (0, 0) to (N, M) or null if more than
+     * MAX_EDIT_DISTANCE removes and inserts would be needed.
+     */
+    private static byte[] shortestEditScript(final Object[] A, final int A_OFFSET, final int N, final Object[] B, final int B_OFFSET, final int M) {
+        final int   MAX_D  = Math.min(N + M, MAX_EDIT_DISTANCE);
+        final int   OFFSET = MAX_D + 1;
+        final int[] V      = new int[2 * MAX_D + 3];
+        List<int[]> trace  = new ArrayList<>();
+        int         d      = 0;
+        boolean     found  = false;
+
+        for ( ; d <= MAX_D && !found ; d++) {
+            // Only the diagonals -d..d of the previous round are needed for the backtracking
+            trace.add(Arrays.copyOfRange(V, OFFSET - d, OFFSET + d + 1));
+            for (int k = -d ; k <= d ; k += 2) {
+                int x = (k == -d || (k != d && V[OFFSET + k - 1] < V[OFFSET + k + 1])) ? V[OFFSET + k + 1] : V[OFFSET + k - 1] + 1;
+                int y = x - k;
+                while (x < N && y < M && A[A_OFFSET + x].equals(B[B_OFFSET + y])) { x++; y++; }
+                V[OFFSET + k] = x;
+                if (x >= N && y >= M) { found = true; break; }
+            }
+        }
+        if (!found) { return null; }
+
+        byte[] script = new byte[N + M];
+        int    length = 0;
+        int    x      = N;
+        int    y      = M;
+        for (d = trace.size() - 1 ; d > 0 ; d--) {
+            final int[] PREV    = trace.get(d);
+            final int   K       = x - y;
+            final int   PREV_K  = (K == -d || (K != d && PREV[K - 1 + d] < PREV[K + 1 + d])) ? K + 1 : K - 1;
+            final int   PREV_X  = PREV[PREV_K + d];
+            final int   PREV_Y  = PREV_X - PREV_K;
+            while (x > PREV_X && y > PREV_Y) { script[length++] = MATCH; x--; y--; }
+            script[length++] = PREV_K == K + 1 ? INSERT : DELETE;
+            x = PREV_X;
+            y = PREV_Y;
+        }
+        while (x > 0 && y > 0) { script[length++] = MATCH; x--; y--; }
+
+        byte[] forward = new byte[length];
+        for (int i = 0 ; i < length ; i++) { forward[i] = script[length - 1 - i]; }
+        return forward;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.iosmultibutton;
+
+import eu.hansolo.iosfx.iosmultibutton.IosMultiButton.Type;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Transform;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+
+/**
+ * Process-wide cache of rasterized IosMultiButton icons. An icon is
+ * rendered once by a node based button with the default stylesheet and
+ * shared by all buttons in RenderMode.IMAGE that show the same type, state,
+ * color and size at the same output scale. The least recently used icons
+ * are evicted when the cache is full.
+ * All methods have to be called on the FX application thread.
+ */
+public final class IosIconCache {
+    public  static final int                DEFAULT_MAX_ENTRIES = 256;
+    private static final Map<Key, Image>    CACHE               = new LinkedHashMap<Key, Image>(64, 0.75f, true) {
+        @Override protected boolean removeEldestEntry(final Map.Entry<Key, Image> ELDEST) { return size() > maxEntries; }
+    };
+    private static       int                maxEntries          = DEFAULT_MAX_ENTRIES;
+    private static       Group              root;
+    private static       SnapshotParameters parameters;
+
+
+    // ******************** Constructors **************************************
+    private IosIconCache() {}
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Returns the icon for the given parameters, the image has SIZE * SCALE
+     * pixels and should be shown with a fit size of SIZE.
+     */
+    public static Image get(final Type TYPE, final boolean SELECTED, final Color COLOR, final double SIZE, final double SCALE) {
+        final Key KEY   = new Key(TYPE, SELECTED, COLOR, SIZE, SCALE);
+        Image     image = CACHE.get(KEY);
+        if (null == image) {
+            image = render(KEY);
+            CACHE.put(KEY, image);
+        }
+        return image;
+    }
+
+    public static int getMaxEntries() { return maxEntries; }
+    public static void setMaxEntries(final int MAX_ENTRIES) {
+        maxEntries = Math.max(1, MAX_ENTRIES);
+        if (CACHE.size() <= maxEntries) { return; }
+        // Iteration order is the access order, the eldest come first
+        CACHE.keySet().removeIf(key -> CACHE.size() > maxEntries);
+    }
+
+    public static int size() { return CACHE.size(); }
+
+    public static void clear() { CACHE.clear(); }
+
+    private static Image render(final Key KEY) {
+        if (null == root) {
+            root = new Group();
+            new Scene(root, Color.TRANSPARENT);
+            parameters = new SnapshotParameters();
+            parameters.setFill(Color.TRANSPARENT);
+        }
+        // A fresh button per icon, buttons keep the pseudo classes of former types
+        final IosMultiButton BUTTON = new IosMultiButton();
+        BUTTON.setType(KEY.type);
+        BUTTON.setSelected(KEY.selected);
+        BUTTON.setSelectedColor(KEY.color);
+        BUTTON.resize(KEY.size, KEY.size);
+        root.getChildren().setAll(BUTTON);
+        BUTTON.applyCss();
+        BUTTON.layout();
+
+        parameters.setTransform(Transform.scale(KEY.scale, KEY.scale));
+        final Image IMAGE = BUTTON.snapshot(parameters, null);
+        root.getChildren().clear();
+        BUTTON.dispose();
+        return IMAGE;
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static final class Key {
+        private final Type    type;
+        private final boolean selected;
+        private final Color   color;
+        private final double  size;
+        private final double  scale;
+        private final int     hash;
+
+        Key(final Type TYPE, final boolean SELECTED, final Color COLOR, final double SIZE, final double SCALE) {
+            type     = TYPE;
+            selected = SELECTED;
+            color    = COLOR;
+            size     = SIZE;
+            scale    = SCALE;
+            hash     = Objects.hash(TYPE, SELECTED, COLOR, SIZE, SCALE);
+        }
+
+        @Override public boolean equals(final Object OBJ) {
+            if (this == OBJ) { return true; }
+            if (!(OBJ instanceof Key)) { return false; }
+            final Key KEY = (Key) OBJ;
+            return type == KEY.type && selected == KEY.selected && Objects.equals(color, KEY.color) &&
+                   Double.compare(size, KEY.size) == 0 && Double.compare(scale, KEY.scale) == 0;
+        }
+
+        @Override public int hashCode() { return hash; }
+    }
+}
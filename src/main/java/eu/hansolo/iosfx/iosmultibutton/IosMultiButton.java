@@ -16,19 +16,28 @@
 
 package eu.hansolo.iosfx.iosmultibutton;
 
+import eu.hansolo.iosfx.common.IosDarkMode;
+import eu.hansolo.iosfx.common.IosShowingHub;
+import eu.hansolo.iosfx.common.IosTheme;
+import eu.hansolo.iosfx.common.IosTheme.Role;
+import eu.hansolo.iosfx.events.AsyncDelivery;
 import eu.hansolo.iosfx.events.IosEvent;
+import eu.hansolo.iosfx.events.IosEventDispatcher;
 import eu.hansolo.iosfx.events.IosEventListener;
 import eu.hansolo.iosfx.events.IosEventType;
+import eu.hansolo.iosfx.events.ReferenceType;
+import eu.hansolo.iosfx.tools.Helper;
+import eu.hansolo.iosfx.tools.IosTimingWheel;
 import javafx.beans.DefaultProperty;
-import javafx.beans.binding.Bindings;
-import javafx.beans.binding.BooleanBinding;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.BooleanPropertyBase;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ObjectPropertyBase;
 import javafx.beans.property.Property;
-import javafx.beans.value.ChangeListener;
+import javafx.beans.property.ReadOnlyProperty;
 import javafx.collections.ObservableList;
 import javafx.css.CssMetaData;
 import javafx.css.PseudoClass;
@@ -39,26 +48,36 @@ import javafx.event.EventHandler;
 import javafx.geometry.Dimension2D;
 import javafx.geometry.Insets;
 import javafx.scene.Node;
+import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.layout.CornerRadii;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.Region;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 
 /**
  * User: hansolo
  * Date: 29.05.18
  * Time: 09:03
+ *
+ * In RenderMode.IMAGE the button shows a shared image from the
+ * IosIconCache in an ImageView instead of a circle and a css shaped icon.
+ * The images are rendered with the default stylesheet, only the selected
+ * color can be changed.
  */
 @DefaultProperty("children")
 public class IosMultiButton extends Region {
     public               enum                                     Type { CHECKBOX, ADD, DELETE, CHECK_MARK, DOT, SMALL_DOT, INFO, PLUS, FORWARD }
+    public               enum                                     RenderMode { NODES, IMAGE }
     public  static final Color                                    DEFAULT_SELECTED_COLOR  = Color.rgb(0, 122, 255);
     private static final double                                   PREFERRED_WIDTH         = 22;
     private static final double                                   PREFERRED_HEIGHT        = 22;
@@ -71,6 +90,7 @@ public class IosMultiButton extends Region {
     private        final IosEvent                                 DESELECTED_EVT          = new IosEvent(IosMultiButton.this, IosEventType.DESELECTED);
     private        final IosEvent                                 PRESSED_EVT             = new IosEvent(IosMultiButton.this, IosEventType.PRESSED);
     private        final IosEvent                                 RELEASED_EVT            = new IosEvent(IosMultiButton.this, IosEventType.RELEASED);
+    private        final IosEvent                                 LONG_PRESSED_EVT        = new IosEvent(IosMultiButton.this, IosEventType.LONG_PRESSED);
     private static final PseudoClass                              CHECKBOX_PSEUDO_CLASS   = PseudoClass.getPseudoClass("checkbox");
     private static final PseudoClass                              ADD_PSEUDO_CLASS        = PseudoClass.getPseudoClass("add");
     private static final PseudoClass                              DELETE_PSEUDO_CLASS     = PseudoClass.getPseudoClass("delete");
@@ -81,50 +101,52 @@ public class IosMultiButton extends Region {
     private static final PseudoClass                              PLUS_PSEUDO_CLASS       = PseudoClass.getPseudoClass("plus");
     private static final PseudoClass                              FORWARD_PSEUDO_CLASS    = PseudoClass.getPseudoClass("forward");
     private static final PseudoClass                              SELECTED_PSEUDO_CLASS   = PseudoClass.getPseudoClass("selected");
+    // Shared by all buttons, they find their button in the event or the property
+    private static final EventHandler<MouseEvent>                 PRESSED_HANDLER         = e -> ((IosMultiButton) e.getSource()).press();
+    private static final EventHandler<MouseEvent>                 RELEASED_HANDLER        = e -> ((IosMultiButton) e.getSource()).release();
+    private static final InvalidationListener                     RESIZE_LISTENER         = o -> beanOf(o).resize();
+    private static final InvalidationListener                     SCENE_LISTENER          = o -> beanOf(o).applySceneDark();
+    private static final InvalidationListener                     COLOR_LISTENER          = o -> beanOf(o).applySelectedColor();
+    private static       String                                   userAgentStyleSheet;
     private        final StyleableProperty<Color>                 selectedColor;
     private              double                                   size;
     private              double                                   width;
     private              double                                   height;
     private              Circle                                   circle;
     private              Region                                   icon;
+    private              Background                               accentBackground;
     private              Pane                                     pane;
+    private              ImageView                                imageView;
+    private              RenderMode                               _renderMode;
+    private              ObjectProperty<RenderMode>               renderMode;
     private              Type                                     _type;
     private              ObjectProperty<Type>                     type;
     private              boolean                                  _selected;
     private              BooleanProperty                          selected;
-    private              List<IosEventListener>                   listeners;
-    private              BooleanBinding                           showing;
-    private              ChangeListener<Boolean>                  showingListener;
-    private              EventHandler<MouseEvent>                 pressedHandler;
-    private              EventHandler<MouseEvent>                 releasedHandler;
+    private              IosEventDispatcher                       dispatcher;
+    private              IosTimingWheel.Timeout                   longPressTimeout;
     private              HashMap<String, Property>                settings;
 
 
     // ******************** Constructors **************************************
     public IosMultiButton() {
-        this(new HashMap<>());
+        this(Collections.emptyMap());
     }
     public IosMultiButton(final Map<String, Property> SETTINGS) {
-        _type           = Type.CHECKBOX;
-        _selected       = false;
-        selectedColor   = FACTORY.createStyleableColorProperty(IosMultiButton.this, "selectedColor", "-selected-color", s -> s.selectedColor, DEFAULT_SELECTED_COLOR);
-        listeners       = new CopyOnWriteArrayList<>();
-        showingListener =  (o, ov, nv) -> { if (nv) { applySettings(); } };
-        pressedHandler  = e -> {
-            fireIosEvent(PRESSED_EVT);
-            if (Type.CHECKBOX == getType() && !isDisabled()) { setSelected(!isSelected()); }
-        };
-        releasedHandler = e -> fireIosEvent(RELEASED_EVT);
-        settings        = new HashMap<>(SETTINGS);
-
-        initGraphics();
+        _type            = Type.CHECKBOX;
+        _selected        = false;
+        _renderMode      = RenderMode.NODES;
+        selectedColor    = FACTORY.createStyleableColorProperty(IosMultiButton.this, "selectedColor", "-selected-color", s -> s.selectedColor, DEFAULT_SELECTED_COLOR);
+        settings         = SETTINGS.isEmpty() ? null : new HashMap<>(SETTINGS);
+
+        initSize();
         registerListeners();
         applySettings();
     }
 
 
     // ******************** Initialization ************************************
-    private void initGraphics() {
+    private void initSize() {
         if (Double.compare(getPrefWidth(), 0.0) <= 0 || Double.compare(getPrefHeight(), 0.0) <= 0 || Double.compare(getWidth(), 0.0) <= 0 ||
             Double.compare(getHeight(), 0.0) <= 0) {
             if (getPrefWidth() > 0 && getPrefHeight() > 0) {
@@ -135,6 +157,20 @@ public class IosMultiButton extends Region {
         }
 
         getStyleClass().add("ios-multi-button");
+    }
+
+    /**
+     * Creates the nodes on the first layout, buttons that are never shown
+     * never build their scene graph.
+     */
+    private void initGraphics() {
+        if (RenderMode.IMAGE == getRenderMode()) {
+            imageView = new ImageView();
+            imageView.setMouseTransparent(true);
+            imageView.setSmooth(true);
+            getChildren().setAll(imageView);
+            return;
+        }
 
         circle = new Circle(PREFERRED_HEIGHT * 0.5);
         circle.getStyleClass().add("circle");
@@ -142,42 +178,52 @@ public class IosMultiButton extends Region {
         icon = new Region();
         icon.getStyleClass().setAll("icon");
         icon.setMouseTransparent(true);
-
         pane = new Pane(circle, icon);
 
+        updateAccentColor();
+
         getChildren().setAll(pane);
     }
 
     private void registerListeners() {
-        widthProperty().addListener(o -> resize());
-        heightProperty().addListener(o -> resize());
-        addEventHandler(MouseEvent.MOUSE_PRESSED, pressedHandler);
-        addEventHandler(MouseEvent.MOUSE_RELEASED, releasedHandler);
-        selectedColorProperty().addListener(o -> icon.setStyle(String.join("", "-selected-color: ", (getSelectedColor()).toString().replace("0x", "#"))));
-        if (null != getScene()) {
-            setupBinding();
-        } else {
-            sceneProperty().addListener((o1, ov1, nv1) -> {
-                if (null == nv1) { return; }
-                if (null != getScene().getWindow()) {
-                    setupBinding();
-                } else {
-                    sceneProperty().get().windowProperty().addListener((o2, ov2, nv2) -> {
-                        if (null == nv2) { return; }
-                        setupBinding();
-                    });
-                }
-            });
+        widthProperty().addListener(RESIZE_LISTENER);
+        heightProperty().addListener(RESIZE_LISTENER);
+        addEventHandler(MouseEvent.MOUSE_PRESSED, PRESSED_HANDLER);
+        addEventHandler(MouseEvent.MOUSE_RELEASED, RELEASED_HANDLER);
+        IosTheme.register(IosMultiButton.this, IosMultiButton::applyTheme);
+        IosDarkMode.register(IosMultiButton.this, IosMultiButton::applySceneDark);
+        sceneProperty().addListener(SCENE_LISTENER);
+        selectedColorProperty().addListener(COLOR_LISTENER);
+    }
+
+    private static IosMultiButton beanOf(final Observable OBSERVABLE) { return (IosMultiButton) ((ReadOnlyProperty<?>) OBSERVABLE).getBean(); }
+
+    /**
+     * The long press timeout is created on the first press.
+     */
+    private void press() {
+        fireIosEvent(PRESSED_EVT);
+        if (Type.CHECKBOX == getType() && !isDisabled()) { setSelected(!isSelected()); }
+        if (null == longPressTimeout) {
+            longPressTimeout = new IosTimingWheel.Timeout() {
+                @Override protected void expired() { fireIosEvent(LONG_PRESSED_EVT); }
+            };
         }
+        IosTimingWheel.schedule(longPressTimeout, IosTimingWheel.LONG_PRESS_DELAY);
+    }
+
+    private void release() {
+        IosTimingWheel.cancel(longPressTimeout);
+        fireIosEvent(RELEASED_EVT);
     }
 
-    private void setupBinding() {
-        showing = Bindings.selectBoolean(sceneProperty(), "window", "showing");
-        showing.addListener(showingListener);
+    private void applySelectedColor() {
+        updateAccentColor();
+        updateImage();
     }
 
     private void applySettings() {
-        if (settings.isEmpty()) { return; }
+        if (null == settings || settings.isEmpty()) { return; }
         for (String key : settings.keySet()) {
             if ("prefSize".equals(key)) {
                 Dimension2D dim = ((ObjectProperty<Dimension2D>) settings.get(key)).get();
@@ -219,24 +265,33 @@ public class IosMultiButton extends Region {
                 setSelectedColor(((ObjectProperty<Color>) settings.get(key)).get());
             } else if("type".equals(key)) {
                 setType(((ObjectProperty<Type>) settings.get(key)).get());
+            } else if ("renderMode".equals(key)) {
+                setRenderMode(((ObjectProperty<RenderMode>) settings.get(key)).get());
             }
         }
 
         if (settings.containsKey("selected")) { setSelected(((BooleanProperty) settings.get("selected")).get()); }
 
         settings.clear();
-        if (null == showing) { return; }
-        showing.removeListener(showingListener);
     }
 
     public void dispose() {
-        removeEventHandler(MouseEvent.MOUSE_RELEASED, releasedHandler);
-        removeEventHandler(MouseEvent.MOUSE_PRESSED, pressedHandler);
+        IosTimingWheel.cancel(longPressTimeout);
+        removeEventHandler(MouseEvent.MOUSE_RELEASED, RELEASED_HANDLER);
+        removeEventHandler(MouseEvent.MOUSE_PRESSED, PRESSED_HANDLER);
     }
 
 
     // ******************** Methods *******************************************
     @Override public void layoutChildren() {
+        if (!isBuilt()) {
+            // Settings that were added after construction wait for the window
+            if (null != settings && !settings.isEmpty()) { IosShowingHub.whenShown(IosMultiButton.this, IosMultiButton::applySettings); }
+            initGraphics();
+            // Nodes added during layout would miss the css pass of this pulse
+            if (null != pane && null != getScene()) { pane.applyCss(); }
+            resize();
+        }
         super.layoutChildren();
     }
 
@@ -255,6 +310,8 @@ public class IosMultiButton extends Region {
             fireIosEvent(SELECTED ? SELECTED_EVT : DESELECTED_EVT);
             _selected = SELECTED;
             pseudoClassStateChanged(SELECTED_PSEUDO_CLASS, SELECTED);
+            updateAccentColor();
+            updateImage();
         } else {
             selected.set(SELECTED);
         }
@@ -265,6 +322,8 @@ public class IosMultiButton extends Region {
                 @Override protected void invalidated() {
                     fireIosEvent(get() ? SELECTED_EVT : DESELECTED_EVT);
                     pseudoClassStateChanged(SELECTED_PSEUDO_CLASS, get());
+                    updateAccentColor();
+                    updateImage();
                 }
                 @Override public Object getBean() { return IosMultiButton.this; }
                 @Override public String getName() { return "selected"; }
@@ -298,42 +357,158 @@ public class IosMultiButton extends Region {
         return type;
     }
 
-    protected HashMap<String, Property> getSettings() { return settings; }
+    public RenderMode getRenderMode() { return null == renderMode ? _renderMode : renderMode.get(); }
+    public void setRenderMode(final RenderMode MODE) {
+        if (null == renderMode) {
+            if (MODE == _renderMode) { return; }
+            _renderMode = null == MODE ? RenderMode.NODES : MODE;
+            rebuild();
+        } else {
+            renderMode.set(MODE);
+        }
+    }
+    public ObjectProperty<RenderMode> renderModeProperty() {
+        if (null == renderMode) {
+            renderMode = new ObjectPropertyBase<RenderMode>(_renderMode) {
+                @Override protected void invalidated() {
+                    if (null == get()) { set(RenderMode.NODES); }
+                    rebuild();
+                }
+                @Override public Object getBean() { return IosMultiButton.this; }
+                @Override public String getName() { return "renderMode"; }
+            };
+        }
+        return renderMode;
+    }
+
+    /**
+     * Returns a factory for many buttons with the settings of the given builder.
+     */
+    public static IosMultiButtonFactory factory(final IosMultiButtonBuilder<?> SPEC) { return SPEC.factory(); }
 
-    private void adjustStyle() {
+    protected HashMap<String, Property> getSettings() {
+        if (null == settings) { settings = new HashMap<>(); }
+        return settings;
+    }
+
+    private boolean isBuilt() { return null != pane || null != imageView; }
+
+    /**
+     * Drops the current graphics, the next layout builds them for the
+     * current render mode.
+     */
+    private void rebuild() {
+        if (!isBuilt()) { return; }
+        getChildren().clear();
+        pane      = null;
+        circle    = null;
+        icon      = null;
+        imageView = null;
+        requestLayout();
+    }
+
+    private void updateImage() {
+        if (null == imageView || size <= 0) { return; }
+        imageView.setImage(IosIconCache.get(getType(), isSelected(), getAccentColor(), size, Helper.getOutputScale(IosMultiButton.this)));
+        imageView.setFitWidth(size);
+        imageView.setFitHeight(size);
+    }
+
+    private Color getAccentColor() { return IosTheme.getCurrent().getColor(Role.ACCENT, getSelectedColor()); }
+
+    /**
+     * Called once per theme switch.
+     */
+    private void applyTheme() {
+        updateAccentColor();
+        updateImage();
+    }
+
+    private void applySceneDark() { pseudoClassStateChanged(IosDarkMode.DARK_PSEUDO_CLASS, IosDarkMode.isDark(getScene())); }
+
+    /**
+     * Sets the accent color on the parts of the current type that show it,
+     * no inline style has to be parsed on a theme switch.
+     */
+    private void updateAccentColor() {
+        if (null == icon) { return; }
+        final Color ACCENT = getAccentColor();
+        if (null == accentBackground || !ACCENT.equals(accentBackground.getFills().get(0).getFill())) {
+            accentBackground = new Background(new BackgroundFill(ACCENT, CornerRadii.EMPTY, Insets.EMPTY));
+        }
         switch(getType()) {
-            case ADD       : pseudoClassStateChanged(ADD_PSEUDO_CLASS, true); break;
-            case DELETE    : pseudoClassStateChanged(DELETE_PSEUDO_CLASS, true); break;
-            case CHECK_MARK: pseudoClassStateChanged(CHECK_MARK_PSEUDO_CLASS, true); break;
-            case DOT       : pseudoClassStateChanged(DOT_PSEUDO_CLASS, true); break;
-            case SMALL_DOT : pseudoClassStateChanged(SMALL_DOT_PSEUDO_CLASS, true); break;
-            case INFO      : pseudoClassStateChanged(INFO_PSEUDO_CLASS, true); break;
-            case PLUS      : pseudoClassStateChanged(PLUS_PSEUDO_CLASS, true); break;
-            case FORWARD   : pseudoClassStateChanged(FORWARD_PSEUDO_CLASS, true); break;
-            case CHECKBOX  :
-            default:
-                pseudoClassStateChanged(CHECKBOX_PSEUDO_CLASS, true);
-                pseudoClassStateChanged(SELECTED_PSEUDO_CLASS, isSelected());
-                break;
+            case CHECKBOX  : circle.setFill(isSelected() ? ACCENT : Color.TRANSPARENT); break;
+            case CHECK_MARK: icon.setBackground(isSelected() ? accentBackground : Background.EMPTY); break;
+            case DOT       :
+            case SMALL_DOT :
+            case INFO      :
+            case PLUS      :
+            case FORWARD   : icon.setBackground(accentBackground); break;
+            default        : break;
         }
     }
 
+    private void adjustStyle() {
+        final Type TYPE = getType();
+        pseudoClassStateChanged(ADD_PSEUDO_CLASS, Type.ADD == TYPE);
+        pseudoClassStateChanged(DELETE_PSEUDO_CLASS, Type.DELETE == TYPE);
+        pseudoClassStateChanged(CHECK_MARK_PSEUDO_CLASS, Type.CHECK_MARK == TYPE);
+        pseudoClassStateChanged(DOT_PSEUDO_CLASS, Type.DOT == TYPE);
+        pseudoClassStateChanged(SMALL_DOT_PSEUDO_CLASS, Type.SMALL_DOT == TYPE);
+        pseudoClassStateChanged(INFO_PSEUDO_CLASS, Type.INFO == TYPE);
+        pseudoClassStateChanged(PLUS_PSEUDO_CLASS, Type.PLUS == TYPE);
+        pseudoClassStateChanged(FORWARD_PSEUDO_CLASS, Type.FORWARD == TYPE);
+        pseudoClassStateChanged(CHECKBOX_PSEUDO_CLASS, Type.CHECKBOX == TYPE || null == TYPE);
+        pseudoClassStateChanged(SELECTED_PSEUDO_CLASS, isSelected());
+        // Fresh nodes, the accent color of the former type must not stick
+        rebuild();
+    }
+
 
     // ******************** Event Handling ************************************
-    public void addOnIosEvent(final IosEventListener LISTENER) { if (!listeners.contains(LISTENER)) { listeners.add(LISTENER); } }
-    public void removeOnIosEvent(final IosEventListener LISTENER) { if (listeners.contains(LISTENER)) { listeners.remove(LISTENER); } }
+    public void addOnIosEvent(final IosEventListener LISTENER) { addOnIosEvent(LISTENER, ReferenceType.STRONG); }
+    public void addOnIosEvent(final IosEventListener LISTENER, final ReferenceType TYPE) { getDispatcher().add(LISTENER, TYPE); }
+    public void addOnIosEvent(final IosEventType EVENT_TYPE, final IosEventListener LISTENER) { addOnIosEvent(EVENT_TYPE, LISTENER, ReferenceType.STRONG); }
+    public void addOnIosEvent(final IosEventType EVENT_TYPE, final IosEventListener LISTENER, final ReferenceType TYPE) { getDispatcher().add(EVENT_TYPE, LISTENER, TYPE); }
+    /**
+     * The listener gets its events on the executor of the given delivery
+     * instead of the FX application thread.
+     */
+    public void addOnIosEvent(final IosEventListener LISTENER, final AsyncDelivery DELIVERY) { getDispatcher().add(LISTENER, ReferenceType.STRONG, DELIVERY); }
+    public void addOnIosEvent(final IosEventType EVENT_TYPE, final IosEventListener LISTENER, final AsyncDelivery DELIVERY) { getDispatcher().add(EVENT_TYPE, LISTENER, ReferenceType.STRONG, DELIVERY); }
+    public void removeOnIosEvent(final IosEventListener LISTENER) {
+        if (null == dispatcher) { return; }
+        dispatcher.remove(LISTENER);
+    }
+
+    /**
+     * Buttons nobody listens to never create a dispatcher.
+     */
+    private IosEventDispatcher getDispatcher() {
+        if (null == dispatcher) { dispatcher = new IosEventDispatcher(); }
+        return dispatcher;
+    }
 
     private void fireIosEvent(final IosEvent EVENT) {
-        listeners.forEach(listener -> listener.onIosEvent(EVENT));
+        if (null == dispatcher) { return; }
+        dispatcher.fire(EVENT);
     }
 
 
     // ******************** Resizing ******************************************
     private void resize() {
+        if (!isBuilt()) { return; }
         width  = getWidth() - getInsets().getLeft() - getInsets().getRight();
         height = getHeight() - getInsets().getTop() - getInsets().getBottom();
         size   = width < height ? width : height;
 
+        if (null != imageView) {
+            if (width <= 0 || height <= 0) { return; }
+            updateImage();
+            imageView.relocate((getWidth() - size) * 0.5, (getHeight() - size) * 0.5);
+            return;
+        }
+
         if (width > 0 && height > 0) {
             pane.setMaxSize(size, size);
             pane.setPrefSize(size, size);
@@ -349,7 +524,8 @@ public class IosMultiButton extends Region {
 
     // ******************** Style related *************************************
     @Override public String getUserAgentStylesheet() {
-        return IosMultiButton.class.getResource("ios-multibutton.css").toExternalForm();
+        if (null == userAgentStyleSheet) { userAgentStyleSheet = IosMultiButton.class.getResource("ios-multibutton.css").toExternalForm(); }
+        return userAgentStyleSheet;
     }
 
     public static List<CssMetaData<? extends Styleable, ?>> getClassCssMetaData() { return FACTORY.getCssMetaData(); }
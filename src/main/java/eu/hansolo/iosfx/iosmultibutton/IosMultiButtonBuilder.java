@@ -16,19 +16,50 @@
 
 package eu.hansolo.iosfx.iosmultibutton;
 
-import javafx.beans.property.Property;
-import javafx.beans.property.SimpleBooleanProperty;
-import javafx.beans.property.SimpleDoubleProperty;
-import javafx.beans.property.SimpleObjectProperty;
-import javafx.geometry.Dimension2D;
 import javafx.geometry.Insets;
 import javafx.scene.paint.Color;
 
-import java.util.HashMap;
-
 
+/**
+ * Keeps the values in typed fields and a bit per value that was set,
+ * build() calls the setters of the button directly.
+ */
 public class IosMultiButtonBuilder<B extends IosMultiButtonBuilder<B>> {
-    private HashMap<String, Property> properties = new HashMap<>();
+    private static final int SET_SELECTED       = 1 << 0;
+    private static final int SET_SELECTED_COLOR = 1 << 1;
+    private static final int SET_TYPE           = 1 << 2;
+    private static final int SET_RENDER_MODE    = 1 << 3;
+    private static final int SET_PREF_WIDTH     = 1 << 4;
+    private static final int SET_PREF_HEIGHT    = 1 << 5;
+    private static final int SET_MIN_WIDTH      = 1 << 6;
+    private static final int SET_MIN_HEIGHT     = 1 << 7;
+    private static final int SET_MAX_WIDTH      = 1 << 8;
+    private static final int SET_MAX_HEIGHT     = 1 << 9;
+    private static final int SET_SCALE_X        = 1 << 10;
+    private static final int SET_SCALE_Y        = 1 << 11;
+    private static final int SET_LAYOUT_X       = 1 << 12;
+    private static final int SET_LAYOUT_Y       = 1 << 13;
+    private static final int SET_TRANSLATE_X    = 1 << 14;
+    private static final int SET_TRANSLATE_Y    = 1 << 15;
+    private static final int SET_PADDING        = 1 << 16;
+    private              int                       set;
+    private              boolean                   selected;
+    private              Color                     selectedColor;
+    private              IosMultiButton.Type       type;
+    private              IosMultiButton.RenderMode renderMode;
+    private              double                    prefWidth;
+    private              double                    prefHeight;
+    private              double                    minWidth;
+    private              double                    minHeight;
+    private              double                    maxWidth;
+    private              double                    maxHeight;
+    private              double                    scaleX;
+    private              double                    scaleY;
+    private              double                    layoutX;
+    private              double                    layoutY;
+    private              double                    translateX;
+    private              double                    translateY;
+    private              Insets                    padding;
 
 
     // ******************** Constructors **************************************
@@ -41,98 +72,180 @@ public class IosMultiButtonBuilder<B extends IosMultiButtonBuilder<B>> {
     }
 
     public final B selected(final boolean SELECTED) {
-        properties.put("selected", new SimpleBooleanProperty(SELECTED));
-        return (B)this;
+        selected = SELECTED;
+        set     |= SET_SELECTED;
+        return (B) this;
     }
 
     public final B selectedColor(final Color COLOR) {
-        properties.put("selectedColor", new SimpleObjectProperty<>(COLOR));
-        return (B)this;
+        selectedColor = COLOR;
+        set          |= SET_SELECTED_COLOR;
+        return (B) this;
     }
 
     public final B type(final IosMultiButton.Type TYPE) {
-        properties.put("type", new SimpleObjectProperty(TYPE));
-        return (B)this;
+        type = TYPE;
+        set |= SET_TYPE;
+        return (B) this;
+    }
+
+    public final B renderMode(final IosMultiButton.RenderMode MODE) {
+        renderMode = MODE;
+        set       |= SET_RENDER_MODE;
+        return (B) this;
     }
 
 
     // General properties
     public final B prefSize(final double WIDTH, final double HEIGHT) {
-        properties.put("prefSize", new SimpleObjectProperty<>(new Dimension2D(WIDTH, HEIGHT)));
+        prefWidth  = WIDTH;
+        prefHeight = HEIGHT;
+        set       |= SET_PREF_WIDTH | SET_PREF_HEIGHT;
         return (B) this;
     }
     public final B minSize(final double WIDTH, final double HEIGHT) {
-        properties.put("minSize", new SimpleObjectProperty<>(new Dimension2D(WIDTH, HEIGHT)));
+        minWidth  = WIDTH;
+        minHeight = HEIGHT;
+        set      |= SET_MIN_WIDTH | SET_MIN_HEIGHT;
         return (B) this;
     }
     public final B maxSize(final double WIDTH, final double HEIGHT) {
-        properties.put("maxSize", new SimpleObjectProperty<>(new Dimension2D(WIDTH, HEIGHT)));
+        maxWidth  = WIDTH;
+        maxHeight = HEIGHT;
+        set      |= SET_MAX_WIDTH | SET_MAX_HEIGHT;
         return (B) this;
     }
 
     public final B prefWidth(final double PREF_WIDTH) {
-        properties.put("prefWidth", new SimpleDoubleProperty(PREF_WIDTH));
+        prefWidth = PREF_WIDTH;
+        set      |= SET_PREF_WIDTH;
         return (B) this;
     }
     public final B prefHeight(final double PREF_HEIGHT) {
-        properties.put("prefHeight", new SimpleDoubleProperty(PREF_HEIGHT));
+        prefHeight = PREF_HEIGHT;
+        set       |= SET_PREF_HEIGHT;
         return (B) this;
     }
 
     public final B minWidth(final double MIN_WIDTH) {
-        properties.put("minWidth", new SimpleDoubleProperty(MIN_WIDTH));
+        minWidth = MIN_WIDTH;
+        set     |= SET_MIN_WIDTH;
         return (B) this;
     }
     public final B minHeight(final double MIN_HEIGHT) {
-        properties.put("minHeight", new SimpleDoubleProperty(MIN_HEIGHT));
+        minHeight = MIN_HEIGHT;
+        set      |= SET_MIN_HEIGHT;
         return (B) this;
     }
 
     public final B maxWidth(final double MAX_WIDTH) {
-        properties.put("maxWidth", new SimpleDoubleProperty(MAX_WIDTH));
+        maxWidth = MAX_WIDTH;
+        set     |= SET_MAX_WIDTH;
         return (B) this;
     }
     public final B maxHeight(final double MAX_HEIGHT) {
-        properties.put("maxHeight", new SimpleDoubleProperty(MAX_HEIGHT));
+        maxHeight = MAX_HEIGHT;
+        set      |= SET_MAX_HEIGHT;
         return (B) this;
     }
 
     public final B scaleX(final double SCALE_X) {
-        properties.put("scaleX", new SimpleDoubleProperty(SCALE_X));
+        scaleX = SCALE_X;
+        set   |= SET_SCALE_X;
         return (B) this;
     }
     public final B scaleY(final double SCALE_Y) {
-        properties.put("scaleY", new SimpleDoubleProperty(SCALE_Y));
+        scaleY = SCALE_Y;
+        set   |= SET_SCALE_Y;
         return (B) this;
     }
 
     public final B layoutX(final double LAYOUT_X) {
-        properties.put("layoutX", new SimpleDoubleProperty(LAYOUT_X));
+        layoutX = LAYOUT_X;
+        set    |= SET_LAYOUT_X;
         return (B) this;
     }
     public final B layoutY(final double LAYOUT_Y) {
-        properties.put("layoutY", new SimpleDoubleProperty(LAYOUT_Y));
+        layoutY = LAYOUT_Y;
+        set    |= SET_LAYOUT_Y;
         return (B) this;
     }
 
     public final B translateX(final double TRANSLATE_X) {
-        properties.put("translateX", new SimpleDoubleProperty(TRANSLATE_X));
+        translateX = TRANSLATE_X;
+        set       |= SET_TRANSLATE_X;
         return (B) this;
     }
     public final B translateY(final double TRANSLATE_Y) {
-        properties.put("translateY", new SimpleDoubleProperty(TRANSLATE_Y));
+        translateY = TRANSLATE_Y;
+        set       |= SET_TRANSLATE_Y;
         return (B) this;
     }
 
     public final B padding(final Insets INSETS) {
-        properties.put("padding", new SimpleObjectProperty<>(INSETS));
+        padding = INSETS;
+        set    |= SET_PADDING;
         return (B) this;
     }
 
 
     public final IosMultiButton build() {
-        final IosMultiButton CONTROL = new IosMultiButton(properties);
-        properties.clear();
+        final IosMultiButton CONTROL = new IosMultiButton();
+        apply(CONTROL);
+        set = 0;
         return CONTROL;
     }
+
+    /**
+     * Returns a factory that creates any number of controls from the
+     * current values of this builder.
+     */
+    public final IosMultiButtonFactory factory() { return new IosMultiButtonFactory(copy()); }
+
+    /**
+     * Sets the collected values directly.
+     */
+    final void apply(final IosMultiButton CONTROL) {
+        if (0 != (set & SET_PREF_WIDTH)) { CONTROL.setPrefWidth(prefWidth); }
+        if (0 != (set & SET_PREF_HEIGHT)) { CONTROL.setPrefHeight(prefHeight); }
+        if (0 != (set & SET_MIN_WIDTH)) { CONTROL.setMinWidth(minWidth); }
+        if (0 != (set & SET_MIN_HEIGHT)) { CONTROL.setMinHeight(minHeight); }
+        if (0 != (set & SET_MAX_WIDTH)) { CONTROL.setMaxWidth(maxWidth); }
+        if (0 != (set & SET_MAX_HEIGHT)) { CONTROL.setMaxHeight(maxHeight); }
+        if (0 != (set & SET_SCALE_X)) { CONTROL.setScaleX(scaleX); }
+        if (0 != (set & SET_SCALE_Y)) { CONTROL.setScaleY(scaleY); }
+        if (0 != (set & SET_LAYOUT_X)) { CONTROL.setLayoutX(layoutX); }
+        if (0 != (set & SET_LAYOUT_Y)) { CONTROL.setLayoutY(layoutY); }
+        if (0 != (set & SET_TRANSLATE_X)) { CONTROL.setTranslateX(translateX); }
+        if (0 != (set & SET_TRANSLATE_Y)) { CONTROL.setTranslateY(translateY); }
+        if (0 != (set & SET_PADDING)) { CONTROL.setPadding(padding); }
+        if (0 != (set & SET_SELECTED_COLOR)) { CONTROL.setSelectedColor(selectedColor); }
+        if (0 != (set & SET_TYPE)) { CONTROL.setType(type); }
+        if (0 != (set & SET_RENDER_MODE)) { CONTROL.setRenderMode(renderMode); }
+        // Selected comes last like in the settings map, it fires an event
+        if (0 != (set & SET_SELECTED)) { CONTROL.setSelected(selected); }
+    }
+
+    private IosMultiButtonBuilder<?> copy() {
+        final IosMultiButtonBuilder<?> COPY = new IosMultiButtonBuilder<>();
+        COPY.set           = set;
+        COPY.selected      = selected;
+        COPY.selectedColor = selectedColor;
+        COPY.type          = type;
+        COPY.renderMode    = renderMode;
+        COPY.prefWidth     = prefWidth;
+        COPY.prefHeight    = prefHeight;
+        COPY.minWidth      = minWidth;
+        COPY.minHeight     = minHeight;
+        COPY.maxWidth      = maxWidth;
+        COPY.maxHeight     = maxHeight;
+        COPY.scaleX        = scaleX;
+        COPY.scaleY        = scaleY;
+        COPY.layoutX       = layoutX;
+        COPY.layoutY       = layoutY;
+        COPY.translateX    = translateX;
+        COPY.translateY    = translateY;
+        COPY.padding       = padding;
+        return COPY;
+    }
 }
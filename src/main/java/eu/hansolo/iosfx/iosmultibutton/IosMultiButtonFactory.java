@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.iosmultibutton;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Creates any number of buttons with the settings of the builder it was
+ * taken from. The settings are resolved once and set directly on every
+ * new instance, later changes of the builder do not affect the factory.
+ */
+public class IosMultiButtonFactory {
+    private final IosMultiButtonBuilder<?> SPEC;
+
+
+    // ******************** Constructors **************************************
+    IosMultiButtonFactory(final IosMultiButtonBuilder<?> SPEC) {
+        this.SPEC = SPEC;
+    }
+
+
+    // ******************** Methods *******************************************
+    public IosMultiButton create() {
+        final IosMultiButton CONTROL = new IosMultiButton();
+        SPEC.apply(CONTROL);
+        return CONTROL;
+    }
+
+    public List<IosMultiButton> create(final int NUMBER) {
+        final List<IosMultiButton> CONTROLS = new ArrayList<>(NUMBER);
+        for (int i = 0 ; i < NUMBER ; i++) { CONTROLS.add(create()); }
+        return CONTROLS;
+    }
+}
@@ -16,11 +16,21 @@
 
 package eu.hansolo.iosfx.iosplusminusbutton;
 
+import eu.hansolo.iosfx.common.IosDarkMode;
+import eu.hansolo.iosfx.events.AsyncDelivery;
 import eu.hansolo.iosfx.events.IosEvent;
+import eu.hansolo.iosfx.events.IosEventDispatcher;
 import eu.hansolo.iosfx.events.IosEventListener;
 import eu.hansolo.iosfx.events.IosEventType;
+import eu.hansolo.iosfx.events.IosStepEvent;
+import eu.hansolo.iosfx.events.ReferenceType;
 import eu.hansolo.iosfx.iossegmentedbuttonbar.IosSegmentedButtonBar;
+import eu.hansolo.iosfx.tools.Helper;
+import eu.hansolo.iosfx.tools.IosAnimator;
+import eu.hansolo.iosfx.tools.IosTimingWheel;
 import javafx.beans.DefaultProperty;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.DoublePropertyBase;
 import javafx.collections.ObservableList;
 import javafx.event.EventHandler;
 import javafx.event.EventType;
@@ -33,14 +43,15 @@ import javafx.scene.layout.Region;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.shape.Shape;
 
-import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
-
 
 /**
  * User: hansolo
  * Date: 06.06.18
  * Time: 13:55
+ *
+ * Holding a button repeats its step, the repeats get faster and after a
+ * while take several steps at once. All steps of a pulse are delivered as
+ * one IosStepEvent.
  */
 @DefaultProperty("children")
 public class IosPlusMinusButton extends Region {
@@ -50,44 +61,74 @@ public class IosPlusMinusButton extends Region {
     private static final double                   MINIMUM_HEIGHT   = 50;
     private static final double                   MAXIMUM_WIDTH    = 1024;
     private static final double                   MAXIMUM_HEIGHT   = 1024;
+    public  static final double                   REPEAT_DELAY     = 400;
+    public  static final double                   MAX_REPEAT_RATE  = 150;
+    public  static final double                   MIN_REPEAT_RATE  = 25;
+    private static final double                   ACCELERATION     = 0.85;
     private static       double                   aspectRatio;
-    private        final IosEvent                 INCREASE_EVT     = new IosEvent(IosPlusMinusButton.this, IosEventType.INCREASE);
-    private        final IosEvent                 DECREASE_EVT     = new IosEvent(IosPlusMinusButton.this, IosEventType.DECREASE);
+    private        final IosEvent                 LONG_PRESSED_EVT = new IosEvent(IosPlusMinusButton.this, IosEventType.LONG_PRESSED);
     private              double                   width;
     private              double                   height;
     private              Pane                     pane;
     private              Button                   minus;
     private              Button                   plus;
     private              IosSegmentedButtonBar    buttonBar;
-    private              List<IosEventListener>   listeners;
+    private              IosEventDispatcher       dispatcher;
     private              EventHandler<MouseEvent> mouseHandler;
+    private              IosTimingWheel.Timeout   longPressTimeout;
+    private              IosTimingWheel.Timeout   repeatTimeout;
+    private              int                      repeatDirection;
+    private              int                      noOfRepeats;
+    private              int                      pendingSteps;
+    private              Runnable                 flushSteps;
+    private              boolean                  flushScheduled;
+    private              double                   _value;
+    private              DoubleProperty           value;
+    private              double                   _minValue;
+    private              DoubleProperty           minValue;
+    private              double                   _maxValue;
+    private              DoubleProperty           maxValue;
+    private              double                   _stepSize;
+    private              DoubleProperty           stepSize;
 
 
     // ******************** Constructors **************************************
     public IosPlusMinusButton() {
         getStylesheets().add(IosPlusMinusButton.class.getResource("ios-plus-minus-button.css").toExternalForm());
-        aspectRatio  = PREFERRED_HEIGHT / PREFERRED_WIDTH;
-        listeners    = new CopyOnWriteArrayList<>();
-        mouseHandler = e -> {
+        aspectRatio      = PREFERRED_HEIGHT / PREFERRED_WIDTH;
+        dispatcher       = new IosEventDispatcher();
+        _value           = 0;
+        _minValue        = -Double.MAX_VALUE;
+        _maxValue        = Double.MAX_VALUE;
+        _stepSize        = 1;
+        flushSteps       = this::flushSteps;
+        longPressTimeout = new IosTimingWheel.Timeout() {
+            @Override protected void expired() { fireIosEvent(LONG_PRESSED_EVT); }
+        };
+        repeatTimeout    = new IosTimingWheel.Timeout() {
+            @Override protected void expired() { repeat(); }
+        };
+        mouseHandler     = e -> {
             final EventType<? extends MouseEvent> TYPE = e.getEventType();
             final Object                          SRC  = e.getSource();
             if (MouseEvent.MOUSE_PRESSED.equals(TYPE)) {
-                if (SRC.equals(minus)) {
-                    fireIosEvent(DECREASE_EVT);
-                } else if (SRC.equals(plus)) {
-                    fireIosEvent(INCREASE_EVT);
-                }
+                repeatDirection = SRC.equals(minus) ? -1 : 1;
+                noOfRepeats     = 0;
+                step(repeatDirection);
+                IosTimingWheel.schedule(longPressTimeout, IosTimingWheel.LONG_PRESS_DELAY);
+                IosTimingWheel.schedule(repeatTimeout, REPEAT_DELAY);
+            } else if (MouseEvent.MOUSE_RELEASED.equals(TYPE)) {
+                stopRepeat();
             }
         };
 
-
-        initGraphics();
+        initSize();
         registerListeners();
     }
 
 
     // ******************** Initialization ************************************
-    private void initGraphics() {
+    private void initSize() {
         if (Double.compare(getPrefWidth(), 0.0) <= 0 || Double.compare(getPrefHeight(), 0.0) <= 0 || Double.compare(getWidth(), 0.0) <= 0 ||
             Double.compare(getHeight(), 0.0) <= 0) {
             if (getPrefWidth() > 0 && getPrefHeight() > 0) {
@@ -98,7 +139,13 @@ public class IosPlusMinusButton extends Region {
         }
 
         getStyleClass().add("ios-plus-minus-button");
+    }
 
+    /**
+     * Creates the nodes on the first layout, buttons that are never shown
+     * never build their scene graph.
+     */
+    private void initGraphics() {
         Rectangle minusSign = new Rectangle(15.5, 1.5);
         minusSign.getStyleClass().setAll("minus-sign");
 
@@ -121,23 +168,42 @@ public class IosPlusMinusButton extends Region {
 
         pane = new Pane(buttonBar);
 
+        minus.addEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
+        minus.addEventHandler(MouseEvent.MOUSE_RELEASED, mouseHandler);
+        plus.addEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
+        plus.addEventHandler(MouseEvent.MOUSE_RELEASED, mouseHandler);
+
         getChildren().setAll(pane);
     }
 
     private void registerListeners() {
         widthProperty().addListener(o -> resize());
         heightProperty().addListener(o -> resize());
-        minus.addEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
-        plus.addEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
+        IosDarkMode.register(IosPlusMinusButton.this, IosPlusMinusButton::applySceneDark);
+        sceneProperty().addListener(o -> applySceneDark());
     }
 
     public void dispose() {
-        minus.removeEventHandler(MouseEvent.MOUSE_CLICKED, mouseHandler);
+        stopRepeat();
+        if (null == pane) { return; }
+        minus.removeEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
+        minus.removeEventHandler(MouseEvent.MOUSE_RELEASED, mouseHandler);
         plus.removeEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
+        plus.removeEventHandler(MouseEvent.MOUSE_RELEASED, mouseHandler);
     }
 
 
     // ******************** Methods *******************************************
+    @Override public void layoutChildren() {
+        if (null == pane) {
+            initGraphics();
+            // Nodes added during layout would miss the css pass of this pulse
+            if (null != getScene()) { pane.applyCss(); }
+            resize();
+        }
+        super.layoutChildren();
+    }
+
     @Override protected double computeMinWidth(final double HEIGHT) { return MINIMUM_WIDTH; }
     @Override protected double computeMinHeight(final double WIDTH) { return MINIMUM_HEIGHT; }
     @Override protected double computePrefWidth(final double HEIGHT) { return super.computePrefWidth(HEIGHT); }
@@ -147,18 +213,168 @@ public class IosPlusMinusButton extends Region {
 
     @Override public ObservableList<Node> getChildren() { return super.getChildren(); }
 
+    public double getValue() { return null == value ? _value : value.get(); }
+    public void setValue(final double VALUE) {
+        if (null == value) {
+            _value = clamp(VALUE);
+        } else {
+            value.set(VALUE);
+        }
+    }
+    public DoubleProperty valueProperty() {
+        if (null == value) {
+            value = new DoublePropertyBase(_value) {
+                @Override protected void invalidated() {
+                    final double CLAMPED = clamp(get());
+                    if (Double.compare(CLAMPED, get()) != 0) { set(CLAMPED); }
+                }
+                @Override public Object getBean() { return IosPlusMinusButton.this; }
+                @Override public String getName() { return "value"; }
+            };
+        }
+        return value;
+    }
+
+    public double getMinValue() { return null == minValue ? _minValue : minValue.get(); }
+    public void setMinValue(final double MIN_VALUE) {
+        if (null == minValue) {
+            _minValue = MIN_VALUE;
+            setValue(getValue());
+        } else {
+            minValue.set(MIN_VALUE);
+        }
+    }
+    public DoubleProperty minValueProperty() {
+        if (null == minValue) {
+            minValue = new DoublePropertyBase(_minValue) {
+                @Override protected void invalidated() { setValue(getValue()); }
+                @Override public Object getBean() { return IosPlusMinusButton.this; }
+                @Override public String getName() { return "minValue"; }
+            };
+        }
+        return minValue;
+    }
+
+    public double getMaxValue() { return null == maxValue ? _maxValue : maxValue.get(); }
+    public void setMaxValue(final double MAX_VALUE) {
+        if (null == maxValue) {
+            _maxValue = MAX_VALUE;
+            setValue(getValue());
+        } else {
+            maxValue.set(MAX_VALUE);
+        }
+    }
+    public DoubleProperty maxValueProperty() {
+        if (null == maxValue) {
+            maxValue = new DoublePropertyBase(_maxValue) {
+                @Override protected void invalidated() { setValue(getValue()); }
+                @Override public Object getBean() { return IosPlusMinusButton.this; }
+                @Override public String getName() { return "maxValue"; }
+            };
+        }
+        return maxValue;
+    }
+
+    public double getStepSize() { return null == stepSize ? _stepSize : stepSize.get(); }
+    public void setStepSize(final double STEP_SIZE) {
+        if (null == stepSize) {
+            _stepSize = STEP_SIZE;
+        } else {
+            stepSize.set(STEP_SIZE);
+        }
+    }
+    public DoubleProperty stepSizeProperty() {
+        if (null == stepSize) {
+            stepSize = new DoublePropertyBase(_stepSize) {
+                @Override public Object getBean() { return IosPlusMinusButton.this; }
+                @Override public String getName() { return "stepSize"; }
+            };
+        }
+        return stepSize;
+    }
+
+    private double clamp(final double VALUE) { return Helper.clamp(getMinValue(), getMaxValue(), VALUE); }
+
+    /**
+     * Moves the value by the given number of steps and returns false once
+     * the value reached min or max.
+     */
+    private boolean step(final int STEPS) {
+        final double OLD_VALUE = getValue();
+        final double NEW_VALUE = clamp(OLD_VALUE + STEPS * getStepSize());
+        if (Double.compare(OLD_VALUE, NEW_VALUE) == 0) { return false; }
+        setValue(NEW_VALUE);
+        final int TAKEN = getStepSize() > 0 ? (int) Math.round((NEW_VALUE - OLD_VALUE) / getStepSize()) : STEPS;
+        // A step that was cut at min or max still counts as one
+        final int COUNTED = 0 == TAKEN ? Integer.signum(STEPS) : TAKEN;
+        pendingSteps += COUNTED;
+        if (!flushScheduled) {
+            flushScheduled = true;
+            IosAnimator.runOnNextPulse(flushSteps);
+        }
+        return TAKEN == STEPS;
+    }
+
+    /**
+     * The repeats get faster with every step, after 20 repeats each one
+     * takes 5 steps and after 50 repeats 10 steps.
+     */
+    private void repeat() {
+        noOfRepeats++;
+        final int STEPS = noOfRepeats < 20 ? 1 : noOfRepeats < 50 ? 5 : 10;
+        if (!step(repeatDirection * STEPS)) {
+            IosTimingWheel.cancel(longPressTimeout);
+            return;
+        }
+        IosTimingWheel.schedule(repeatTimeout, Math.max(MIN_REPEAT_RATE, MAX_REPEAT_RATE * Math.pow(ACCELERATION, noOfRepeats)));
+    }
+
+    private void stopRepeat() {
+        IosTimingWheel.cancel(longPressTimeout);
+        IosTimingWheel.cancel(repeatTimeout);
+    }
+
+    /**
+     * Runs on the animator pulse, a listener that throws is reported to the
+     * uncaught exception handler instead of breaking the pulse.
+     */
+    private void flushSteps() {
+        flushScheduled = false;
+        if (0 == pendingSteps) { return; }
+        final int STEPS = pendingSteps;
+        pendingSteps = 0;
+        try {
+            fireIosEvent(new IosStepEvent(IosPlusMinusButton.this, STEPS, getValue()));
+        } catch (RuntimeException e) {
+            final Thread THREAD = Thread.currentThread();
+            THREAD.getUncaughtExceptionHandler().uncaughtException(THREAD, e);
+        }
+    }
+
+    private void applySceneDark() { pseudoClassStateChanged(IosDarkMode.DARK_PSEUDO_CLASS, IosDarkMode.isDark(getScene())); }
+
 
     // ******************** Event Handling ************************************
-    public void addOnIosEvent(final IosEventListener LISTENER) { if (!listeners.contains(LISTENER)) { listeners.add(LISTENER); } }
-    public void removeOnIosEvent(final IosEventListener LISTENER) { if (listeners.contains(LISTENER)) { listeners.remove(LISTENER); } }
+    public void addOnIosEvent(final IosEventListener LISTENER) { addOnIosEvent(LISTENER, ReferenceType.STRONG); }
+    public void addOnIosEvent(final IosEventListener LISTENER, final ReferenceType TYPE) { dispatcher.add(LISTENER, TYPE); }
+    public void addOnIosEvent(final IosEventType EVENT_TYPE, final IosEventListener LISTENER) { addOnIosEvent(EVENT_TYPE, LISTENER, ReferenceType.STRONG); }
+    public void addOnIosEvent(final IosEventType EVENT_TYPE, final IosEventListener LISTENER, final ReferenceType TYPE) { dispatcher.add(EVENT_TYPE, LISTENER, TYPE); }
+    /**
+     * The listener gets its events on the executor of the given delivery
+     * instead of the FX application thread.
+     */
+    public void addOnIosEvent(final IosEventListener LISTENER, final AsyncDelivery DELIVERY) { dispatcher.add(LISTENER, ReferenceType.STRONG, DELIVERY); }
+    public void addOnIosEvent(final IosEventType EVENT_TYPE, final IosEventListener LISTENER, final AsyncDelivery DELIVERY) { dispatcher.add(EVENT_TYPE, LISTENER, ReferenceType.STRONG, DELIVERY); }
+    public void removeOnIosEvent(final IosEventListener LISTENER) { dispatcher.remove(LISTENER); }
 
     private void fireIosEvent(final IosEvent EVENT) {
-        listeners.forEach(listener -> listener.onIosEvent(EVENT));
+        dispatcher.fire(EVENT);
     }
 
 
     // ******************** Resizing ******************************************
     private void resize() {
+        if (null == pane) { return; }
         width  = getWidth() - getInsets().getLeft() - getInsets().getRight();
         height = getHeight() - getInsets().getTop() - getInsets().getBottom();
 
@@ -16,6 +16,7 @@
 
 package eu.hansolo.iosfx.iossegmentedbuttonbar;
 
+import eu.hansolo.iosfx.common.IosDarkMode;
 import javafx.collections.ListChangeListener;
 import javafx.scene.Node;
 import javafx.scene.layout.HBox;
@@ -50,6 +51,8 @@ public class IosSegmentedButtonBar extends HBox {
 
     private void registerListeners() {
         spacingProperty().addListener(o -> setSpacing(0));
+        IosDarkMode.register(IosSegmentedButtonBar.this, IosSegmentedButtonBar::applySceneDark);
+        sceneProperty().addListener(o -> applySceneDark());
 
         getChildren().addListener((ListChangeListener<Node>) CHANGE -> {
             while (CHANGE.next()) {
@@ -62,6 +65,8 @@ public class IosSegmentedButtonBar extends HBox {
         });
     }
 
+    private void applySceneDark() { pseudoClassStateChanged(IosDarkMode.DARK_PSEUDO_CLASS, IosDarkMode.isDark(getScene())); }
+
     private void adjustStyles() {
         if (getChildren().isEmpty()) { return; }
         int noOfChildren = getChildren().size();
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.iosswitch;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Group;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.effect.BlurType;
+import javafx.scene.effect.Shadow;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.transform.Scale;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+
+/**
+ * Shared, pre-rendered knob shadows of the IosSwitch. A sprite is rendered
+ * once per knob size in device pixels and output scale with the same
+ * gaussian DropShadow the knob had as an effect and is then only drawn or
+ * shown in ImageViews, stretched in the middle for wider knobs. The least
+ * recently used sprites are evicted.
+ * All methods have to be called on the FX application thread.
+ */
+public final class IosKnobShadow {
+    public  static final int                 MAX_ENTRIES   = 32;
+    // Radius and offset of the former effect were 0.14 and 0.065 of the switch height
+    private static final double              RADIUS_FACTOR = 0.14 / 0.89130435;
+    private static final double              OFFSET_FACTOR = 0.065 / 0.89130435;
+    private static final Color               SHADOW_COLOR  = Color.rgb(0, 0, 0, 0.25);
+    private static final Map<Key, Sprite>    CACHE         = new LinkedHashMap<Key, Sprite>(16, 0.75f, true) {
+        @Override protected boolean removeEldestEntry(final Map.Entry<Key, Sprite> ELDEST) { return size() > MAX_ENTRIES; }
+    };
+    private static       SnapshotParameters  parameters;
+
+
+    // ******************** Constructors **************************************
+    private IosKnobShadow() {}
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Returns the sprite for the given knob size rounded to device pixels,
+     * knob sizes that only differ in fractions of a pixel share a sprite.
+     */
+    public static Sprite get(final double KNOB_SIZE, final double SCALE) {
+        final long DEVICE_PIXELS = Math.max(1, (long) Math.floor(KNOB_SIZE * SCALE));
+        final Key  KEY           = new Key(DEVICE_PIXELS, SCALE);
+        Sprite     sprite        = CACHE.get(KEY);
+        if (null == sprite) {
+            sprite = new Sprite(DEVICE_PIXELS / SCALE, SCALE);
+            CACHE.put(KEY, sprite);
+        }
+        return sprite;
+    }
+
+    public static int size() { return CACHE.size(); }
+
+    public static void clear() { CACHE.clear(); }
+
+    /**
+     * Snapshots the shadow of the former effect without the knob, the knob
+     * is drawn on top of it. The transparent bounds keep the knob at MARGIN
+     * in the image.
+     */
+    private static Image render(final double KNOB_SIZE, final double MARGIN, final double SCALE) {
+        if (null == parameters) {
+            parameters = new SnapshotParameters();
+            parameters.setFill(Color.TRANSPARENT);
+        }
+        parameters.setTransform(new Scale(SCALE, SCALE));
+        final Rectangle BOUNDS = new Rectangle(KNOB_SIZE + 2 * MARGIN, KNOB_SIZE + 2 * MARGIN, Color.TRANSPARENT);
+        final Rectangle KNOB   = new Rectangle(MARGIN, MARGIN + KNOB_SIZE * OFFSET_FACTOR, KNOB_SIZE, KNOB_SIZE);
+        KNOB.setArcWidth(KNOB_SIZE);
+        KNOB.setArcHeight(KNOB_SIZE);
+        KNOB.setEffect(new Shadow(BlurType.GAUSSIAN, SHADOW_COLOR, KNOB_SIZE * RADIUS_FACTOR));
+        return new Group(BOUNDS, KNOB).snapshot(parameters, null);
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static final class Key {
+        private final long   devicePixels;
+        private final double scale;
+
+        Key(final long DEVICE_PIXELS, final double SCALE) {
+            devicePixels = DEVICE_PIXELS;
+            scale        = SCALE;
+        }
+
+        @Override public boolean equals(final Object OBJ) {
+            if (this == OBJ) { return true; }
+            if (!(OBJ instanceof Key)) { return false; }
+            final Key KEY = (Key) OBJ;
+            return devicePixels == KEY.devicePixels && Double.compare(scale, KEY.scale) == 0;
+        }
+
+        @Override public int hashCode() { return Objects.hash(devicePixels, scale); }
+    }
+
+    /**
+     * The shadow of one knob size, drawn in three slices so that the
+     * rounded ends keep their shape when the knob gets wider.
+     */
+    public static final class Sprite {
+        private final double      knobSize;
+        private final double      scale;
+        private final double      margin;
+        private final Image       image;
+        private final Rectangle2D leftViewport;
+        private final Rectangle2D middleViewport;
+        private final Rectangle2D rightViewport;
+
+        private Sprite(final double KNOB_SIZE, final double SCALE) {
+            knobSize = KNOB_SIZE;
+            scale    = SCALE;
+            margin   = Math.ceil(KNOB_SIZE * (RADIUS_FACTOR + OFFSET_FACTOR));
+            image    = render(KNOB_SIZE, margin, SCALE);
+
+            final double SRC_X = (margin + knobSize * 0.5) * scale;
+            leftViewport   = new Rectangle2D(0, 0, SRC_X, image.getHeight());
+            middleViewport = new Rectangle2D(SRC_X - 0.5, 0, 1, image.getHeight());
+            rightViewport  = new Rectangle2D(SRC_X, 0, image.getWidth() - SRC_X, image.getHeight());
+        }
+
+        /**
+         * Returns the space the shadow needs around the knob.
+         */
+        public double getMargin() { return margin; }
+
+        /**
+         * Draws the shadow of a knob with the given bounds.
+         */
+        public void draw(final GraphicsContext CTX, final double X, final double Y, final double WIDTH) {
+            final double HALF   = margin + knobSize * 0.5;
+            final double SRC_X  = HALF * scale;
+            final double SRC_H  = image.getHeight();
+            final double HEIGHT = SRC_H / scale;
+            CTX.drawImage(image, 0, 0, SRC_X, SRC_H, X - margin, Y - margin, HALF, HEIGHT);
+            if (WIDTH > knobSize) {
+                CTX.drawImage(image, SRC_X - 0.5, 0, 1, SRC_H, X + knobSize * 0.5, Y - margin, WIDTH - knobSize, HEIGHT);
+            }
+            CTX.drawImage(image, SRC_X, 0, image.getWidth() - SRC_X, SRC_H, X + WIDTH - knobSize * 0.5, Y - margin, image.getWidth() / scale - HALF, HEIGHT);
+        }
+
+        /**
+         * Shows the shadow of a knob with the given bounds in the three given
+         * ImageViews, the same slices as draw() paints. Only moves and
+         * stretches the views as long as the sprite stays the same.
+         */
+        public void layout(final ImageView LEFT, final ImageView MIDDLE, final ImageView RIGHT, final double X, final double Y, final double WIDTH) {
+            final double HALF   = margin + knobSize * 0.5;
+            final double HEIGHT = image.getHeight() / scale;
+            if (LEFT.getImage() != image) {
+                set(LEFT, leftViewport, HALF, HEIGHT);
+                set(MIDDLE, middleViewport, 1, HEIGHT);
+                set(RIGHT, rightViewport, image.getWidth() / scale - HALF, HEIGHT);
+            }
+            LEFT.relocate(X - margin, Y - margin);
+            MIDDLE.setVisible(WIDTH > knobSize);
+            if (WIDTH > knobSize) {
+                MIDDLE.setFitWidth(WIDTH - knobSize);
+                MIDDLE.relocate(X + knobSize * 0.5, Y - margin);
+            }
+            RIGHT.relocate(X + WIDTH - knobSize * 0.5, Y - margin);
+        }
+
+        private void set(final ImageView VIEW, final Rectangle2D VIEWPORT, final double FIT_WIDTH, final double FIT_HEIGHT) {
+            VIEW.setImage(image);
+            VIEW.setViewport(VIEWPORT);
+            VIEW.setFitWidth(FIT_WIDTH);
+            VIEW.setFitHeight(FIT_HEIGHT);
+        }
+    }
+}
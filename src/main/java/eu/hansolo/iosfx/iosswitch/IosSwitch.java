@@ -16,25 +16,30 @@
 
 package eu.hansolo.iosfx.iosswitch;
 
+import eu.hansolo.iosfx.common.IosDarkMode;
+import eu.hansolo.iosfx.common.IosShowingHub;
+import eu.hansolo.iosfx.common.IosTheme;
+import eu.hansolo.iosfx.common.IosTheme.Role;
+import eu.hansolo.iosfx.events.AsyncDelivery;
 import eu.hansolo.iosfx.events.IosEvent;
+import eu.hansolo.iosfx.events.IosEventDispatcher;
 import eu.hansolo.iosfx.events.IosEventListener;
 import eu.hansolo.iosfx.events.IosEventType;
+import eu.hansolo.iosfx.events.ReferenceType;
 import eu.hansolo.iosfx.tools.Helper;
-import javafx.animation.AnimationTimer;
-import javafx.animation.Interpolator;
-import javafx.animation.KeyFrame;
-import javafx.animation.KeyValue;
-import javafx.animation.Timeline;
+import eu.hansolo.iosfx.tools.IosAnimator;
+import eu.hansolo.iosfx.tools.IosTimingWheel;
 import javafx.beans.DefaultProperty;
-import javafx.beans.binding.Bindings;
-import javafx.beans.binding.BooleanBinding;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.BooleanPropertyBase;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.DoublePropertyBase;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ObjectPropertyBase;
 import javafx.beans.property.Property;
-import javafx.beans.value.ChangeListener;
+import javafx.beans.property.ReadOnlyProperty;
 import javafx.collections.ObservableList;
 import javafx.css.CssMetaData;
 import javafx.css.PseudoClass;
@@ -45,29 +50,40 @@ import javafx.event.EventHandler;
 import javafx.geometry.Dimension2D;
 import javafx.geometry.Insets;
 import javafx.scene.Node;
-import javafx.scene.effect.BlurType;
-import javafx.scene.effect.DropShadow;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.Region;
 import javafx.scene.paint.Color;
+import javafx.scene.paint.CycleMethod;
+import javafx.scene.paint.LinearGradient;
+import javafx.scene.paint.Stop;
 import javafx.scene.shape.Circle;
 import javafx.scene.shape.Rectangle;
-import javafx.util.Duration;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 
 /**
  * User: hansolo
  * Date: 14.05.18
  * Time: 11:15
+ *
+ * In RenderMode.CANVAS the switch paints itself into one Canvas instead of
+ * five shapes in a Pane. It repaints only when the state, the size or an
+ * animation changes it and uses the default colors of ios-switch.css, the
+ * selected color can still be set.
  */
 @DefaultProperty("children")
 public class IosSwitch extends Region {
+    public enum RenderMode { NODES, CANVAS }
+
     public  static final double                              MIN_DURATION           = 10;
     public  static final double                              MAX_DURATION           = 500;
     public  static final Color                               DEFAULT_SELECTED_COLOR = Color.rgb(75, 216, 99);
@@ -78,82 +94,102 @@ public class IosSwitch extends Region {
     private static final double                              MAXIMUM_WIDTH          = 1024;
     private static final double                              MAXIMUM_HEIGHT         = 1024;
     private static final double                              ASPECT_RATIO      = PREFERRED_HEIGHT / PREFERRED_WIDTH;
-    private static final long                                LONG_PRESS_TIME   = 200_000_000l;
+    private static final Color                               DESELECTED_FILL   = Color.rgb(229, 229, 229);
+    private static final int                                 FILL_STEPS        = 64;
+    private static final double                              SHADOW_MARGIN     = 0.25;
+    private static final Color                               ONE_FILL          = Color.WHITE;
+    private static final Color                               ZERO_STROKE       = Color.rgb(175, 175, 175);
+    private static final Color                               KNOB_FILL         = Color.WHITE;
+    private static final Color                               DARK_MAIN_FILL    = Color.BLACK;
+    private static final LinearGradient                      MAIN_FILL         = new LinearGradient(0, 0, 1, 0, true, CycleMethod.NO_CYCLE,
+                                                                                                    new Stop(0.35, Color.rgb(244, 244, 244)),
+                                                                                                    new Stop(0.8, Color.WHITE));
+    private static final long                                HOLD_TIME         = 200;
+    private static final int                                 MAX_FILL_RAMPS    = 32;
+    private static final Map<Long, Color[]>                  FILL_RAMPS        = new LinkedHashMap<Long, Color[]>(16, 0.75f, true) {
+        @Override protected boolean removeEldestEntry(final Map.Entry<Long, Color[]> ELDEST) { return size() > MAX_FILL_RAMPS; }
+    };
+    private static       String                              userAgentStyleSheet;
     private static final StyleablePropertyFactory<IosSwitch> FACTORY           = new StyleablePropertyFactory<>(Region.getClassCssMetaData());
-    private static final PseudoClass                         DARK_PSEUDO_CLASS = PseudoClass.getPseudoClass("dark");
+    private static final PseudoClass                         DARK_PSEUDO_CLASS = IosDarkMode.DARK_PSEUDO_CLASS;
+    // Shared by all switches, they find their switch in the event or the property
+    private static final EventHandler<MouseEvent>            CLICKED_HANDLER   = e -> switchOf(e).toggle();
+    private static final EventHandler<MouseEvent>            PRESSED_HANDLER   = e -> switchOf(e).press();
+    private static final EventHandler<MouseEvent>            RELEASED_HANDLER  = e -> IosTimingWheel.cancel(switchOf(e).longPressTimeout);
+    private static final InvalidationListener                RESIZE_LISTENER   = o -> beanOf(o).resize();
+    private static final InvalidationListener                DISABLED_LISTENER = o -> beanOf(o).setOpacity(beanOf(o).isDisabled() ? 0.5 : 1.0);
+    private static final InvalidationListener                SCENE_LISTENER    = o -> beanOf(o).applySceneDark();
+    private static final InvalidationListener                COLOR_LISTENER    = o -> beanOf(o).applySelectedColor();
     private        final IosEvent                            SELECTED_EVT      = new IosEvent(IosSwitch.this, IosEventType.SELECTED);
     private        final IosEvent                            DESELECTED_EVT    = new IosEvent(IosSwitch.this, IosEventType.DESELECTED);
+    private        final IosEvent                            LONG_PRESSED_EVT  = new IosEvent(IosSwitch.this, IosEventType.LONG_PRESSED);
     private        final StyleableProperty<Color>            selectedColor;
     private              boolean                             _dark;
     private              BooleanProperty                     dark;
     private              double                              width;
     private              double                              height;
-    private              DropShadow                          dropShadow;
+    private              double                              knobSize;
+    private              double                              mainMinX;
+    private              double                              mainMaxX;
+    private              Color[]                             fillRamp;
+    private              double                              knobWidth;
+    private              double                              knobX;
+    private              double                              mainScale;
+    private              double                              mainOpacity;
+    private              double                              oneOpacity;
+    private              double                              zeroOpacity;
+    private              Color                               fill;
+    private              long                                themeVersion;
+    private              boolean                             sceneDark;
+    private              RenderMode                          _renderMode;
+    private              ObjectProperty<RenderMode>          renderMode;
+    private              Canvas                              canvas;
+    private              Node                                clickArea;
+    private              IosKnobShadow.Sprite                shadowSprite;
+    private              ImageView                           shadowLeft;
+    private              ImageView                           shadowMiddle;
+    private              ImageView                           shadowRight;
     private              Rectangle                           backgroundArea;
     private              Rectangle                           mainArea;
     private              Rectangle                           knob;
     private              Circle                              zero;
     private              Rectangle                           one;
     private              Pane                                pane;
-    private              long                                pressStart;
-    private              AnimationTimer                      holdTimer;
+    private              IosTimingWheel.Timeout              holdTimeout;
+    private              IosTimingWheel.Timeout              longPressTimeout;
     private              boolean                             _selected;
     private              BooleanProperty                     selected;
     private              double                              _duration;
     private              DoubleProperty                      duration;
     private              boolean                             _showOnOffText;
     private              BooleanProperty                     showOnOffText;
-    private              Timeline                            timeline;
-    private              BooleanBinding                      showing;
-    private              ChangeListener<Boolean>             showingListener;
+    private              SwitchAnimation                     animation;
     private              HashMap<String, Property>           settings;
-    private              EventHandler<MouseEvent>            clickedHandler;
-    private              EventHandler<MouseEvent>            pressedHandler;
-    private              List<IosEventListener>              listeners;
+    private              IosEventDispatcher                  dispatcher;
 
 
 
     // ******************** Constructors **************************************
     public IosSwitch() {
-        this(new HashMap<>());
+        this(Collections.emptyMap());
     }
     public IosSwitch(final Map<String, Property> SETTINGS) {
-        pressStart      = System.nanoTime();
-        holdTimer       = new AnimationTimer() {
-            @Override public void handle(final long now) {
-                if (now - pressStart > LONG_PRESS_TIME) {
-                    holdTimer.stop();
-                    if (isSelected()) {
-                        animateToPreDeselect();
-                    } else {
-                        animateToPreSelect();
-                    }
-                }
-            }
-        };
         _selected       = false;
         selectedColor   = FACTORY.createStyleableColorProperty(IosSwitch.this, "selectedColor", "-selected-color", s -> s.selectedColor, DEFAULT_SELECTED_COLOR);
         _dark           = false;
         _duration       = 250;
         _showOnOffText  = false;
-        showingListener =  (o, ov, nv) -> { if (nv) { applySettings(); } };
-        settings        = new HashMap<>(SETTINGS);
-        timeline        = new Timeline();
-        listeners       = new CopyOnWriteArrayList<>();
-        clickedHandler  = e -> setSelected(!isSelected());
-        pressedHandler  = e -> {
-            pressStart = System.nanoTime();
-            holdTimer.start();
-        };
-
-        initGraphics();
+        _renderMode     = RenderMode.NODES;
+        settings        = SETTINGS.isEmpty() ? null : new HashMap<>(SETTINGS);
+
+        initSize();
         registerListeners();
         applySettings();
     }
 
 
     // ******************** Initialization ************************************
-    private void initGraphics() {
+    private void initSize() {
         if (Double.compare(getPrefWidth(), 0.0) <= 0 || Double.compare(getPrefHeight(), 0.0) <= 0 || Double.compare(getWidth(), 0.0) <= 0 ||
             Double.compare(getHeight(), 0.0) <= 0) {
             if (getPrefWidth() > 0 && getPrefHeight() > 0) {
@@ -164,74 +200,174 @@ public class IosSwitch extends Region {
         }
 
         getStyleClass().add("ios-switch");
+    }
 
-        dropShadow = new DropShadow(BlurType.GAUSSIAN, Color.rgb(0, 0, 0, 0.25), 10.0, 0.0, 0, 5);
+    /**
+     * Creates the nodes on the first layout, switches that are never shown
+     * never build their scene graph.
+     */
+    private void initGraphics() {
+        if (null == animation) { animation = new SwitchAnimation(); }
+        final boolean SELECTED = isSelected();
+        mainScale    = SELECTED ? 0 : 1;
+        mainOpacity  = SELECTED ? 0 : 1;
+        oneOpacity   = SELECTED ? 1 : 0;
+        zeroOpacity  = SELECTED ? 0 : 1;
+        fill         = SELECTED ? getAccentColor() : null;
+        themeVersion = IosTheme.getVersion();
+
+        if (RenderMode.CANVAS == getRenderMode()) {
+            canvas = new Canvas();
+            canvas.setMouseTransparent(true);
+            clickArea = IosSwitch.this;
+            clickArea.addEventHandler(MouseEvent.MOUSE_CLICKED, CLICKED_HANDLER);
+            clickArea.addEventHandler(MouseEvent.MOUSE_PRESSED, PRESSED_HANDLER);
+            clickArea.addEventHandler(MouseEvent.MOUSE_RELEASED, RELEASED_HANDLER);
+            getChildren().setAll(canvas);
+            return;
+        }
 
         backgroundArea = new Rectangle();
         backgroundArea.getStyleClass().add("background-area");
-        if (isSelected()) {
-            backgroundArea.setFill(getSelectedColor());
+        if (null != fill) {
+            backgroundArea.setFill(fill);
         }
 
-        one = new Rectangle();
-        one.getStyleClass().add("one");
-        one.setMouseTransparent(true);
-        one.setVisible(false);
-
         mainArea = new Rectangle();
         mainArea.getStyleClass().add("main-area");
         mainArea.setMouseTransparent(true);
-        if (isSelected()) {
-            mainArea.setOpacity(0);
-            mainArea.setScaleX(0);
-            mainArea.setScaleY(0);
-        }
-
-        zero = new Circle();
-        zero.getStyleClass().add("zero");
-        zero.setMouseTransparent(true);
-        zero.setVisible(false);
+        mainArea.setOpacity(mainOpacity);
+        mainArea.setScaleX(mainScale);
+        mainArea.setScaleY(mainScale);
 
         knob = new Rectangle();
         knob.getStyleClass().add("knob");
-        knob.setEffect(dropShadow);
         knob.setMouseTransparent(true);
 
-        pane = new Pane(backgroundArea, one, mainArea, zero, knob);
+        shadowLeft   = createShadowSlice();
+        shadowMiddle = createShadowSlice();
+        shadowRight  = createShadowSlice();
+
+        pane = new Pane(backgroundArea, mainArea, shadowLeft, shadowMiddle, shadowRight, knob);
+
+        if (getShowOnOffText()) { initOnOffText(); }
+
+        clickArea = backgroundArea;
+        clickArea.addEventHandler(MouseEvent.MOUSE_CLICKED, CLICKED_HANDLER);
+        clickArea.addEventHandler(MouseEvent.MOUSE_PRESSED, PRESSED_HANDLER);
+        clickArea.addEventHandler(MouseEvent.MOUSE_RELEASED, RELEASED_HANDLER);
+
+        // Css stays in charge of the roles the theme does not define
+        if (null == fill && IosTheme.getCurrent().defines(Role.TRACK)) { backgroundArea.setFill(getTrackColor()); }
+        if (IosTheme.getCurrent().defines(Role.KNOB)) { knob.setFill(getKnobColor()); }
 
         getChildren().setAll(pane);
     }
 
+    private ImageView createShadowSlice() {
+        final ImageView SLICE = new ImageView();
+        SLICE.setManaged(false);
+        SLICE.setMouseTransparent(true);
+        return SLICE;
+    }
+
+    private boolean isBuilt() { return null != clickArea; }
+
+    /**
+     * Drops the current graphics, the next layout builds them for the
+     * current render mode.
+     */
+    private void rebuild() {
+        if (!isBuilt()) { return; }
+        IosAnimator.stop(animation);
+        clickArea.removeEventHandler(MouseEvent.MOUSE_CLICKED, CLICKED_HANDLER);
+        clickArea.removeEventHandler(MouseEvent.MOUSE_PRESSED, PRESSED_HANDLER);
+        clickArea.removeEventHandler(MouseEvent.MOUSE_RELEASED, RELEASED_HANDLER);
+        getChildren().clear();
+        clickArea      = null;
+        canvas         = null;
+        pane           = null;
+        backgroundArea = null;
+        mainArea       = null;
+        shadowLeft     = null;
+        shadowMiddle   = null;
+        shadowRight    = null;
+        knob           = null;
+        one            = null;
+        zero           = null;
+        requestLayout();
+    }
+
+    /**
+     * The on/off indicators are only created once they are shown.
+     */
+    private void initOnOffText() {
+        if (null == pane || null != one) { return; }
+        one = new Rectangle();
+        one.getStyleClass().add("one");
+        one.setMouseTransparent(true);
+        one.setOpacity(oneOpacity);
+
+        zero = new Circle();
+        zero.getStyleClass().add("zero");
+        zero.setMouseTransparent(true);
+        zero.setOpacity(zeroOpacity);
+
+        pane.getChildren().add(pane.getChildren().indexOf(backgroundArea) + 1, one);
+        pane.getChildren().add(pane.getChildren().indexOf(mainArea) + 1, zero);
+        resizeOnOffText();
+    }
+
     private void registerListeners() {
-        widthProperty().addListener(o -> resize());
-        heightProperty().addListener(o -> resize());
-        disabledProperty().addListener(o -> setOpacity(isDisabled() ? 0.5 : 1.0));
-        backgroundArea.addEventHandler(MouseEvent.MOUSE_CLICKED, clickedHandler);
-        backgroundArea.addEventHandler(MouseEvent.MOUSE_PRESSED, pressedHandler);
-        if (null != getScene()) {
-            setupBinding();
-        } else {
-            sceneProperty().addListener((o1, ov1, nv1) -> {
-                if (null == nv1) { return; }
-                if (null != getScene().getWindow()) {
-                    setupBinding();
-                } else {
-                    sceneProperty().get().windowProperty().addListener((o2, ov2, nv2) -> {
-                        if (null == nv2) { return; }
-                        setupBinding();
-                    });
+        widthProperty().addListener(RESIZE_LISTENER);
+        heightProperty().addListener(RESIZE_LISTENER);
+        disabledProperty().addListener(DISABLED_LISTENER);
+        IosTheme.register(IosSwitch.this, IosSwitch::applyTheme);
+        IosDarkMode.register(IosSwitch.this, IosSwitch::applySceneDark);
+        sceneProperty().addListener(SCENE_LISTENER);
+        selectedColorProperty().addListener(COLOR_LISTENER);
+    }
+
+    private static IosSwitch switchOf(final MouseEvent EVENT) {
+        Node node = (Node) EVENT.getSource();
+        while (!(node instanceof IosSwitch)) { node = node.getParent(); }
+        return (IosSwitch) node;
+    }
+
+    private static IosSwitch beanOf(final Observable OBSERVABLE) { return (IosSwitch) ((ReadOnlyProperty<?>) OBSERVABLE).getBean(); }
+
+    private void toggle() { setSelected(!isSelected()); }
+
+    /**
+     * The knob stretches after a short hold, a long press takes as long as
+     * on all other controls. The timeouts are created on the first press.
+     */
+    private void press() {
+        if (null == holdTimeout) {
+            holdTimeout      = new IosTimingWheel.Timeout() {
+                @Override protected void expired() {
+                    if (isSelected()) {
+                        animateToPreDeselect();
+                    } else {
+                        animateToPreSelect();
+                    }
                 }
-            });
+            };
+            longPressTimeout = new IosTimingWheel.Timeout() {
+                @Override protected void expired() { fireIosEvent(LONG_PRESSED_EVT); }
+            };
         }
+        IosTimingWheel.schedule(holdTimeout, HOLD_TIME);
+        IosTimingWheel.schedule(longPressTimeout, IosTimingWheel.LONG_PRESS_DELAY);
     }
 
-    private void setupBinding() {
-        showing = Bindings.selectBoolean(sceneProperty(), "window", "showing");
-        showing.addListener(showingListener);
+    private void applySelectedColor() {
+        fillRamp = null;
+        redraw();
     }
 
     private void applySettings() {
-        if (settings.isEmpty()) { return; }
+        if (null == settings || settings.isEmpty()) { return; }
         for (String key : settings.keySet()) {
             if ("prefSize".equals(key)) {
                 Dimension2D dim = ((ObjectProperty<Dimension2D>) settings.get(key)).get();
@@ -277,24 +413,37 @@ public class IosSwitch extends Region {
                 setShowOnOffText(((BooleanProperty) settings.get(key)).get());
             } else if ("duration".equals(key)) {
                 setDuration(((DoubleProperty) settings.get(key)).get());
+            } else if ("renderMode".equals(key)) {
+                setRenderMode(((ObjectProperty<RenderMode>) settings.get(key)).get());
             }
         }
 
         if (settings.containsKey("selected")) { setSelected(((BooleanProperty) settings.get("selected")).get()); }
 
         settings.clear();
-        if (null == showing) { return; }
-        showing.removeListener(showingListener);
     }
 
     public void dispose() {
-        backgroundArea.removeEventHandler(MouseEvent.MOUSE_CLICKED, clickedHandler);
-        backgroundArea.removeEventHandler(MouseEvent.MOUSE_PRESSED, pressedHandler);
+        IosTimingWheel.cancel(holdTimeout);
+        IosTimingWheel.cancel(longPressTimeout);
+        IosAnimator.stop(animation);
+        if (!isBuilt()) { return; }
+        clickArea.removeEventHandler(MouseEvent.MOUSE_CLICKED, CLICKED_HANDLER);
+        clickArea.removeEventHandler(MouseEvent.MOUSE_PRESSED, PRESSED_HANDLER);
+        clickArea.removeEventHandler(MouseEvent.MOUSE_RELEASED, RELEASED_HANDLER);
     }
 
 
     // ******************** Methods *******************************************
     @Override public void layoutChildren() {
+        if (!isBuilt()) {
+            // Settings that were added after construction wait for the window
+            if (null != settings && !settings.isEmpty()) { IosShowingHub.whenShown(IosSwitch.this, IosSwitch::applySettings); }
+            initGraphics();
+            // Nodes added during layout would miss the css pass of this pulse
+            if (null != pane && null != getScene()) { pane.applyCss(); }
+            resize();
+        }
         super.layoutChildren();
     }
 
@@ -309,7 +458,7 @@ public class IosSwitch extends Region {
 
     public boolean isSelected() { return null == selected ? _selected : selected.get(); }
     public void setSelected(final boolean SELECTED) {
-        holdTimer.stop();
+        IosTimingWheel.cancel(holdTimeout);
         if (null == selected) {
             _selected = SELECTED;
             if (_selected) {
@@ -322,6 +471,14 @@ public class IosSwitch extends Region {
             selected.set(SELECTED);
         }
     }
+    /**
+     * Sets the selected state and jumps to the end of the toggle animation
+     * if ANIMATE is false, e.g. when a recycled switch shows another row.
+     */
+    public void setSelected(final boolean SELECTED, final boolean ANIMATE) {
+        setSelected(SELECTED);
+        if (!ANIMATE) { IosAnimator.finish(animation); }
+    }
     public BooleanProperty selectedProperty() {
         if (null == selected) {
             selected = new BooleanPropertyBase(_selected) {
@@ -350,7 +507,8 @@ public class IosSwitch extends Region {
     public final void setDark(final boolean DARK) {
         if (null == dark) {
             _dark = DARK;
-            pseudoClassStateChanged(DARK_PSEUDO_CLASS, DARK);
+            pseudoClassStateChanged(DARK_PSEUDO_CLASS, isDarkShown());
+            redraw();
         } else {
             darkProperty().set(DARK);
         }
@@ -359,7 +517,8 @@ public class IosSwitch extends Region {
         if (null == dark) {
             dark = new BooleanPropertyBase() {
                 @Override protected void invalidated() {
-                    pseudoClassStateChanged(DARK_PSEUDO_CLASS, get());
+                    pseudoClassStateChanged(DARK_PSEUDO_CLASS, isDarkShown());
+                    redraw();
                 }
                 @Override public Object getBean() { return IosSwitch.this; }
                 @Override public String getName() { return "dark"; }
@@ -391,8 +550,7 @@ public class IosSwitch extends Region {
     public void setShowOnOffText(final boolean SHOW) {
         if (null == showOnOffText) {
             _showOnOffText = SHOW;
-            one.setVisible(SHOW);
-            zero.setVisible(SHOW);
+            updateOnOffText(SHOW);
         } else {
             showOnOffText.set(SHOW);
         }
@@ -400,10 +558,7 @@ public class IosSwitch extends Region {
     public BooleanProperty showOnOffTextProperty() {
         if (null == showOnOffText) {
             showOnOffText = new BooleanPropertyBase(_showOnOffText) {
-                @Override protected void invalidated() {
-                    one.setVisible(get());
-                    zero.setVisible(get());
-                }
+                @Override protected void invalidated() { updateOnOffText(get()); }
                 @Override public Object getBean() { return IosSwitch.this; }
                 @Override public String getName() { return "showOnOffText"; }
             };
@@ -411,116 +566,190 @@ public class IosSwitch extends Region {
         return showOnOffText;
     }
 
-    protected HashMap<String, Property> getSettings() { return settings; }
-
-    private void animateToPreSelect() {
-        KeyValue kvKnobWidthStart   = new KeyValue(knob.widthProperty(), height * 0.89130435, Interpolator.EASE_BOTH);
-        KeyValue kvKnobWidthEnd     = new KeyValue(knob.widthProperty(), height * 0.89130435 * 1.2, Interpolator.EASE_BOTH);
-        KeyValue kvMainScaleXStart  = new KeyValue(mainArea.scaleXProperty(), 1, Interpolator.EASE_BOTH);
-        KeyValue kvMainScaleXEnd    = new KeyValue(mainArea.scaleXProperty(), 0, Interpolator.EASE_BOTH);
-        KeyValue kvMainScaleYStart  = new KeyValue(mainArea.scaleYProperty(), 1, Interpolator.EASE_BOTH);
-        KeyValue kvMainScaleYEnd    = new KeyValue(mainArea.scaleYProperty(), 0, Interpolator.EASE_BOTH);
-        KeyValue kvMainOpacityStart = new KeyValue(mainArea.opacityProperty(), 1, Interpolator.EASE_BOTH);
-        KeyValue kvMainOpacityEnd   = new KeyValue(mainArea.opacityProperty(), 0, Interpolator.EASE_BOTH);
-        KeyValue kvZeroOpacityStart = new KeyValue(zero.opacityProperty(), 1, Interpolator.EASE_BOTH);
-        KeyValue kvZeroOpacityEnd   = new KeyValue(zero.opacityProperty(), 0, Interpolator.EASE_BOTH);
-        KeyValue kvOneOpacityStart  = new KeyValue(one.opacityProperty(), 0, Interpolator.EASE_BOTH);
-        KeyValue kvOneOpacityEnd    = new KeyValue(one.opacityProperty(), 1, Interpolator.EASE_BOTH);
-
-        KeyFrame kf0;
-        KeyFrame kf1;
-
-        if (isDark()) {
-            kf0 = new KeyFrame(Duration.ZERO, kvKnobWidthStart, kvZeroOpacityStart, kvOneOpacityStart);
-            kf1 = new KeyFrame(Duration.millis(125), kvKnobWidthEnd, kvZeroOpacityEnd, kvOneOpacityEnd);
+    public RenderMode getRenderMode() { return null == renderMode ? _renderMode : renderMode.get(); }
+    public void setRenderMode(final RenderMode MODE) {
+        if (null == renderMode) {
+            if (MODE == _renderMode) { return; }
+            _renderMode = null == MODE ? RenderMode.NODES : MODE;
+            rebuild();
         } else {
-            kf0 = new KeyFrame(Duration.ZERO, kvKnobWidthStart, kvMainScaleXStart, kvMainScaleYStart, kvMainOpacityStart, kvZeroOpacityStart, kvOneOpacityStart);
-            kf1 = new KeyFrame(Duration.millis(125), kvKnobWidthEnd, kvMainScaleXEnd, kvMainScaleYEnd, kvMainOpacityEnd, kvZeroOpacityEnd, kvOneOpacityEnd);
+            renderMode.set(MODE);
+        }
+    }
+    public ObjectProperty<RenderMode> renderModeProperty() {
+        if (null == renderMode) {
+            renderMode = new ObjectPropertyBase<RenderMode>(_renderMode) {
+                @Override protected void invalidated() {
+                    if (null == get()) { set(RenderMode.NODES); }
+                    rebuild();
+                }
+                @Override public Object getBean() { return IosSwitch.this; }
+                @Override public String getName() { return "renderMode"; }
+            };
         }
+        return renderMode;
+    }
 
-        timeline.getKeyFrames().setAll(kf0, kf1);
-        timeline.play();
+    /**
+     * Returns a factory for many switches with the settings of the given builder.
+     */
+    public static IosSwitchFactory factory(final IosSwitchBuilder<?> SPEC) { return SPEC.factory(); }
+
+    protected HashMap<String, Property> getSettings() {
+        if (null == settings) { settings = new HashMap<>(); }
+        return settings;
     }
-    private void animateToPreDeselect() {
-        KeyValue kvKnobWidthStart   = new KeyValue(knob.widthProperty(), height * 0.89130435, Interpolator.EASE_BOTH);
-        KeyValue kvKnobWidthEnd     = new KeyValue(knob.widthProperty(), height * 0.89130435 * 1.2, Interpolator.EASE_BOTH);
-        KeyValue kvKnobXStart       = new KeyValue(knob.xProperty(), mainArea.getLayoutBounds().getMaxX() - height * 0.89130435, Interpolator.EASE_BOTH);
-        KeyValue kvKnobXEnd         = new KeyValue(knob.xProperty(), mainArea.getLayoutBounds().getMaxX() - height * 0.89130435 * 1.2, Interpolator.EASE_BOTH);
-        KeyValue kvZeroOpacityStart = new KeyValue(zero.opacityProperty(), 0, Interpolator.EASE_BOTH);
-        KeyValue kvZeroOpacityEnd   = new KeyValue(zero.opacityProperty(), 1, Interpolator.EASE_BOTH);
-        KeyValue kvOneOpacityStart  = new KeyValue(one.opacityProperty(), 1, Interpolator.EASE_BOTH);
-        KeyValue kvOneOpacityEnd    = new KeyValue(one.opacityProperty(), 0, Interpolator.EASE_BOTH);
 
-        KeyFrame kf0 = new KeyFrame(Duration.ZERO, kvKnobWidthStart, kvKnobXStart, kvZeroOpacityStart, kvOneOpacityStart);
-        KeyFrame kf1 = new KeyFrame(Duration.millis(Helper.ANIMATION_DURATION), kvKnobWidthEnd, kvKnobXEnd, kvZeroOpacityEnd, kvOneOpacityEnd);
+    /**
+     * The switch is dark if it is set to dark or if its scene is dark.
+     */
+    private boolean isDarkShown() { return isDark() || sceneDark; }
+
+    private void applySceneDark() {
+        final boolean DARK = IosDarkMode.isDark(getScene());
+        if (DARK == sceneDark) { return; }
+        sceneDark = DARK;
+        pseudoClassStateChanged(DARK_PSEUDO_CLASS, isDarkShown());
+        redraw();
+    }
+
+    private Color getAccentColor() { return IosTheme.getCurrent().getColor(Role.ACCENT, getSelectedColor()); }
+
+    private Color getTrackColor() { return IosTheme.getCurrent().getColor(Role.TRACK, DESELECTED_FILL); }
+
+    private Color getKnobColor() { return IosTheme.getCurrent().getColor(Role.KNOB, KNOB_FILL); }
+
+    /**
+     * Called once per theme switch, sets the colors of the new palette
+     * without a css pass.
+     */
+    private void applyTheme() {
+        if (themeVersion == IosTheme.getVersion()) { return; }
+        themeVersion = IosTheme.getVersion();
+        fillRamp     = null;
+        if (!isBuilt()) { return; }
+        IosAnimator.finish(animation);
+        fill = isSelected() ? getAccentColor() : null;
+        if (null != pane) {
+            // Css stays in charge of the roles the theme does not define
+            if (null != fill) {
+                backgroundArea.setFill(fill);
+            } else if (IosTheme.getCurrent().defines(Role.TRACK)) {
+                backgroundArea.setFill(getTrackColor());
+            }
+            if (IosTheme.getCurrent().defines(Role.KNOB)) { knob.setFill(getKnobColor()); }
+        }
+        redraw();
+    }
+
+    /**
+     * Returns the background fills from deselected to selected, they are
+     * computed once per selected color instead of on every pulse.
+     */
+    private Color[] getFillRamp() {
+        if (null == fillRamp) { fillRamp = getFillRamp(getTrackColor(), getAccentColor()); }
+        return fillRamp;
+    }
 
-        timeline.getKeyFrames().setAll(kf0, kf1);
-        timeline.play();
+    /**
+     * Switches with the same colors share one read only ramp.
+     */
+    private static Color[] getFillRamp(final Color TRACK_COLOR, final Color ACCENT_COLOR) {
+        final Long KEY  = ((long) toArgb(TRACK_COLOR) << 32) | (toArgb(ACCENT_COLOR) & 0xffffffffL);
+        Color[]    ramp = FILL_RAMPS.get(KEY);
+        if (null == ramp) {
+            ramp = new Color[FILL_STEPS];
+            for (int i = 0 ; i < FILL_STEPS ; i++) { ramp[i] = TRACK_COLOR.interpolate(ACCENT_COLOR, i / (double) (FILL_STEPS - 1)); }
+            FILL_RAMPS.put(KEY, ramp);
+        }
+        return ramp;
+    }
+
+    private static int toArgb(final Color COLOR) {
+        return (int) Math.round(COLOR.getOpacity() * 255) << 24 | (int) Math.round(COLOR.getRed() * 255) << 16 |
+               (int) Math.round(COLOR.getGreen() * 255) << 8 | (int) Math.round(COLOR.getBlue() * 255);
+    }
+
+    private void updateOnOffText(final boolean SHOW) {
+        redraw();
+        if (SHOW) { initOnOffText(); }
+        if (null == one) { return; }
+        one.setVisible(SHOW);
+        zero.setVisible(SHOW);
+    }
+
+    private void animateToPreSelect() {
+        if (!isBuilt()) { return; }
+        animation.prepare(125);
+        animation.knobWidth(knobSize, knobSize * 1.2);
+        if (!isDarkShown()) { animation.mainArea(1, 1, 0, 0); }
+        animation.onOffText(0, 1, 1, 1, 0, 1);
+        animation.play();
+    }
+    private void animateToPreDeselect() {
+        if (!isBuilt()) { return; }
+        animation.prepare(Helper.ANIMATION_DURATION);
+        animation.knobWidth(knobSize, knobSize * 1.2);
+        animation.knobX(mainMaxX - knobSize, mainMaxX - knobSize * 1.2);
+        animation.onOffText(1, 0, 1, 0, 1, 1);
+        animation.play();
     }
 
     private void animateToSelect() {
-        KeyValue kvMainScaleXStart     = new KeyValue(mainArea.scaleXProperty(), mainArea.getScaleX(), Interpolator.EASE_BOTH);
-        KeyValue kvMainScaleXEnd       = new KeyValue(mainArea.scaleXProperty(), 0, Interpolator.EASE_BOTH);
-        KeyValue kvMainScaleYStart     = new KeyValue(mainArea.scaleYProperty(), mainArea.getScaleY(), Interpolator.EASE_BOTH);
-        KeyValue kvMainScaleYEnd       = new KeyValue(mainArea.scaleYProperty(), 0, Interpolator.EASE_BOTH);
-        KeyValue kvMainOpacityStart    = new KeyValue(mainArea.opacityProperty(), mainArea.getOpacity(), Interpolator.EASE_BOTH);
-        KeyValue kvMainOpacityEnd      = new KeyValue(mainArea.opacityProperty(), 0, Interpolator.EASE_BOTH);
-        KeyValue kvBackgroundFillStart = new KeyValue(backgroundArea.fillProperty(), Color.rgb(229, 229, 229), Interpolator.EASE_BOTH);
-        KeyValue kvBackgroundFillEnd   = new KeyValue(backgroundArea.fillProperty(), getSelectedColor(), Interpolator.EASE_BOTH);
-        KeyValue kvKnobXStart          = new KeyValue(knob.xProperty(), mainArea.getLayoutBounds().getMinX(), Interpolator.EASE_BOTH);
-        KeyValue kvKnobXEnd            = new KeyValue(knob.xProperty(), mainArea.getLayoutBounds().getMaxX() - height * 0.89130435, Interpolator.EASE_BOTH);
-        KeyValue kvOneOpacityStart     = new KeyValue(one.opacityProperty(), 0, Interpolator.EASE_BOTH);
-        KeyValue kvOneOpacityEnd       = new KeyValue(one.opacityProperty(), 1, Interpolator.EASE_BOTH);
-        KeyValue kvZeroOpacityStart    = new KeyValue(zero.opacityProperty(), zero.getOpacity(), Interpolator.EASE_BOTH);
-        KeyValue kvZeroOpacityEnd      = new KeyValue(zero.opacityProperty(), 0, Interpolator.EASE_BOTH);
-        KeyValue kvKnobWidthStart      = new KeyValue(knob.widthProperty(), knob.getWidth(), Interpolator.EASE_BOTH);
-        KeyValue kvKnobWidthEnd        = new KeyValue(knob.widthProperty(), height * 0.89130435, Interpolator.EASE_BOTH);
-
-        KeyFrame kf0 = new KeyFrame(Duration.ZERO, kvMainScaleXStart, kvMainScaleYStart, kvMainOpacityStart, kvBackgroundFillStart, kvKnobXStart, kvOneOpacityStart, kvZeroOpacityStart, kvKnobWidthStart);
-        KeyFrame kf1 = new KeyFrame(Duration.millis(getDuration() * 0.5), kvZeroOpacityEnd);
-        KeyFrame kf2 = new KeyFrame(Duration.millis(getDuration()), kvMainScaleXEnd, kvMainScaleYEnd, kvMainOpacityEnd, kvBackgroundFillEnd, kvKnobXEnd, kvOneOpacityEnd, kvKnobWidthEnd);
-
-        timeline.getKeyFrames().setAll(kf0, kf1, kf2);
-        timeline.play();
+        if (!isBuilt()) { return; }
+        animation.prepare(getDuration());
+        animation.mainArea(mainScale, mainOpacity, 0, 0);
+        animation.fill(getFillRamp(), false);
+        animation.knobX(mainMinX, mainMaxX - knobSize);
+        animation.knobWidth(knobWidth, knobSize);
+        animation.onOffText(0, 1, 1, zeroOpacity, 0, 0.5);
+        animation.play();
     }
     private void animateToDeselect() {
-        KeyValue kvMainScaleXStart     = new KeyValue(mainArea.scaleXProperty(), 0, Interpolator.EASE_BOTH);
-        KeyValue kvMainScaleXEnd       = new KeyValue(mainArea.scaleXProperty(), 1, Interpolator.EASE_BOTH);
-        KeyValue kvMainScaleYStart     = new KeyValue(mainArea.scaleYProperty(), 0, Interpolator.EASE_BOTH);
-        KeyValue kvMainScaleYEnd       = new KeyValue(mainArea.scaleYProperty(), 1, Interpolator.EASE_BOTH);
-        KeyValue kvMainOpacityStart    = new KeyValue(mainArea.opacityProperty(), 0, Interpolator.EASE_BOTH);
-        KeyValue kvMainOpacityEnd      = new KeyValue(mainArea.opacityProperty(), 1, Interpolator.EASE_BOTH);
-        KeyValue kvBackgroundFillStart = new KeyValue(backgroundArea.fillProperty(), getSelectedColor(), Interpolator.EASE_BOTH);
-        KeyValue kvBackgroundFillEnd   = new KeyValue(backgroundArea.fillProperty(), Color.rgb(229, 229, 229), Interpolator.EASE_BOTH);
-        KeyValue kvKnobXStart          = new KeyValue(knob.xProperty(), mainArea.getLayoutBounds().getMaxX() - knob.getWidth(), Interpolator.EASE_BOTH);
-        KeyValue kvKnobXEnd            = new KeyValue(knob.xProperty(), mainArea.getLayoutBounds().getMinX(), Interpolator.EASE_BOTH);
-        KeyValue kvOneOpacityStart     = new KeyValue(one.opacityProperty(), one.getOpacity(), Interpolator.EASE_BOTH);
-        KeyValue kvOneOpacityEnd       = new KeyValue(one.opacityProperty(), 0, Interpolator.EASE_BOTH);
-        KeyValue kvZeroOpacityStart    = new KeyValue(zero.opacityProperty(), 0, Interpolator.EASE_BOTH);
-        KeyValue kvZeroOpacityEnd      = new KeyValue(zero.opacityProperty(), 1, Interpolator.EASE_BOTH);
-        KeyValue kvKnobWidthStart      = new KeyValue(knob.widthProperty(), knob.getWidth(), Interpolator.EASE_BOTH);
-        KeyValue kvKnobWidthEnd        = new KeyValue(knob.widthProperty(), height * 0.89130435, Interpolator.EASE_BOTH);
-
-        KeyFrame kf0 = new KeyFrame(Duration.ZERO, kvMainScaleXStart, kvMainScaleYStart, kvMainOpacityStart, kvBackgroundFillStart, kvKnobXStart, kvOneOpacityStart, kvZeroOpacityStart, kvKnobWidthStart);
-        KeyFrame kf1 = new KeyFrame(Duration.millis(getDuration() * 0.5), kvOneOpacityEnd);
-        KeyFrame kf2 = new KeyFrame(Duration.millis(getDuration()), kvMainScaleXEnd, kvMainScaleYEnd, kvMainOpacityEnd, kvBackgroundFillEnd, kvKnobXEnd, kvZeroOpacityEnd, kvKnobWidthEnd);
-
-        timeline.getKeyFrames().setAll(kf0, kf1, kf2);
-        timeline.play();
+        if (!isBuilt()) { return; }
+        animation.prepare(getDuration());
+        animation.mainArea(0, 0, 1, 1);
+        animation.fill(getFillRamp(), true);
+        animation.knobX(mainMaxX - knobWidth, mainMinX);
+        animation.knobWidth(knobWidth, knobSize);
+        animation.onOffText(oneOpacity, 0, 0.5, 0, 1, 1);
+        animation.play();
     }
 
 
     // ******************** Event Handling ************************************
-    public void addOnIosEvent(final IosEventListener LISTENER) { if (!listeners.contains(LISTENER)) { listeners.add(LISTENER); } }
-    public void removeOnIosEvent(final IosEventListener LISTENER) { if (listeners.contains(LISTENER)) { listeners.remove(LISTENER); } }
+    public void addOnIosEvent(final IosEventListener LISTENER) { addOnIosEvent(LISTENER, ReferenceType.STRONG); }
+    public void addOnIosEvent(final IosEventListener LISTENER, final ReferenceType TYPE) { getDispatcher().add(LISTENER, TYPE); }
+    public void addOnIosEvent(final IosEventType EVENT_TYPE, final IosEventListener LISTENER) { addOnIosEvent(EVENT_TYPE, LISTENER, ReferenceType.STRONG); }
+    public void addOnIosEvent(final IosEventType EVENT_TYPE, final IosEventListener LISTENER, final ReferenceType TYPE) { getDispatcher().add(EVENT_TYPE, LISTENER, TYPE); }
+    /**
+     * The listener gets its events on the executor of the given delivery
+     * instead of the FX application thread.
+     */
+    public void addOnIosEvent(final IosEventListener LISTENER, final AsyncDelivery DELIVERY) { getDispatcher().add(LISTENER, ReferenceType.STRONG, DELIVERY); }
+    public void addOnIosEvent(final IosEventType EVENT_TYPE, final IosEventListener LISTENER, final AsyncDelivery DELIVERY) { getDispatcher().add(EVENT_TYPE, LISTENER, ReferenceType.STRONG, DELIVERY); }
+    public void removeOnIosEvent(final IosEventListener LISTENER) {
+        if (null == dispatcher) { return; }
+        dispatcher.remove(LISTENER);
+    }
+
+    /**
+     * Switches nobody listens to never create a dispatcher.
+     */
+    private IosEventDispatcher getDispatcher() {
+        if (null == dispatcher) { dispatcher = new IosEventDispatcher(); }
+        return dispatcher;
+    }
 
     private void fireIosEvent(final IosEvent EVENT) {
-        listeners.forEach(listener -> listener.onIosEvent(EVENT));
+        if (null == dispatcher) { return; }
+        dispatcher.fire(EVENT);
     }
 
 
     // ******************** Resizing ******************************************
     private void resize() {
+        if (!isBuilt()) { return; }
         width  = getWidth() - getInsets().getLeft() - getInsets().getRight();
         height = getHeight() - getInsets().getTop() - getInsets().getBottom();
 
@@ -531,41 +760,47 @@ public class IosSwitch extends Region {
                 height = ASPECT_RATIO * width;
             }
 
-            dropShadow.setRadius(height * 0.14);
-            dropShadow.setOffsetY(height * 0.065);
+            // Geometry the toggle animations start from and end at
+            knobSize  = height * 0.89130435;
+            mainMinX  = height * 0.05434783;
+            mainMaxX  = mainMinX + width * 0.93421053;
+            knobWidth = knobSize;
+            knobX     = isSelected() ? mainMaxX - knobSize : mainMinX;
+
+            shadowSprite = IosKnobShadow.get(knobSize, Helper.getOutputScale(IosSwitch.this));
+
+            if (null != canvas) {
+                // The canvas is larger than the switch to leave room for the shadow
+                final double MARGIN = height * SHADOW_MARGIN;
+                canvas.setWidth(width + 2 * MARGIN);
+                canvas.setHeight(height + 2 * MARGIN);
+                canvas.relocate((getWidth() - width) * 0.5 - MARGIN, (getHeight() - height) * 0.5 - MARGIN);
+                redraw();
+                return;
+            }
 
             backgroundArea.setWidth(width);
             backgroundArea.setHeight(height);
             backgroundArea.setArcWidth(height);
             backgroundArea.setArcHeight(height);
 
-            one.setWidth(height * 0.0326087);
-            one.setHeight(height * 0.32608696);
-            one.setX(width * 0.225 - (one.getWidth() * 0.5));
-            one.setY((height - one.getHeight()) * 0.5);
-
             mainArea.setWidth(width * 0.93421053);
-            mainArea.setHeight(height * 0.89130435);
-            mainArea.setArcWidth(height * 0.89130435);
-            mainArea.setArcHeight(height * 0.89130435);
-            mainArea.setX(height * 0.05434783);
+            mainArea.setHeight(knobSize);
+            mainArea.setArcWidth(knobSize);
+            mainArea.setArcHeight(knobSize);
+            mainArea.setX(mainMinX);
             mainArea.setY(height * 0.05434783);
 
-            zero.setRadius(height * 0.1413);
-            zero.setCenterX(width * 0.765);
-            zero.setCenterY(height * 0.5);
-            zero.setStrokeWidth(height * 0.04);
-
-            knob.setWidth(height * 0.89130435);
-            knob.setHeight(height * 0.89130435);
-            knob.setArcWidth(height * 0.89130435);
-            knob.setArcHeight(height * 0.89130435);
-            if (isSelected()) {
-                knob.setX(mainArea.getLayoutBounds().getMaxX() - knob.getWidth());
-            } else {
-                knob.setX(mainArea.getLayoutBounds().getMinX());
-            }
-            knob.setY((backgroundArea.getLayoutBounds().getHeight() - knob.getLayoutBounds().getHeight()) * 0.5);
+            resizeOnOffText();
+
+            knob.setWidth(knobSize);
+            knob.setHeight(knobSize);
+            knob.setArcWidth(knobSize);
+            knob.setArcHeight(knobSize);
+            knob.setX(knobX);
+            knob.setY((height - knobSize) * 0.5);
+
+            layoutShadow();
 
             pane.setMaxSize(width, height);
             pane.setPrefSize(width, height);
@@ -573,10 +808,204 @@ public class IosSwitch extends Region {
         }
     }
 
+    private void redraw() {
+        if (null == canvas) { return; }
+        drawCanvas();
+    }
+
+    /**
+     * Paints the same shapes as the nodes do in the order of the scene graph.
+     */
+    private void drawCanvas() {
+        final GraphicsContext CTX = canvas.getGraphicsContext2D();
+        CTX.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        if (width <= 0 || height <= 0) { return; }
+        final double MARGIN = height * SHADOW_MARGIN;
+        CTX.save();
+        CTX.translate(MARGIN, MARGIN);
+
+        CTX.setFill(null == fill ? getTrackColor() : fill);
+        CTX.fillRoundRect(0, 0, width, height, height, height);
+
+        final boolean SHOW_ON_OFF = getShowOnOffText();
+        if (SHOW_ON_OFF && oneOpacity > 0) {
+            final double ONE_WIDTH  = height * 0.0326087;
+            final double ONE_HEIGHT = height * 0.32608696;
+            CTX.setGlobalAlpha(oneOpacity);
+            CTX.setFill(ONE_FILL);
+            CTX.fillRect(width * 0.225 - ONE_WIDTH * 0.5, (height - ONE_HEIGHT) * 0.5, ONE_WIDTH, ONE_HEIGHT);
+        }
+
+        if (mainOpacity > 0 && mainScale > 0) {
+            final double MAIN_WIDTH    = width * 0.93421053;
+            final double SCALED_WIDTH  = MAIN_WIDTH * mainScale;
+            final double SCALED_HEIGHT = knobSize * mainScale;
+            CTX.setGlobalAlpha(mainOpacity);
+            CTX.setFill(isDarkShown() ? DARK_MAIN_FILL : MAIN_FILL);
+            CTX.fillRoundRect(mainMinX + (MAIN_WIDTH - SCALED_WIDTH) * 0.5, (height - SCALED_HEIGHT) * 0.5, SCALED_WIDTH, SCALED_HEIGHT, SCALED_HEIGHT, SCALED_HEIGHT);
+        }
+
+        if (SHOW_ON_OFF && zeroOpacity > 0) {
+            final double RADIUS = height * 0.1413;
+            CTX.setGlobalAlpha(zeroOpacity);
+            CTX.setStroke(ZERO_STROKE);
+            CTX.setLineWidth(height * 0.04);
+            CTX.strokeOval(width * 0.765 - RADIUS, height * 0.5 - RADIUS, 2 * RADIUS, 2 * RADIUS);
+        }
+
+        CTX.setGlobalAlpha(1);
+        if (null != shadowSprite) { shadowSprite.draw(CTX, knobX, (height - knobSize) * 0.5, knobWidth); }
+        CTX.setFill(getKnobColor());
+        CTX.fillRoundRect(knobX, (height - knobSize) * 0.5, knobWidth, knobSize, knobSize, knobSize);
+        CTX.restore();
+    }
+
+    /**
+     * Moves and stretches the knob shadow of the node based switch with the
+     * knob, nothing is repainted.
+     */
+    private void layoutShadow() {
+        if (null == shadowLeft || null == shadowSprite) { return; }
+        shadowSprite.layout(shadowLeft, shadowMiddle, shadowRight, knobX, (height - knobSize) * 0.5, knobWidth);
+    }
+
+    private void resizeOnOffText() {
+        if (null == one || width <= 0 || height <= 0) { return; }
+        one.setWidth(height * 0.0326087);
+        one.setHeight(height * 0.32608696);
+        one.setX(width * 0.225 - (one.getWidth() * 0.5));
+        one.setY((height - one.getHeight()) * 0.5);
+
+        zero.setRadius(height * 0.1413);
+        zero.setCenterX(width * 0.765);
+        zero.setCenterY(height * 0.5);
+        zero.setStrokeWidth(height * 0.04);
+    }
+
 
     // ******************** Style related *************************************
-    @Override public String getUserAgentStylesheet() { return IosSwitch.class.getResource("ios-switch.css").toExternalForm(); }
+    @Override public String getUserAgentStylesheet() {
+        if (null == userAgentStyleSheet) { userAgentStyleSheet = IosSwitch.class.getResource("ios-switch.css").toExternalForm(); }
+        return userAgentStyleSheet;
+    }
 
     public static List<CssMetaData<? extends Styleable, ?>> getClassCssMetaData() { return FACTORY.getCssMetaData(); }
     @Override public List<CssMetaData<? extends Styleable, ?>> getCssMetaData() { return FACTORY.getCssMetaData(); }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * All parts of a toggle animated by one tween of the IosAnimator. Every
+     * part eases on its own over its share of the duration, parts that are
+     * not set for a run keep their values.
+     */
+    private class SwitchAnimation extends IosAnimator.Tween {
+        private double  duration;
+        private boolean animateKnobX;
+        private boolean animateMainArea;
+        private boolean animateFill;
+        private boolean animateOnOffText;
+        private double  knobWidthFrom;
+        private double  knobWidthTo;
+        private double  knobXFrom;
+        private double  knobXTo;
+        private double  scaleFrom;
+        private double  scaleTo;
+        private double  opacityFrom;
+        private double  opacityTo;
+        private Color[] fills;
+        private boolean fillsReversed;
+        private double  oneFrom;
+        private double  oneTo;
+        private double  oneTime;
+        private double  zeroFrom;
+        private double  zeroTo;
+        private double  zeroTime;
+
+        void prepare(final double DURATION) {
+            duration         = DURATION;
+            animateKnobX     = false;
+            animateMainArea  = false;
+            animateFill      = false;
+            animateOnOffText = false;
+        }
+
+        void knobWidth(final double FROM, final double TO) {
+            knobWidthFrom = FROM;
+            knobWidthTo   = TO;
+        }
+
+        void knobX(final double FROM, final double TO) {
+            animateKnobX = true;
+            knobXFrom    = FROM;
+            knobXTo      = TO;
+        }
+
+        void mainArea(final double SCALE_FROM, final double OPACITY_FROM, final double SCALE_TO, final double OPACITY_TO) {
+            animateMainArea = true;
+            scaleFrom       = SCALE_FROM;
+            scaleTo         = SCALE_TO;
+            opacityFrom     = OPACITY_FROM;
+            opacityTo       = OPACITY_TO;
+        }
+
+        void fill(final Color[] FILLS, final boolean REVERSED) {
+            animateFill   = true;
+            fills         = FILLS;
+            fillsReversed = REVERSED;
+        }
+
+        /**
+         * The times are the fractions of the duration after which the
+         * indicators reach their end values.
+         */
+        void onOffText(final double ONE_FROM, final double ONE_TO, final double ONE_TIME, final double ZERO_FROM, final double ZERO_TO, final double ZERO_TIME) {
+            animateOnOffText = true;
+            oneFrom          = ONE_FROM;
+            oneTo            = ONE_TO;
+            oneTime          = ONE_TIME;
+            zeroFrom         = ZERO_FROM;
+            zeroTo           = ZERO_TO;
+            zeroTime         = ZERO_TIME;
+        }
+
+        void play() { IosAnimator.play(this, 0, 1, duration, IosAnimator.Curve.LINEAR); }
+
+        @Override protected void apply(final double FRACTION) {
+            final double EASED = IosAnimator.easeBoth(FRACTION);
+            knobWidth = knobWidthFrom + (knobWidthTo - knobWidthFrom) * EASED;
+            if (animateKnobX) { knobX = knobXFrom + (knobXTo - knobXFrom) * EASED; }
+            if (animateMainArea) {
+                mainScale   = scaleFrom + (scaleTo - scaleFrom) * EASED;
+                mainOpacity = opacityFrom + (opacityTo - opacityFrom) * EASED;
+            }
+            if (animateFill) {
+                final int STEP = (int) Math.round(EASED * (fills.length - 1));
+                fill = fills[fillsReversed ? fills.length - 1 - STEP : STEP];
+            }
+            if (animateOnOffText) {
+                oneOpacity  = oneFrom + (oneTo - oneFrom) * IosAnimator.easeBoth(FRACTION / oneTime);
+                zeroOpacity = zeroFrom + (zeroTo - zeroFrom) * IosAnimator.easeBoth(FRACTION / zeroTime);
+            }
+
+            if (null != canvas) {
+                drawCanvas();
+                return;
+            }
+            if (null == pane) { return; }
+            knob.setWidth(knobWidth);
+            if (animateKnobX) { knob.setX(knobX); }
+            layoutShadow();
+            if (animateMainArea) {
+                mainArea.setScaleX(mainScale);
+                mainArea.setScaleY(mainScale);
+                mainArea.setOpacity(mainOpacity);
+            }
+            if (animateFill) { backgroundArea.setFill(fill); }
+            if (animateOnOffText && null != one) {
+                one.setOpacity(oneOpacity);
+                zero.setOpacity(zeroOpacity);
+            }
+        }
+    }
 }
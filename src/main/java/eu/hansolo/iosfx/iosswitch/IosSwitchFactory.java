@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.iosswitch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Creates any number of switches with the settings of the builder it was
+ * taken from. The settings are resolved once and set directly on every
+ * new instance, later changes of the builder do not affect the factory.
+ * The mouse handlers and listeners are shared by all switches and the
+ * timeouts, the animation and the event dispatcher are only created when
+ * a switch needs them, so a new switch costs about as much as a Region.
+ */
+public class IosSwitchFactory {
+    private final IosSwitchBuilder<?> SPEC;
+
+
+    // ******************** Constructors **************************************
+    IosSwitchFactory(final IosSwitchBuilder<?> SPEC) {
+        this.SPEC = SPEC;
+    }
+
+
+    // ******************** Methods *******************************************
+    public IosSwitch create() {
+        final IosSwitch CONTROL = new IosSwitch();
+        SPEC.apply(CONTROL);
+        return CONTROL;
+    }
+
+    public List<IosSwitch> create(final int NUMBER) {
+        final List<IosSwitch> CONTROLS = new ArrayList<>(NUMBER);
+        for (int i = 0 ; i < NUMBER ; i++) { CONTROLS.add(create()); }
+        return CONTROLS;
+    }
+}
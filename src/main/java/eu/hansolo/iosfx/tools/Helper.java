@@ -17,12 +17,15 @@
 package eu.hansolo.iosfx.tools;
 
 import javafx.scene.Node;
+import javafx.stage.Window;
 
+import java.lang.reflect.Method;
 import java.util.HashMap;
 
 
 public class Helper {
-    public static final int ANIMATION_DURATION = 75;
+    public static final  int    ANIMATION_DURATION = 75;
+    private static final Method OUTPUT_SCALE_X     = lookupOutputScaleX();
 
     public static final void enableNode(final Node NODE, final boolean ENABLE) {
         NODE.setVisible(ENABLE);
@@ -40,4 +43,27 @@ public class Helper {
         if (VALUE > MAX) return MAX;
         return VALUE;
     }
+
+    /**
+     * Returns the output scale of the window the given node is shown in,
+     * 1.0 if it is not shown or if the runtime has no hidpi support (Java 8).
+     */
+    public static final double getOutputScale(final Node NODE) {
+        if (null == NODE.getScene()) { return 1.0; }
+        final Window WINDOW = NODE.getScene().getWindow();
+        if (null == WINDOW || null == OUTPUT_SCALE_X) { return 1.0; }
+        try {
+            return (double) OUTPUT_SCALE_X.invoke(WINDOW);
+        } catch (ReflectiveOperationException e) {
+            return 1.0;
+        }
+    }
+
+    private static Method lookupOutputScaleX() {
+        try {
+            return Window.class.getMethod("getOutputScaleX");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.tools;
+
+import javafx.animation.AnimationTimer;
+import javafx.animation.Interpolator;
+
+import java.util.Arrays;
+
+
+/**
+ * One AnimationTimer that drives the short animations of all iosfx
+ * controls. Running tweens are kept in primitive arrays and advanced in one
+ * pass per pulse without allocating, the ease curve is a lookup table of
+ * Interpolator.EASE_BOTH. The timer stops when there was nothing to do for
+ * IDLE_TIME, so that animations that follow each other do not restart it,
+ * starting an AnimationTimer allocates.
+ * All methods have to be called on the FX application thread.
+ */
+public final class IosAnimator {
+    public enum Curve { LINEAR, EASE_BOTH }
+
+    private static final int            TABLE_SIZE = 256;
+    private static final long           IDLE_TIME  = 1_000_000_000;
+    private static final double[]       EASE_TABLE = new double[TABLE_SIZE + 1];
+    private static final AnimationTimer TIMER;
+    private static       Tween[]        tweens     = new Tween[64];
+    private static       double[]       from       = new double[64];
+    private static       double[]       to         = new double[64];
+    private static       long[]         start      = new long[64];
+    private static       long[]         duration   = new long[64];
+    private static       boolean[]      eased      = new boolean[64];
+    private static       int            size;
+    private static       boolean        inPulse;
+    private static       boolean        removed;
+    private static       Runnable[]     tasks      = new Runnable[16];
+    private static       Runnable[]     spareTasks = new Runnable[16];
+    private static       int            noOfTasks;
+    private static       boolean        running;
+    private static       long           idleSince  = -1;
+
+    static {
+        for (int i = 0 ; i <= TABLE_SIZE ; i++) { EASE_TABLE[i] = Interpolator.EASE_BOTH.interpolate(0.0, 1.0, i / (double) TABLE_SIZE); }
+        TIMER = new AnimationTimer() {
+            @Override public void handle(final long NOW) { pulse(NOW); }
+        };
+    }
+
+
+    // ******************** Constructors **************************************
+    private IosAnimator() {}
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Animates the value of the given tween from FROM to TO with the
+     * EASE_BOTH curve. A tween that is already running starts again.
+     */
+    public static void play(final Tween TWEEN, final double FROM, final double TO, final double DURATION_MS) {
+        play(TWEEN, FROM, TO, DURATION_MS, Curve.EASE_BOTH);
+    }
+    public static void play(final Tween TWEEN, final double FROM, final double TO, final double DURATION_MS, final Curve CURVE) {
+        int slot = TWEEN.slot;
+        if (slot < 0) {
+            if (size == tweens.length) { grow(); }
+            slot         = size++;
+            tweens[slot] = TWEEN;
+            TWEEN.slot   = slot;
+        }
+        from[slot]     = FROM;
+        to[slot]       = TO;
+        start[slot]    = -1;
+        duration[slot] = Math.max(1, (long) (DURATION_MS * 1_000_000));
+        eased[slot]    = Curve.EASE_BOTH == CURVE;
+        start();
+    }
+
+    /**
+     * Stops the given tween where it is, finished() is not called. A null
+     * tween, e.g. of a control that never animated, is ignored.
+     */
+    public static void stop(final Tween TWEEN) {
+        if (null == TWEEN || TWEEN.slot < 0) { return; }
+        remove(TWEEN.slot);
+    }
+
+    /**
+     * Jumps to the end value of the given tween and calls finished(), a
+     * null tween is ignored.
+     */
+    public static void finish(final Tween TWEEN) {
+        if (null == TWEEN) { return; }
+        final int SLOT = TWEEN.slot;
+        if (SLOT < 0) { return; }
+        final double VALUE = to[SLOT];
+        remove(SLOT);
+        TWEEN.apply(VALUE);
+        TWEEN.finished();
+    }
+
+    /**
+     * Runs the given task once on the next pulse, e.g. to coalesce many
+     * changes into one update per frame.
+     */
+    public static void runOnNextPulse(final Runnable TASK) {
+        if (noOfTasks == tasks.length) { tasks = Arrays.copyOf(tasks, tasks.length * 2); }
+        tasks[noOfTasks++] = TASK;
+        start();
+    }
+
+    /**
+     * Returns Interpolator.EASE_BOTH at the given fraction from the lookup table.
+     */
+    public static double easeBoth(final double FRACTION) {
+        if (FRACTION <= 0) { return 0; }
+        if (FRACTION >= 1) { return 1; }
+        final double POS   = FRACTION * TABLE_SIZE;
+        final int    INDEX = (int) POS;
+        return EASE_TABLE[INDEX] + (EASE_TABLE[INDEX + 1] - EASE_TABLE[INDEX]) * (POS - INDEX);
+    }
+
+    public static int getNoOfRunningTweens() { return size; }
+
+    private static void start() {
+        if (running) { return; }
+        running = true;
+        TIMER.start();
+    }
+
+    private static void pulse(final long NOW) {
+        if (noOfTasks > 0) { runTasks(); }
+
+        inPulse = true;
+        for (int i = 0 ; i < size ; i++) {
+            final Tween TWEEN = tweens[i];
+            if (null == TWEEN) { continue; }
+            if (start[i] < 0) { start[i] = NOW; }
+            final double  FRACTION = Math.min(1.0, (NOW - start[i]) / (double) duration[i]);
+            final double  CURVED   = eased[i] ? easeBoth(FRACTION) : FRACTION;
+            final boolean DONE     = FRACTION >= 1.0;
+            TWEEN.apply(from[i] + (to[i] - from[i]) * CURVED);
+            // The tween might have been stopped or restarted in apply()
+            if (DONE && TWEEN.slot == i && start[i] >= 0) {
+                remove(i);
+                TWEEN.finished();
+            }
+        }
+        inPulse = false;
+        if (removed) { compact(); }
+
+        if (size > 0 || noOfTasks > 0) {
+            idleSince = -1;
+        } else if (idleSince < 0) {
+            idleSince = NOW;
+        } else if (NOW - idleSince >= IDLE_TIME) {
+            idleSince = -1;
+            running   = false;
+            TIMER.stop();
+        }
+    }
+
+    /**
+     * Swaps the queue before running it, tasks that are added while running
+     * wait for the next pulse. A task that throws is reported to the uncaught
+     * exception handler of the FX thread and does not stop the others.
+     */
+    private static void runTasks() {
+        final Runnable[] QUEUE       = tasks;
+        final int        NO_OF_TASKS = noOfTasks;
+        tasks      = spareTasks.length < QUEUE.length ? new Runnable[QUEUE.length] : spareTasks;
+        spareTasks = QUEUE;
+        noOfTasks  = 0;
+        for (int i = 0 ; i < NO_OF_TASKS ; i++) {
+            final Runnable TASK = QUEUE[i];
+            QUEUE[i] = null;
+            try {
+                TASK.run();
+            } catch (Throwable t) {
+                final Thread THREAD = Thread.currentThread();
+                THREAD.getUncaughtExceptionHandler().uncaughtException(THREAD, t);
+            }
+        }
+    }
+
+    private static void remove(final int SLOT) {
+        tweens[SLOT].slot = -1;
+        tweens[SLOT]      = null;
+        if (inPulse) {
+            // Compacted after the pass, so that no running tween is skipped
+            removed = true;
+        } else {
+            final int LAST = --size;
+            if (SLOT != LAST) { move(LAST, SLOT); }
+            tweens[LAST] = null;
+        }
+    }
+
+    private static void compact() {
+        int next = 0;
+        for (int i = 0 ; i < size ; i++) {
+            if (null == tweens[i]) { continue; }
+            if (i != next) { move(i, next); }
+            next++;
+        }
+        Arrays.fill(tweens, next, size, null);
+        size    = next;
+        removed = false;
+    }
+
+    private static void move(final int FROM_SLOT, final int TO_SLOT) {
+        tweens[TO_SLOT]   = tweens[FROM_SLOT];
+        from[TO_SLOT]     = from[FROM_SLOT];
+        to[TO_SLOT]       = to[FROM_SLOT];
+        start[TO_SLOT]    = start[FROM_SLOT];
+        duration[TO_SLOT] = duration[FROM_SLOT];
+        eased[TO_SLOT]    = eased[FROM_SLOT];
+        tweens[TO_SLOT].slot = TO_SLOT;
+        tweens[FROM_SLOT]    = null;
+    }
+
+    private static void grow() {
+        final int CAPACITY = tweens.length * 2;
+        tweens   = Arrays.copyOf(tweens, CAPACITY);
+        from     = Arrays.copyOf(from, CAPACITY);
+        to       = Arrays.copyOf(to, CAPACITY);
+        start    = Arrays.copyOf(start, CAPACITY);
+        duration = Arrays.copyOf(duration, CAPACITY);
+        eased    = Arrays.copyOf(eased, CAPACITY);
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Receives the animated value on every pulse. A tween can only run once
+     * at a time, playing it again restarts it.
+     */
+    public static abstract class Tween {
+        private int slot = -1;
+
+        public boolean isRunning() { return slot > -1; }
+
+        protected abstract void apply(double VALUE);
+
+        protected void finished() {}
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.tools;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * Hands work from other threads back to the FX application thread. Tasks
+ * that are posted in between two pulses run together in one batch on the
+ * next pulse, instead of one Platform.runLater() per task.
+ * post() can be called from any thread.
+ */
+public final class IosPulseQueue {
+    private static final ConcurrentLinkedQueue<Runnable> TASKS     = new ConcurrentLinkedQueue<>();
+    private static final AtomicBoolean                   SCHEDULED = new AtomicBoolean();
+    private static final Runnable                        FLUSH     = IosPulseQueue::flush;
+
+
+    // ******************** Constructors **************************************
+    private IosPulseQueue() {}
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Runs the given task on the FX application thread with the next pulse,
+     * tasks run in the order they were posted.
+     */
+    public static void post(final Runnable TASK) {
+        TASKS.add(TASK);
+        if (SCHEDULED.compareAndSet(false, true)) {
+            Platform.runLater(() -> IosAnimator.runOnNextPulse(FLUSH));
+        }
+    }
+
+    private static void flush() {
+        // Tasks that are posted while flushing wait for the next pulse
+        SCHEDULED.set(false);
+        for (int i = TASKS.size() ; i > 0 ; i--) {
+            final Runnable TASK = TASKS.poll();
+            if (null == TASK) { return; }
+            TASK.run();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.tools;
+
+import javafx.animation.AnimationTimer;
+
+
+/**
+ * Hashed timing wheel for the press, hold and repeat deadlines of all iosfx
+ * controls. Deadlines are linked into the bucket of their tick, so
+ * scheduling and cancelling are O(1) and every pulse only looks at the
+ * buckets of the ticks that passed since the last pulse. The timer only
+ * runs while a deadline is pending.
+ * All methods have to be called on the FX application thread.
+ */
+public final class IosTimingWheel {
+    public  static final long           LONG_PRESS_DELAY = 500;
+    private static final long           TICK_NANOS       = 10_000_000;
+    private static final int            WHEEL_SIZE       = 64;
+    private static final int            MASK             = WHEEL_SIZE - 1;
+    private static final Timeout[]      BUCKETS          = new Timeout[WHEEL_SIZE];
+    private static final AnimationTimer TIMER            = new AnimationTimer() {
+        @Override public void handle(final long NOW) { tick(NOW); }
+    };
+    private static       long           currentTick;
+    private static       int            noOfPending;
+    private static       boolean        running;
+
+
+    // ******************** Constructors **************************************
+    private IosTimingWheel() {}
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Calls expired() of the given timeout after the given delay. A timeout
+     * that is already pending is moved to the new deadline.
+     */
+    public static void schedule(final Timeout TIMEOUT, final double DELAY_MS) {
+        if (Timeout.PENDING == TIMEOUT.state) { unlink(TIMEOUT); }
+        final long NOW = System.nanoTime();
+        if (!running) {
+            currentTick = NOW / TICK_NANOS;
+            running     = true;
+            TIMER.start();
+        }
+        final long DEADLINE = (NOW + (long) (DELAY_MS * 1_000_000) + TICK_NANOS - 1) / TICK_NANOS;
+        TIMEOUT.deadline = Math.max(currentTick + 1, DEADLINE);
+        TIMEOUT.state    = Timeout.PENDING;
+        link(TIMEOUT);
+    }
+
+    /**
+     * A null timeout, e.g. of a control that was never pressed, is ignored.
+     */
+    public static void cancel(final Timeout TIMEOUT) {
+        if (null == TIMEOUT) { return; }
+        if (Timeout.PENDING == TIMEOUT.state) { unlink(TIMEOUT); }
+        TIMEOUT.state = Timeout.IDLE;
+    }
+
+    public static int getNoOfPending() { return noOfPending; }
+
+    private static void tick(final long NOW) {
+        final long TARGET = NOW / TICK_NANOS;
+        if (TARGET <= currentTick) { return; }
+        // After a long pause every bucket is visited once
+        final long FIRST = Math.max(currentTick + 1, TARGET - WHEEL_SIZE + 1);
+        currentTick = TARGET;
+
+        // Collect first, expired() might schedule or cancel other timeouts
+        Timeout expired = null;
+        for (long tick = FIRST ; tick <= TARGET ; tick++) {
+            Timeout timeout = BUCKETS[(int) (tick & MASK)];
+            while (null != timeout) {
+                final Timeout NEXT = timeout.next;
+                if (timeout.deadline <= TARGET) {
+                    unlink(timeout);
+                    timeout.state       = Timeout.EXPIRING;
+                    timeout.nextExpired = expired;
+                    expired             = timeout;
+                }
+                timeout = NEXT;
+            }
+        }
+        while (null != expired) {
+            final Timeout TIMEOUT = expired;
+            expired             = TIMEOUT.nextExpired;
+            TIMEOUT.nextExpired = null;
+            // Skipped if it was cancelled or scheduled again in the meantime
+            if (Timeout.EXPIRING != TIMEOUT.state) { continue; }
+            TIMEOUT.state = Timeout.IDLE;
+            TIMEOUT.expired();
+        }
+
+        if (0 == noOfPending) {
+            running = false;
+            TIMER.stop();
+        }
+    }
+
+    private static void link(final Timeout TIMEOUT) {
+        final int INDEX = (int) (TIMEOUT.deadline & MASK);
+        TIMEOUT.prev = null;
+        TIMEOUT.next = BUCKETS[INDEX];
+        if (null != TIMEOUT.next) { TIMEOUT.next.prev = TIMEOUT; }
+        BUCKETS[INDEX] = TIMEOUT;
+        noOfPending++;
+    }
+
+    private static void unlink(final Timeout TIMEOUT) {
+        if (null == TIMEOUT.prev) {
+            BUCKETS[(int) (TIMEOUT.deadline & MASK)] = TIMEOUT.next;
+        } else {
+            TIMEOUT.prev.next = TIMEOUT.next;
+        }
+        if (null != TIMEOUT.next) { TIMEOUT.next.prev = TIMEOUT.prev; }
+        TIMEOUT.prev = null;
+        TIMEOUT.next = null;
+        noOfPending--;
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * A reusable deadline, controls keep one instance per kind of deadline.
+     */
+    public static abstract class Timeout {
+        private static final int     IDLE     = 0;
+        private static final int     PENDING  = 1;
+        private static final int     EXPIRING = 2;
+        private              int     state;
+        private              long    deadline;
+        private              Timeout prev;
+        private              Timeout next;
+        private              Timeout nextExpired;
+
+        public boolean isPending() { return PENDING == state; }
+
+        protected abstract void expired();
+    }
+}
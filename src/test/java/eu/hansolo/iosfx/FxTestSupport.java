@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx;
+
+import com.sun.javafx.application.PlatformImpl;
+import javafx.application.Platform;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+
+/**
+ * Starts the FX toolkit once for all tests and runs code on the FX
+ * application thread.
+ */
+public final class FxTestSupport {
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+    private static       boolean      started;
+
+
+    // ******************** Constructors **************************************
+    private FxTestSupport() {}
+
+
+    // ******************** Methods *******************************************
+    public static synchronized void startToolkit() throws InterruptedException {
+        if (started) { return; }
+        final CountDownLatch LATCH = new CountDownLatch(1);
+        try {
+            PlatformImpl.startup(LATCH::countDown);
+        } catch (IllegalStateException e) {
+            // Started by another test class in this jvm
+            LATCH.countDown();
+        }
+        LATCH.await(10, TimeUnit.SECONDS);
+        Platform.setImplicitExit(false);
+        started = true;
+    }
+
+    public static <T> T call(final Callable<T> CALLABLE) throws Exception {
+        if (Platform.isFxApplicationThread()) { return CALLABLE.call(); }
+        final CompletableFuture<T> FUTURE = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                FUTURE.complete(CALLABLE.call());
+            } catch (Throwable t) {
+                FUTURE.completeExceptionally(t);
+            }
+        });
+        return FUTURE.get(30, TimeUnit.SECONDS);
+    }
+
+    public static void run(final Runnable RUNNABLE) throws Exception {
+        call(() -> {
+            RUNNABLE.run();
+            return null;
+        });
+    }
+
+    /**
+     * Returns the heap that COUNT instances of the factory keep alive, divided
+     * by COUNT. The instances are created and prepared on the FX application
+     * thread and are reachable until the heap was measured.
+     */
+    public static <T> long retainedBytesPerInstance(final int COUNT, final Supplier<T> FACTORY, final Consumer<T> PREPARE) throws Exception {
+        final Object[] INSTANCES = new Object[COUNT];
+        // Warm up, class init and shared caches must not count
+        run(() -> PREPARE.accept(FACTORY.get()));
+        final long BEFORE = usedHeap();
+        run(() -> {
+            for (int i = 0 ; i < COUNT ; i++) {
+                final T INSTANCE = FACTORY.get();
+                PREPARE.accept(INSTANCE);
+                INSTANCES[i] = INSTANCE;
+            }
+        });
+        final long AFTER = usedHeap();
+        if (INSTANCES[COUNT - 1] == null) { throw new IllegalStateException(); }
+        return (AFTER - BEFORE) / COUNT;
+    }
+
+    public static long usedHeap() throws InterruptedException {
+        long used = Long.MAX_VALUE;
+        for (int i = 0 ; i < 5 ; i++) {
+            System.gc();
+            Thread.sleep(50);
+            used = Math.min(used, MEMORY.getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.common;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class IosControlRegistryTest {
+    private static final int COUNT = 10_000;
+
+
+    @Test public void collectedControlsAreDroppedWithoutUpdates() {
+        final IosControlRegistry REGISTRY = new IosControlRegistry();
+        final List<Object>       LIVING   = new ArrayList<>();
+        for (int round = 0 ; round < 20 ; round++) {
+            for (int i = 0 ; i < COUNT ; i++) { REGISTRY.register(new Object(), control -> {}); }
+            System.gc();
+        }
+        for (int i = 0 ; i < 100 ; i++) {
+            final Object CONTROL = new Object();
+            LIVING.add(CONTROL);
+            REGISTRY.register(CONTROL, control -> {});
+        }
+        assertTrue("Registrations of " + 20 * COUNT + " collected controls: " + REGISTRY.size(), REGISTRY.size() < 3 * COUNT);
+    }
+
+    @Test public void updateOnlyReachesLivingControls() {
+        final IosControlRegistry REGISTRY = new IosControlRegistry();
+        final List<Object>       LIVING   = new ArrayList<>();
+        final int[]              UPDATES  = new int[1];
+        for (int i = 0 ; i < 100 ; i++) {
+            final Object CONTROL = new Object();
+            LIVING.add(CONTROL);
+            REGISTRY.register(CONTROL, control -> UPDATES[0]++);
+        }
+        REGISTRY.update();
+        assertEquals(100, UPDATES[0]);
+        assertEquals(100, REGISTRY.size());
+    }
+}
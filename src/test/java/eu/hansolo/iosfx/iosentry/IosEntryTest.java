@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.iosentry;
+
+import eu.hansolo.iosfx.FxTestSupport;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+
+public class IosEntryTest {
+    private static final int COUNT = 2000;
+
+
+    @BeforeClass public static void startToolkit() throws Exception { FxTestSupport.startToolkit(); }
+
+    @Test public void unswipedEntriesDoNotRetainTheirSwipeButtons() throws Exception {
+        final long LAZY    = FxTestSupport.retainedBytesPerInstance(COUNT, IosEntry::new, entry -> {});
+        final long SWIPED  = FxTestSupport.retainedBytesPerInstance(COUNT, IosEntry::new, IosEntry::initSwipeButtons);
+        final long BUTTONS = SWIPED - LAZY;
+        assertTrue("Swipe buttons retain " + BUTTONS + " of " + SWIPED + " bytes per entry", BUTTONS > 0 && LAZY < SWIPED);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.ioslistview;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class IosHeightIndexTest {
+    private static final int    ROWS      = 100;
+    private static final double ESTIMATED = 44;
+
+
+    @Test public void replacedRowsKeepTheirMeasuredHeights() {
+        final ObservableList<String> ITEMS = items();
+        final IosHeightIndex<String> INDEX = new IosHeightIndex<>(ITEMS, ESTIMATED);
+        for (int i = 10 ; i < 20 ; i++) { INDEX.setHeight(i, 60); }
+        final double OFFSET = INDEX.getOffset(50);
+
+        final List<String> PAGE = new ArrayList<>();
+        for (int i = 10 ; i < 20 ; i++) { PAGE.add("Loaded " + i); }
+        ITEMS.subList(10, 20).clear();
+        ITEMS.addAll(10, PAGE);
+        // A removal followed by an add is structural and starts estimated again
+        assertEquals(50 * ESTIMATED, INDEX.getOffset(50), 0.0);
+
+        for (int i = 10 ; i < 20 ; i++) { INDEX.setHeight(i, 60); }
+        for (int i = 10 ; i < 20 ; i++) { ITEMS.set(i, "Replaced " + i); }
+        assertEquals(OFFSET, INDEX.getOffset(50), 0.0);
+        assertEquals(60, INDEX.getHeight(15), 0.0);
+
+        INDEX.setHeight(15, 80);
+        assertEquals(OFFSET + 20, INDEX.getOffset(50), 0.0);
+        assertEquals(15, INDEX.getIndexAt(10 * ESTIMATED + 5 * 60 + 1));
+    }
+
+    @Test public void structuralChangesShiftTheHeights() {
+        final ObservableList<String> ITEMS = items();
+        final IosHeightIndex<String> INDEX = new IosHeightIndex<>(ITEMS, ESTIMATED);
+        INDEX.setHeight(10, 60);
+        ITEMS.add(0, "Inserted");
+        assertEquals(ROWS + 1, INDEX.size());
+        assertEquals(60, INDEX.getHeight(11), 0.0);
+        assertEquals(ESTIMATED * (ROWS + 1) + 16, INDEX.getTotalHeight(), 0.0);
+        ITEMS.remove(0, 5);
+        assertEquals(60, INDEX.getHeight(6), 0.0);
+        assertEquals(ESTIMATED * (ROWS - 4) + 16, INDEX.getTotalHeight(), 0.0);
+    }
+
+    private static ObservableList<String> items() {
+        final ObservableList<String> ITEMS = FXCollections.observableArrayList();
+        for (int i = 0 ; i < ROWS ; i++) { ITEMS.add("Row " + i); }
+        return ITEMS;
+    }
+}
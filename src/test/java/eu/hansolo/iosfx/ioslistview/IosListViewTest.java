@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.ioslistview;
+
+import eu.hansolo.iosfx.FxTestSupport;
+import eu.hansolo.iosfx.events.IosEvent;
+import eu.hansolo.iosfx.events.IosEventListener;
+import eu.hansolo.iosfx.events.IosEventType;
+import eu.hansolo.iosfx.events.ReferenceType;
+import eu.hansolo.iosfx.iosentry.IosEntryModel;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+
+public class IosListViewTest {
+    private static final int NO_OF_ROWS = 100_000;
+    private static final int ROUNDS     = 3;
+
+
+    @BeforeClass public static void startToolkit() throws Exception { FxTestSupport.startToolkit(); }
+
+    /**
+     * Every row registers a listener on the list view and never removes
+     * it, the rows are replaced by setItems() so no wasRemoved change is
+     * seen. With weak registrations the heap returns to its baseline.
+     */
+    @Test public void churnedRowsReturnToBaselineHeap() throws Exception {
+        final IosListView LIST_VIEW = FxTestSupport.call(IosListView::new);
+        final List<Row>   ROWS      = new ArrayList<>(NO_OF_ROWS);
+        final Row         PROBE     = new Row(new IosEntryModel("Probe", ""));
+        FxTestSupport.run(() -> fill(LIST_VIEW, ROWS));
+        FxTestSupport.run(() -> clear(LIST_VIEW, ROWS, PROBE));
+        final long BASELINE = FxTestSupport.usedHeap();
+        long peak = BASELINE;
+        for (int round = 0 ; round < ROUNDS ; round++) {
+            FxTestSupport.run(() -> fill(LIST_VIEW, ROWS));
+            peak = Math.max(peak, FxTestSupport.usedHeap());
+            FxTestSupport.run(() -> clear(LIST_VIEW, ROWS, PROBE));
+        }
+        final long AFTER    = FxTestSupport.usedHeap();
+        final long RETAINED = AFTER - BASELINE;
+        final long SHOWN    = peak - BASELINE;
+        assertTrue("Rows used " + SHOWN + " bytes", SHOWN > NO_OF_ROWS * 100L);
+        assertTrue("Churned rows retain " + RETAINED + " of " + SHOWN + " bytes", RETAINED < SHOWN / 10);
+    }
+
+    @Test public void snapshotIsOneChangeOnOtherLists() throws Exception {
+        final ObservableList<IosEntryModel> ITEMS    = FXCollections.observableArrayList();
+        final List<IosEntryModel>           SNAPSHOT = new ArrayList<>();
+        final int[]                         CHANGES  = new int[1];
+        for (int i = 0 ; i < 100 ; i++) { ITEMS.add(new IosEntryModel(i, 0, null, "Title " + i, "", null, false, false, null)); }
+        // Removes, updates and inserts rows at different places
+        for (int i = 0 ; i < 100 ; i++) {
+            if (i % 10 == 3) { continue; }
+            SNAPSHOT.add(i % 10 == 5 ? new IosEntryModel(i, 1, null, "Updated " + i, "", null, false, false, null) : ITEMS.get(i));
+            if (i % 10 == 7) { SNAPSHOT.add(new IosEntryModel(1000 + i, 0, null, "Inserted " + i, "", null, false, false, null)); }
+        }
+        FxTestSupport.run(() -> {
+            final IosListView LIST_VIEW = new IosListView(ITEMS);
+            LIST_VIEW.setSnapshotExecutor(Runnable::run);
+            ITEMS.addListener((ListChangeListener<IosEntryModel>) change -> CHANGES[0]++);
+            LIST_VIEW.applySnapshot(SNAPSHOT);
+        });
+        // The diff is applied with Platform.runLater()
+        FxTestSupport.run(() -> {});
+        assertEquals(1, CHANGES[0]);
+        assertEquals(SNAPSHOT, ITEMS);
+    }
+
+    @Test public void eventsOfOtherSourcesAreIgnored() throws Exception {
+        final List<IosEvent> FORWARDED = new ArrayList<>();
+        FxTestSupport.run(() -> {
+            final IosListView LIST_VIEW = new IosListView();
+            LIST_VIEW.addOnIosEvent(FORWARDED::add);
+            LIST_VIEW.onIosEvent(new IosEvent(new Object(), IosEventType.SELECTED));
+            LIST_VIEW.onIosEvent(new IosEvent(new IosEntryModel("Title", ""), IosEventType.DELETE_ENTRY));
+        });
+        assertTrue(FORWARDED.isEmpty());
+    }
+
+    @Test public void filteringAPagedListThrowsAtTheCall() throws Exception {
+        FxTestSupport.run(() -> {
+            final IosListView LIST_VIEW = new IosListView();
+            LIST_VIEW.setDataSource(new IosEntryDataSource() {
+                @Override public int getCount() { return 1000; }
+                @Override public CompletableFuture<List<IosEntryModel>> load(final int FROM, final int TO) { return new CompletableFuture<>(); }
+            });
+            try {
+                LIST_VIEW.setFilterText("Title");
+                fail("Filtering a paged list did not throw");
+            } catch (UnsupportedOperationException e) {
+                assertEquals("", LIST_VIEW.getFilterText());
+            }
+            LIST_VIEW.setFilterText("");
+        });
+    }
+
+    private static void fill(final IosListView LIST_VIEW, final List<Row> ROWS) {
+        final IosEntryList ITEMS = new IosEntryList();
+        for (int i = 0 ; i < NO_OF_ROWS ; i++) {
+            final Row ROW = new Row(new IosEntryModel("Title " + i, "Subtitle " + i));
+            LIST_VIEW.addOnIosEvent(ROW, ReferenceType.WEAK);
+            ITEMS.add(ROW.MODEL);
+            ROWS.add(ROW);
+        }
+        LIST_VIEW.setItems(ITEMS);
+    }
+
+    private static void clear(final IosListView LIST_VIEW, final List<Row> ROWS, final Row PROBE) {
+        ROWS.clear();
+        LIST_VIEW.setItems(new IosEntryList());
+        // Adding and removing a listener purges the collected ones
+        LIST_VIEW.addOnIosEvent(PROBE, ReferenceType.WEAK);
+        LIST_VIEW.removeOnIosEvent(PROBE);
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static final class Row implements IosEventListener {
+        private final IosEntryModel MODEL;
+
+        Row(final IosEntryModel MODEL) { this.MODEL = MODEL; }
+
+        @Override public void onIosEvent(final IosEvent EVT) {}
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.iosmultibutton;
+
+import eu.hansolo.iosfx.FxTestSupport;
+import javafx.scene.layout.Region;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+
+public class IosMultiButtonTest {
+    private static final int COUNT = 2000;
+
+
+    @BeforeClass public static void startToolkit() throws Exception { FxTestSupport.startToolkit(); }
+
+    @Test public void unusedInstancesDoNotRetainTheirGraphics() throws Exception {
+        final long LAZY  = FxTestSupport.retainedBytesPerInstance(COUNT, IosMultiButton::new, button -> {});
+        final long BUILT = FxTestSupport.retainedBytesPerInstance(COUNT, IosMultiButton::new, IosMultiButtonTest::layout);
+        assertTrue("Not laid out " + LAZY + " bytes, laid out " + BUILT + " bytes per instance", LAZY * 2 < BUILT);
+    }
+
+    static void layout(final Region REGION) {
+        REGION.resize(22, 22);
+        REGION.layout();
+    }
+}
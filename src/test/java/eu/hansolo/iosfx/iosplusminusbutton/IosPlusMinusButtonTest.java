@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.iosplusminusbutton;
+
+import eu.hansolo.iosfx.FxTestSupport;
+import eu.hansolo.iosfx.events.IosStepEvent;
+import eu.hansolo.iosfx.tools.IosAnimator;
+import javafx.event.Event;
+import javafx.event.EventType;
+import javafx.scene.Node;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Region;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class IosPlusMinusButtonTest {
+    private static final int COUNT = 2000;
+
+
+    @BeforeClass public static void startToolkit() throws Exception { FxTestSupport.startToolkit(); }
+
+    @Test public void unusedInstancesDoNotRetainTheirGraphics() throws Exception {
+        final long LAZY  = FxTestSupport.retainedBytesPerInstance(COUNT, IosPlusMinusButton::new, button -> {});
+        final long BUILT = FxTestSupport.retainedBytesPerInstance(COUNT, IosPlusMinusButton::new, IosPlusMinusButtonTest::layout);
+        assertTrue("Not laid out " + LAZY + " bytes, laid out " + BUILT + " bytes per instance", LAZY * 2 < BUILT);
+    }
+
+    /**
+     * The step events are fired on the animator pulse, a listener that
+     * throws must neither stop later steps nor the animations.
+     */
+    @Test public void throwingStepListenerDoesNotStopStepsAndAnimations() throws Exception {
+        final List<Throwable>    REPORTED = new CopyOnWriteArrayList<>();
+        final List<Double>       VALUES   = new CopyOnWriteArrayList<>();
+        final CountDownLatch     THROWN   = new CountDownLatch(1);
+        final CountDownLatch     STEPPED  = new CountDownLatch(1);
+        final CountDownLatch     FINISHED = new CountDownLatch(1);
+        final IosPlusMinusButton BUTTON   = FxTestSupport.call(IosPlusMinusButton::new);
+        final Thread.UncaughtExceptionHandler HANDLER = FxTestSupport.call(() -> {
+            final Thread                          THREAD   = Thread.currentThread();
+            final Thread.UncaughtExceptionHandler PREVIOUS = THREAD.getUncaughtExceptionHandler();
+            THREAD.setUncaughtExceptionHandler((thread, throwable) -> REPORTED.add(throwable));
+            return PREVIOUS;
+        });
+        try {
+            BUTTON.addOnIosEvent(evt -> {
+                if (!(evt instanceof IosStepEvent)) { return; }
+                VALUES.add(((IosStepEvent) evt).getValue());
+                if (1 == VALUES.size()) {
+                    THROWN.countDown();
+                    throw new IllegalStateException("Listener failed");
+                }
+                STEPPED.countDown();
+            });
+            FxTestSupport.run(() -> {
+                layout(BUTTON);
+                click(BUTTON.lookup(".plus-button"));
+            });
+            assertTrue("First step was not fired", THROWN.await(5, TimeUnit.SECONDS));
+
+            FxTestSupport.run(() -> {
+                click(BUTTON.lookup(".plus-button"));
+                IosAnimator.play(new IosAnimator.Tween() {
+                    @Override protected void apply(final double VALUE) {}
+                    @Override protected void finished() { FINISHED.countDown(); }
+                }, 0, 1, 50);
+            });
+            assertTrue("Step after the failing listener was not fired", STEPPED.await(5, TimeUnit.SECONDS));
+            assertTrue("Animation after the failing listener did not finish", FINISHED.await(5, TimeUnit.SECONDS));
+            assertEquals(2.0, VALUES.get(1), 0.0);
+            assertEquals(1, REPORTED.size());
+            assertEquals("Listener failed", REPORTED.get(0).getMessage());
+        } finally {
+            FxTestSupport.run(() -> Thread.currentThread().setUncaughtExceptionHandler(HANDLER));
+        }
+    }
+
+    private static void click(final Node NODE) {
+        Event.fireEvent(NODE, mouseEvent(MouseEvent.MOUSE_PRESSED));
+        Event.fireEvent(NODE, mouseEvent(MouseEvent.MOUSE_RELEASED));
+    }
+
+    private static MouseEvent mouseEvent(final EventType<MouseEvent> TYPE) {
+        return new MouseEvent(TYPE, 0, 0, 0, 0, MouseButton.PRIMARY, 1, false, false, false, false, true, false, false, false, false, false, null);
+    }
+
+    static void layout(final Region REGION) {
+        REGION.resize(94, 29);
+        REGION.layout();
+    }
+}
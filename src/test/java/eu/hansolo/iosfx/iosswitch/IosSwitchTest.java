@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2018 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.iosfx.iosswitch;
+
+import eu.hansolo.iosfx.FxTestSupport;
+import eu.hansolo.iosfx.tools.IosAnimator;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.effect.BlurType;
+import javafx.scene.effect.DropShadow;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class IosSwitchTest {
+    private static final int  COUNT      = 2000;
+    private static final long FRAME_TIME = 16_000_000;
+
+
+    @BeforeClass public static void startToolkit() throws Exception { FxTestSupport.startToolkit(); }
+
+    @Test public void unusedInstancesDoNotRetainTheirGraphics() throws Exception {
+        final long LAZY  = FxTestSupport.retainedBytesPerInstance(COUNT, IosSwitch::new, iosSwitch -> {});
+        final long BUILT = FxTestSupport.retainedBytesPerInstance(COUNT, IosSwitch::new, IosSwitchTest::layout);
+        assertTrue("Not laid out " + LAZY + " bytes, laid out " + BUILT + " bytes per instance", LAZY * 2 < BUILT);
+    }
+
+    /**
+     * Every toggle is animated to its end by calling the pulse of the
+     * IosAnimator with frame times 16 ms apart, so the frames of the toggle
+     * animation are measured too. The frame times are boxed up front.
+     */
+    @Test public void togglingDoesNotAllocateInSteadyState() throws Exception {
+        final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final Method PULSE = IosAnimator.class.getDeclaredMethod("pulse", long.class);
+        PULSE.setAccessible(true);
+        final long[] RESULT = FxTestSupport.call(() -> {
+            final IosSwitch IOS_SWITCH = new IosSwitch();
+            layout(IOS_SWITCH);
+            final Object[][] WARM_UP = frameTimes(200_000, 0);
+            final Object[][] MEASURE = frameTimes(20_000, WARM_UP.length * FRAME_TIME);
+            // Let the jit settle and fill the caches, e.g. the fill ramp
+            toggle(IOS_SWITCH, PULSE, WARM_UP, 10_000);
+            final long ID           = Thread.currentThread().getId();
+            final long CALIBRATION  = -THREADS.getThreadAllocatedBytes(ID) + THREADS.getThreadAllocatedBytes(ID);
+            final long START        = THREADS.getThreadAllocatedBytes(ID);
+            final int  NO_OF_FRAMES = toggle(IOS_SWITCH, PULSE, MEASURE, 1_000);
+            final long ALLOCATED    = THREADS.getThreadAllocatedBytes(ID) - START - CALIBRATION;
+            return new long[] { ALLOCATED, NO_OF_FRAMES };
+        });
+        assertTrue("Only " + RESULT[1] + " frames for 1000 toggles", RESULT[1] >= 1_000 * 5);
+        assertEquals("Bytes allocated by 1000 animated toggles", 0, RESULT[0]);
+    }
+
+    @Test public void knobShadowLooksLikeTheDropShadowEffect() throws Exception {
+        // Knob of a 51 x 31 switch, idle and stretched while pressed
+        final double KNOB_SIZE = 31 * 0.89130435;
+        for (double width : new double[] { KNOB_SIZE, KNOB_SIZE * 1.3 }) {
+            final double KNOB_WIDTH = width;
+            final double DIFFERENCE = FxTestSupport.call(() -> {
+                final IosKnobShadow.Sprite SPRITE = IosKnobShadow.get(KNOB_SIZE, 1.0);
+                final ImageView LEFT   = new ImageView();
+                final ImageView MIDDLE = new ImageView();
+                final ImageView RIGHT  = new ImageView();
+                SPRITE.layout(LEFT, MIDDLE, RIGHT, 10, 10, KNOB_WIDTH);
+
+                final Rectangle EFFECT_KNOB = createKnob(KNOB_SIZE, KNOB_WIDTH);
+                EFFECT_KNOB.setEffect(new DropShadow(BlurType.GAUSSIAN, Color.rgb(0, 0, 0, 0.25), 31 * 0.14, 0.0, 0, 31 * 0.065));
+
+                return maxDifference(snapshot(LEFT, MIDDLE, RIGHT, createKnob(KNOB_SIZE, KNOB_WIDTH)), snapshot(EFFECT_KNOB));
+            });
+            assertTrue("Largest color difference " + DIFFERENCE + " at knob width " + KNOB_WIDTH, DIFFERENCE < 0.05);
+        }
+    }
+
+    /**
+     * Toggles the switch and pulses the animator until the animation ended,
+     * returns the number of frames that were used.
+     */
+    private static int toggle(final IosSwitch IOS_SWITCH, final Method PULSE, final Object[][] FRAME_TIMES, final int TOGGLES) throws ReflectiveOperationException {
+        int frame = 0;
+        for (int i = 0 ; i < TOGGLES ; i++) {
+            IOS_SWITCH.setSelected(!IOS_SWITCH.isSelected());
+            do {
+                PULSE.invoke(null, FRAME_TIMES[frame++]);
+            } while (IosAnimator.getNoOfRunningTweens() > 0);
+        }
+        return frame;
+    }
+
+    private static Object[][] frameTimes(final int NO_OF_FRAMES, final long FIRST) {
+        final Object[][] FRAME_TIMES = new Object[NO_OF_FRAMES][];
+        for (int i = 0 ; i < NO_OF_FRAMES ; i++) { FRAME_TIMES[i] = new Object[] { FIRST + i * FRAME_TIME }; }
+        return FRAME_TIMES;
+    }
+
+    private static Rectangle createKnob(final double KNOB_SIZE, final double WIDTH) {
+        final Rectangle KNOB = new Rectangle(10, 10, WIDTH, KNOB_SIZE);
+        KNOB.setArcWidth(KNOB_SIZE);
+        KNOB.setArcHeight(KNOB_SIZE);
+        KNOB.setFill(Color.WHITE);
+        return KNOB;
+    }
+
+    private static WritableImage snapshot(final Node... NODES) {
+        final SnapshotParameters PARAMETERS = new SnapshotParameters();
+        PARAMETERS.setFill(Color.web("#4cd964"));
+        PARAMETERS.setViewport(new Rectangle2D(0, 0, 60, 50));
+        return new Group(NODES).snapshot(PARAMETERS, null);
+    }
+
+    private static double maxDifference(final WritableImage IMAGE_1, final WritableImage IMAGE_2) {
+        final PixelReader READER_1 = IMAGE_1.getPixelReader();
+        final PixelReader READER_2 = IMAGE_2.getPixelReader();
+        double max = 0;
+        for (int y = 0 ; y < (int) IMAGE_1.getHeight() ; y++) {
+            for (int x = 0 ; x < (int) IMAGE_1.getWidth() ; x++) {
+                final Color COLOR_1 = READER_1.getColor(x, y);
+                final Color COLOR_2 = READER_2.getColor(x, y);
+                max = Math.max(max, Math.abs(COLOR_1.getRed() - COLOR_2.getRed()));
+                max = Math.max(max, Math.abs(COLOR_1.getGreen() - COLOR_2.getGreen()));
+                max = Math.max(max, Math.abs(COLOR_1.getBlue() - COLOR_2.getBlue()));
+            }
+        }
+        return max;
+    }
+
+    static void layout(final Region REGION) {
+        REGION.resize(51, 31);
+        REGION.layout();
+    }
+}